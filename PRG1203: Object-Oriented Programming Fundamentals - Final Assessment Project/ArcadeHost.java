@@ -0,0 +1,82 @@
+// Imports for session threads, their streams, and tracking live sessions.
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Hosts many player sessions (arcade cabinets or remote connections) in one JVM, each running Main.play over its own pair of streams.
+// Each session gets a virtual thread where the JVM has them (Java 21+); otherwise a daemon platform thread with a small stack, which is enough for
+// the game's shallow call depth. The Pokédex, move catalogue and save store are shared and safe for concurrent use; everything else is per session.
+public class ArcadeHost {
+
+    // Stack size requested for platform session threads; the default (often 1 MiB or more) is far more than a session needs.
+    private static final long PLATFORM_STACK_BYTES = 256 * 1024;
+
+    private final ThreadFactory threads;
+    private final boolean virtualThreads;
+    private final Set<Thread> sessions = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger started = new AtomicInteger();
+
+    // Creates a host that uses virtual threads when available.
+    public ArcadeHost() {
+        ThreadFactory virtual = virtualThreadFactory();
+        this.virtualThreads = virtual != null;
+        this.threads = virtual != null ? virtual : this::platformThread;
+    }
+
+    // True if sessions run on virtual threads, false if on platform threads.
+    public boolean isUsingVirtualThreads() {
+        return virtualThreads;
+    }
+
+    // Number of sessions that have not ended yet.
+    public int activeSessions() {
+        return sessions.size();
+    }
+
+    // Starts a session that reads the player's input from in and writes everything it shows to out; it ends when the player exits or in closes.
+    public Thread startSession(InputStream in, OutputStream out) {
+        SessionIO io = new SessionIO(in, out);
+        Thread[] self = new Thread[1];
+        Thread t = threads.newThread(() -> {
+            try {
+                Main.play(io);
+            } catch (NoSuchElementException | IllegalStateException e) {
+                // The input ended or was closed mid-prompt: the player walked away. Main.play has already given up the profile (its journal
+                // and lock) in its own finally, so the player can reconnect to it straight away.
+            } finally {
+                sessions.remove(self[0]);
+            }
+        });
+        self[0] = t;
+        t.setName("arcade-session-" + started.incrementAndGet());
+        sessions.add(t);
+        t.start();
+        return t;
+    }
+
+    // Waits until every session started so far has ended.
+    public void awaitSessions() throws InterruptedException {
+        for (Thread t : sessions.toArray(new Thread[0])) t.join();
+    }
+
+    private Thread platformThread(Runnable r) {
+        Thread t = new Thread(null, r, "arcade-session", PLATFORM_STACK_BYTES);
+        t.setDaemon(true);
+        return t;
+    }
+
+    // Looks up Thread.ofVirtual().factory() by reflection, so the host still compiles and runs on Java 17; returns null when it is unavailable.
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | LinkageError | ClassCastException | UnsupportedOperationException e) {
+            // No such method before Java 19, and a preview feature (InvocationTargetException) until Java 21.
+            return null;
+        }
+    }
+}
@@ -1,5 +1,3 @@
-import java.util.concurrent.ThreadLocalRandom; // Import for generating random numbers.
-
 // Represents a basic attack move in the game.
 public class BasicAttack implements Move {
 
@@ -10,24 +8,27 @@ public class BasicAttack implements Move {
     }
 
     @Override
-    public int execute(Pokemon user, Pokemon target) {
+    public int execute(Pokemon user, Pokemon target, BattleListener events, RandomSource random) {
         // Get attack and defense stats.
         int atk = user.getAttack();
         int def = target.getDefense();
 
-        // Generate a random multiplier between 0.85 and 1.0.
-        double rand = 0.85 + ThreadLocalRandom.current().nextDouble() * 0.15;
-
-        // Calculate damage with a minimum of 1.
-        int dmg = (int) Math.max(1, Math.round((atk - def * 0.5) * rand));
+        // Roll the damage; DamageCalculator uses the same formula for exact odds.
+        int dmg = damage(atk, def, random.nextDouble());
 
-        // Display the move being used.
-        System.out.printf("%s used %s!\n", user.getName(), name());
+        // Report the move being used.
+        events.moveUsed(user, this);
 
         // Apply damage to the target.
-        target.takeDamage(dmg);
+        target.takeDamage(dmg, events);
 
         // Return the damage dealt.
         return dmg;
     }
+
+    // Damage for a roll in [0, 1): a random multiplier between 0.85 and 1.0, with a minimum of 1.
+    static int damage(int atk, int def, double roll) {
+        double rand = 0.85 + roll * 0.15;
+        return (int) Math.max(1, Math.round((atk - def * 0.5) * rand));
+    }
 }
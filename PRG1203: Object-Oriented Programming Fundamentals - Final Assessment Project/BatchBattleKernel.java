@@ -0,0 +1,307 @@
+// Imports for reading the fighters' move lists.
+import java.util.List;
+
+// Struct-of-arrays battle kernel: thousands of concurrent headless battles stored as parallel primitive arrays (one slot per battle) and
+// advanced one turn per pass, without Pokemon objects or virtual Move.execute calls. Rules match BattleEngine: the first fighter moves, then the
+// second if both are still standing, each picking a uniformly random move, for at most BattleEngine.MAX_TURNS turns.
+// Each move is reduced on load to the terms of its damage formula for that matchup: damage = max(minDamage, (long) (base * rand + roundAdd)),
+// where base already folds in attack, defense, power and the defender's type effectiveness, and rand is the usual 0.85-1.0 roll.
+// Every slot has its own SplitMix64 state, drawn from in BattleEngine's order: RandomSource.nextInt(move count) for the move, unless the
+// fighter has no moves and falls back to Struggle, then one nextDouble() for the damage, unless the move is Struggle, which does not roll.
+// So a battle loaded with RandomSource.streamSeed(seed, i) plays out exactly as BattleEngine.fight with RandomSource.forStream(seed, i).
+// The scalar pass is the default. The Vector API pass (run with --add-modules jdk.incubator.vector and compile vector/VectorBattleStep.java
+// with the same flag) gives identical results but is not faster on JDK 17, so it is only used when asked for.
+public final class BatchBattleKernel {
+
+    // Moves per fighter; Pokemon.addMove keeps at most four.
+    public static final int MAX_MOVES = 4;
+
+    // Second half of a move's damage formula: the roll is scaled to 0.85-1.0.
+    static final double ROLL_UNIT = 0x1.0p-53;
+    static final double ROLL_SCALE = 0.15;
+    static final double ROLL_OFFSET = 0.85;
+
+    // Vectorised pass, or null when the incubator module (or the compiled class) is unavailable.
+    private static final Stepper VECTOR_STEPPER = loadVectorStepper();
+
+    // One pass over every slot; implemented by vector/VectorBattleStep.
+    interface Stepper {
+        void step(BatchBattleKernel kernel);
+    }
+
+    // Per-battle state, indexed by slot. Health points and counters are whole numbers held in doubles (exact far beyond any stat), so the vector
+    // pass works on one lane width throughout and never converts double to long, which JDK 17 does not compile to SIMD instructions.
+    final int slots;
+    final double[] hpFirst;
+    final double[] hpSecond;
+    final double[] turns;
+    final double[] movesBySecond;
+    final double[] damageByFirst;
+    final double[] damageBySecond;
+    final long[] rng;
+    // Number of moves to choose from; 0 means the fighter has none and always uses Struggle, which BattleEngine picks without a draw.
+    final long[] moveCountFirst;
+    final long[] moveCountSecond;
+
+    // Per-move damage terms, indexed by move * slots + slot so each move's terms are contiguous across slots.
+    final double[] baseFirst;
+    final double[] roundAddFirst;
+    final double[] minDamageFirst;
+    final double[] recoilFirst;
+    // 1 if the move draws a damage roll, 0 for Struggle.
+    final double[] rollsFirst;
+    final double[] baseSecond;
+    final double[] roundAddSecond;
+    final double[] minDamageSecond;
+    final double[] recoilSecond;
+    final double[] rollsSecond;
+
+    private final Stepper stepper;
+    // Reseeded from a slot's state for each turn of the scalar pass, so draws go through the same RandomSource code as BattleEngine's.
+    private final RandomSource random = new RandomSource(0);
+
+    // Creates a kernel with the given number of battle slots, using the scalar pass.
+    public BatchBattleKernel(int slots) {
+        this(slots, false);
+    }
+
+    // Creates a kernel with the given number of battle slots; useVector = true uses the vector pass when it is available (e.g. to compare the two).
+    public BatchBattleKernel(int slots, boolean useVector) {
+        if (slots <= 0) throw new IllegalArgumentException("slots must be positive");
+        this.slots = slots;
+        this.hpFirst = new double[slots];
+        this.hpSecond = new double[slots];
+        this.turns = new double[slots];
+        this.movesBySecond = new double[slots];
+        this.damageByFirst = new double[slots];
+        this.damageBySecond = new double[slots];
+        this.rng = new long[slots];
+        this.moveCountFirst = new long[slots];
+        this.moveCountSecond = new long[slots];
+        this.baseFirst = new double[MAX_MOVES * slots];
+        this.roundAddFirst = new double[MAX_MOVES * slots];
+        this.minDamageFirst = new double[MAX_MOVES * slots];
+        this.recoilFirst = new double[MAX_MOVES * slots];
+        this.rollsFirst = new double[MAX_MOVES * slots];
+        this.baseSecond = new double[MAX_MOVES * slots];
+        this.roundAddSecond = new double[MAX_MOVES * slots];
+        this.minDamageSecond = new double[MAX_MOVES * slots];
+        this.recoilSecond = new double[MAX_MOVES * slots];
+        this.rollsSecond = new double[MAX_MOVES * slots];
+        this.stepper = useVector ? VECTOR_STEPPER : null;
+    }
+
+    // Returns true if passes run on the Vector API.
+    public boolean isVectorised() {
+        return stepper != null;
+    }
+
+    // Returns true if the Vector API pass can be used in this JVM.
+    public static boolean isVectorAvailable() {
+        return VECTOR_STEPPER != null;
+    }
+
+    // Number of battle slots.
+    public int slots() {
+        return slots;
+    }
+
+    // Places a new battle between full-health copies of the two fighters in a slot, with its own random stream; the fighters are only read.
+    public void load(int slot, Pokemon first, Pokemon second, long seed) {
+        reset(slot, first.getMaxHp(), second.getMaxHp(), seed);
+        moveCountFirst[slot] = loadMoves(slot, first, second, baseFirst, roundAddFirst, minDamageFirst, recoilFirst, rollsFirst);
+        moveCountSecond[slot] = loadMoves(slot, second, first, baseSecond, roundAddSecond, minDamageSecond, recoilSecond, rollsSecond);
+    }
+
+    // Reduces each of the attacker's moves to its damage terms against this target and returns the move count; a fighter without moves gets
+    // Struggle as move 0 and a count of 0.
+    private int loadMoves(int slot, Pokemon attacker, Pokemon target, double[] base, double[] roundAdd, double[] minDamage, double[] recoil,
+                          double[] rolls) {
+        List<Move> moves = attacker.getMoves();
+        if (moves == null || moves.isEmpty()) {
+            int damage = Struggle.damage(attacker.getAttack());
+            setMove(slot, 0, base, roundAdd, minDamage, recoil, rolls, 0.0, 0.0, damage, Math.max(1, damage / 4), false);
+            return 0;
+        }
+        if (moves.size() > MAX_MOVES) throw new IllegalArgumentException(attacker.getName() + " has more than " + MAX_MOVES + " moves");
+
+        for (int m = 0; m < moves.size(); m++) {
+            Move move = moves.get(m);
+            if (move instanceof BasicAttack) {
+                // Math.max(1, Math.round(x)) is max(1, (long) (x + 0.5)) wherever it can matter.
+                double b = attacker.getAttack() - target.getDefense() * 0.5;
+                setMove(slot, m, base, roundAdd, minDamage, recoil, rolls, b, 0.5, 1, 0, true);
+            } else if (move instanceof TypeMove) {
+                TypeMove typeMove = (TypeMove) move;
+                double eff = TypeChart.getDualEffectiveness(typeMove.getType().ordinal(), target.getDefenderIndex());
+                if (eff <= 0.0) {
+                    // TypeMove still rolls against an immune target, so the draw is kept.
+                    setMove(slot, m, base, roundAdd, minDamage, recoil, rolls, 0.0, 0.0, 0, 0, true);
+                } else {
+                    // Same stat clamping and evaluation order as TypeMove.damage, so base * rand is the same double.
+                    double b = (Math.max(1, attacker.getAttack()) * typeMove.getPower() - Math.max(0, target.getDefense()) * 0.5) * eff;
+                    setMove(slot, m, base, roundAdd, minDamage, recoil, rolls, b, 0.0, 1, 0, true);
+                }
+            } else if (move instanceof Struggle) {
+                int damage = Struggle.damage(attacker.getAttack());
+                setMove(slot, m, base, roundAdd, minDamage, recoil, rolls, 0.0, 0.0, damage, Math.max(1, damage / 4), false);
+            } else {
+                throw new IllegalArgumentException("BatchBattleKernel has no damage model for move: " + move.name());
+            }
+        }
+        return moves.size();
+    }
+
+    private void setMove(int slot, int move, double[] base, double[] roundAdd, double[] minDamage, double[] recoil, double[] rolls,
+                         double b, double round, int min, int rec, boolean roll) {
+        int i = move * slots + slot;
+        base[i] = b;
+        roundAdd[i] = round;
+        minDamage[i] = min;
+        recoil[i] = rec;
+        rolls[i] = roll ? 1.0 : 0.0;
+    }
+
+    // Advances every unfinished battle by one turn and returns how many are still running.
+    public int step() {
+        if (stepper != null) stepper.step(this);
+        else stepScalar(0, slots);
+        return countRunning();
+    }
+
+    // Runs every loaded battle to the end.
+    public void runToCompletion() {
+        while (step() > 0) {
+        }
+    }
+
+    // Number of battles that have not finished yet.
+    public int countRunning() {
+        int running = 0;
+        for (int s = 0; s < slots; s++) if (isRunning(s)) running++;
+        return running;
+    }
+
+    private boolean isRunning(int slot) {
+        return hpFirst[slot] > 0 && hpSecond[slot] > 0 && turns[slot] < BattleEngine.MAX_TURNS;
+    }
+
+    // Scalar pass over slots [from, to); the vector pass also uses it for the slots after its last full vector.
+    void stepScalar(int from, int to) {
+        for (int s = from; s < to; s++) {
+            if (!isRunning(s)) continue;
+            turns[s]++;
+
+            random.reseed(rng[s]);
+            // First fighter: pick the move and roll its damage as BattleEngine.useMove does; recoil hurts the attacker.
+            int i = pickMove(moveCountFirst[s]) * slots + s;
+            double roll = rollsFirst[i] != 0.0 ? random.nextDouble() : 0.0;
+            double dealt = damage(baseFirst[i], roundAddFirst[i], minDamageFirst[i], roll);
+            hpSecond[s] -= dealt;
+            damageByFirst[s] += dealt;
+            hpFirst[s] -= recoilFirst[i];
+
+            if (hpFirst[s] > 0 && hpSecond[s] > 0) {
+                i = pickMove(moveCountSecond[s]) * slots + s;
+                roll = rollsSecond[i] != 0.0 ? random.nextDouble() : 0.0;
+                dealt = damage(baseSecond[i], roundAddSecond[i], minDamageSecond[i], roll);
+                hpFirst[s] -= dealt;
+                damageBySecond[s] += dealt;
+                movesBySecond[s]++;
+                hpSecond[s] -= recoilSecond[i];
+            }
+            rng[s] = random.state();
+        }
+    }
+
+    // Move index for a fighter with the given move count, drawn as BattleEngine draws it; Struggle (move 0) needs no draw.
+    private int pickMove(long moveCount) {
+        return moveCount == 0 ? 0 : random.nextInt((int) moveCount);
+    }
+
+    // One damage roll from a move's terms, for a roll in [0, 1).
+    private static double damage(double base, double roundAdd, double minDamage, double roll) {
+        double rand = roll * ROLL_SCALE + ROLL_OFFSET;
+        return Math.max(minDamage, (long) (base * rand + roundAdd));
+    }
+
+    // Outcome of a finished battle in the given slot, with the same rules as BattleEngine.
+    public BattleResult.Outcome outcome(int slot) {
+        boolean firstFainted = hpFirst[slot] <= 0;
+        boolean secondFainted = hpSecond[slot] <= 0;
+        if (secondFainted && !firstFainted) return BattleResult.Outcome.FIRST_WON;
+        if (firstFainted && !secondFainted) return BattleResult.Outcome.SECOND_WON;
+        return BattleResult.Outcome.DRAW;
+    }
+
+    // Result of a finished battle in the given slot, in the same form BattleEngine.fight returns.
+    public BattleResult result(int slot) {
+        return new BattleResult(outcome(slot), (int) turns[slot], (int) damageByFirst[slot], (int) damageBySecond[slot],
+                (int) turns[slot], (int) movesBySecond[slot]);
+    }
+
+    // Simulates the given number of battles between the two fighters, a kernel-full at a time; battle i uses random stream i of the seed.
+    public SimulationStats simulate(Pokemon first, Pokemon second, int battles, long seed) {
+        SimulationStats stats = new SimulationStats();
+        if (battles <= 0) return stats;
+
+        // Every slot plays the same matchup, so the move terms are worked out once and copied.
+        load(0, first, second, 0);
+        int used = Math.min(slots, battles);
+        for (int s = 1; s < used; s++) copyMoves(0, s);
+
+        for (int start = 0; start < battles; start += slots) {
+            int count = Math.min(slots, battles - start);
+            for (int s = 0; s < slots; s++) {
+                reset(s, first.getMaxHp(), second.getMaxHp(), RandomSource.streamSeed(seed, start + s));
+                // Slots beyond the last battle start finished, so they cost nothing.
+                if (s >= count) hpFirst[s] = 0;
+            }
+            runToCompletion();
+            for (int s = 0; s < count; s++) {
+                stats.record(outcome(s), (int) turns[s], (int) damageByFirst[s], (int) damageBySecond[s], (int) turns[s], (int) movesBySecond[s]);
+            }
+        }
+        return stats;
+    }
+
+    // Restarts the battle in a slot with the given health points and random stream, keeping its move terms.
+    private void reset(int slot, int hpFirst, int hpSecond, long seed) {
+        this.hpFirst[slot] = hpFirst;
+        this.hpSecond[slot] = hpSecond;
+        turns[slot] = 0;
+        movesBySecond[slot] = 0;
+        damageByFirst[slot] = 0;
+        damageBySecond[slot] = 0;
+        rng[slot] = seed;
+    }
+
+    // Copies both fighters' move terms from one slot to another.
+    private void copyMoves(int from, int to) {
+        moveCountFirst[to] = moveCountFirst[from];
+        moveCountSecond[to] = moveCountSecond[from];
+        for (int m = 0; m < MAX_MOVES; m++) {
+            int src = m * slots + from;
+            int dst = m * slots + to;
+            baseFirst[dst] = baseFirst[src];
+            roundAddFirst[dst] = roundAddFirst[src];
+            minDamageFirst[dst] = minDamageFirst[src];
+            recoilFirst[dst] = recoilFirst[src];
+            rollsFirst[dst] = rollsFirst[src];
+            baseSecond[dst] = baseSecond[src];
+            roundAddSecond[dst] = roundAddSecond[src];
+            minDamageSecond[dst] = minDamageSecond[src];
+            recoilSecond[dst] = recoilSecond[src];
+            rollsSecond[dst] = rollsSecond[src];
+        }
+    }
+
+    // Finds the vector pass by name, so this class still loads on JVMs without the incubator module.
+    private static Stepper loadVectorStepper() {
+        try {
+            return (Stepper) Class.forName("VectorBattleStep").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+            return null;
+        }
+    }
+}
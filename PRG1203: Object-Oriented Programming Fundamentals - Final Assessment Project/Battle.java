@@ -1,135 +1,157 @@
-// Imports for null-checking and object utilities, generating random numbers, as well as reading player input.
+// Imports for null-checking and object utilities, as well as reading player input and writing battle text.
+import java.io.PrintStream;
 import java.util.Objects;
-import java.util.Random;
 import java.util.Scanner;
 
-// Represents a Pokémon battle between the player and an opponent.
+// Represents a Pokémon battle between the player and an opponent, played at the console; the rules themselves live in BattleStepper.
 public class Battle {
 
-    // Fields for storing the player's Pokémon, opponent's Pokémon, input scanner, random generator, and player stats.
+    // Fields for storing the player's Pokémon, opponent's Pokémon, session input and output, random source, battle text renderer, opponent move policy, and player stats.
     private final Pokemon playerPokemon;
     private final Pokemon opponentPokemon;
     private final Scanner scanner;
-    private final Random random;
+    private final PrintStream out;
+    private final RandomSource random;
+    private final BattleListener events;
+    private final OpponentPolicy opponentPolicy;
     private final Player player;
+    // Pause between rounds; real time by default, BattlePacer.INSTANT for automated runs.
+    private BattlePacer pacer = ScheduledBattlePacer.realTime();
+    // Records the battle as it is played, or null when a fighter knows a move MoveRegistry cannot store.
+    private BattleReplay.Recorder recorder;
 
     // Constructor for initialising the battle with the player's Pokémon, opponent's Pokémon, and player statistics.
     public Battle(Pokemon playerPokemon, Pokemon opponentPokemon, Player player) {
+        this(playerPokemon, opponentPokemon, player, new RandomSource());
+    }
+
+    // Constructor that draws every damage roll and opponent move choice from the given random source, so a seeded battle can be reproduced.
+    public Battle(Pokemon playerPokemon, Pokemon opponentPokemon, Player player, RandomSource random) {
+        this(playerPokemon, opponentPokemon, player, random, OpponentPolicy.RANDOM);
+    }
+
+    // Constructor that lets the given policy choose the opponent's moves (e.g. a MonteCarloOpponentPolicy for trainer battles).
+    public Battle(Pokemon playerPokemon, Pokemon opponentPokemon, Player player, RandomSource random, OpponentPolicy opponentPolicy) {
+        this(playerPokemon, opponentPokemon, player, random, opponentPolicy, SessionIO.console());
+    }
+
+    // Constructor for a hosted session: reads the player's moves from, and writes the battle text to, the given session streams.
+    public Battle(Pokemon playerPokemon, Pokemon opponentPokemon, Player player, RandomSource random, OpponentPolicy opponentPolicy, SessionIO io) {
         this.playerPokemon = Objects.requireNonNull(playerPokemon, "playerPokemon must not be null");
         this.opponentPokemon = Objects.requireNonNull(opponentPokemon, "opponentPokemon must not be null");
         this.player = Objects.requireNonNull(player, "player must not be null");
-        this.scanner = new Scanner(System.in);
-        this.random = new Random();
+        this.random = Objects.requireNonNull(random, "random must not be null");
+        this.opponentPolicy = Objects.requireNonNull(opponentPolicy, "opponentPolicy must not be null");
+        Objects.requireNonNull(io, "io must not be null");
+        this.events = io.events();
+        this.scanner = io.in();
+        this.out = io.out();
     }
 
-    // Main battle loop: Runs until one Pokémon faints, then declares the winner and updates statistics.
-    public void start() {
-        System.out.println("\n=== BATTLE START ===");
-        System.out.printf("%s vs %s!\n", playerPokemon.getName(), opponentPokemon.getName());
-        System.out.println("=" + "=".repeat(20) + "=");
-
-        while (!playerPokemon.isFainted() && !opponentPokemon.isFainted()) {
-            if (!playerPokemon.isFainted()) {
-                playerTurn();
-            }
+    // Replaces the pause between rounds, e.g. with BattlePacer.INSTANT so scripted battles run without waiting.
+    public void setPacer(BattlePacer pacer) {
+        this.pacer = Objects.requireNonNull(pacer, "pacer must not be null");
+    }
 
-            if (opponentPokemon.isFainted()) break;
+    // Main battle loop: Drives a BattleStepper until one Pokémon faints, reading the player's moves from the console, then declares the winner and updates statistics.
+    public void start() {
+        out.println("\n=== BATTLE START ===");
+        out.printf("%s vs %s!\n", playerPokemon.getName(), opponentPokemon.getName());
+        out.println("=" + "=".repeat(20) + "=");
 
-            if (!opponentPokemon.isFainted()) {
-                opponentTurn();
+        BattleStepper stepper = new BattleStepper(playerPokemon, opponentPokemon, random, events, opponentPolicy);
+        try {
+            recorder = BattleReplay.record(stepper);
+        } catch (IllegalArgumentException e) {
+            recorder = null;
+        }
+        while (!stepper.isFinished()) {
+            if (stepper.getPhase() == BattleStepper.Phase.PLAYER_MOVE) {
+                playerTurn(stepper);
+                continue;
             }
 
+            opponentTurn(stepper);
             showBattleStatus();
 
-            try {
-                Thread.sleep(1000); // Small delay for pacing.
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+            // Blocks the session thread for the pause; it is already tied to this battle by the blocking move prompt in playerTurn.
+            pacer.awaitPauseAfterRound();
         }
 
-        System.out.println("\n=== BATTLE END ===");
+        out.println("\n=== BATTLE END ===");
         if (playerPokemon.isFainted()) {
-            System.out.println(playerPokemon.getName() + " fainted! You lost the battle...");
+            out.println(playerPokemon.getName() + " fainted! You lost the battle...");
             player.incrementBattlesLost();
         } else if (opponentPokemon.isFainted()) {
-            System.out.println(opponentPokemon.getName() + " fainted! You won the battle!");
+            out.println(opponentPokemon.getName() + " fainted! You won the battle!");
             player.incrementBattlesWon();
+        } else {
+            out.println("Neither Pokémon could win. The battle ended in a draw.");
         }
     }
 
+    // Replay of the finished battle, or null if it has not been played or could not be recorded.
+    public BattleReplay getReplay() {
+        return recorder != null && recorder.isFinished() ? recorder.toReplay() : null;
+    }
+
     // Handles the player's turn, including move selection and execution.
-    private void playerTurn() {
-        if (playerPokemon.getMoves() == null || playerPokemon.getMoves().isEmpty()) {
-            System.out.println(playerPokemon.getName() + " has no moves! Using struggle...");
-            struggleAttack(playerPokemon, opponentPokemon);
+    private void playerTurn(BattleStepper stepper) {
+        if (!stepper.isAwaitingPlayer()) {
+            out.println(playerPokemon.getName() + " has no moves! Using struggle...");
+            stepper.step();
             return;
         }
 
-        System.out.println("\n" + playerPokemon.getName() + "'s turn!");
-        System.out.println("Choose a move:");
+        out.println("\n" + playerPokemon.getName() + "'s turn!");
+        out.println("Choose a move:");
 
         for (int i = 0; i < playerPokemon.getMoves().size(); i++) {
-            System.out.println((i + 1) + ". " + playerPokemon.getMoves().get(i).name());
+            out.println((i + 1) + ". " + playerPokemon.getMoves().get(i).name());
         }
 
-        System.out.print("Enter move number: ");
+        out.print("Enter move number: ");
 
+        int choice = -1;
         try {
             String line = scanner.nextLine();
-            int choice = -1;
             try {
                 if (line != null) choice = Integer.parseInt(line.trim()) - 1;
             } catch (NumberFormatException nfe) {
                 choice = -1;
             }
 
-            if (choice >= 0 && choice < playerPokemon.getMoves().size()) {
-                Move selectedMove = playerPokemon.getMoves().get(choice);
-                selectedMove.execute(playerPokemon, opponentPokemon);
-            } else {
-                System.out.println("Invalid move selection! Using first available move...");
-                playerPokemon.getMoves().get(0).execute(playerPokemon, opponentPokemon);
+            if (choice < 0 || choice >= playerPokemon.getMoves().size()) {
+                out.println("Invalid move selection! Using first available move...");
+                choice = 0;
             }
         } catch (Exception e) {
-            System.out.println("Invalid input! Using first available move...");
+            out.println("Invalid input! Using first available move...");
             try { scanner.nextLine(); } catch (Exception ignored) {}
-            playerPokemon.getMoves().get(0).execute(playerPokemon, opponentPokemon);
+            choice = 0;
         }
+
+        stepper.choosePlayerMove(choice);
+        stepper.step();
     }
 
-    // Handles the opponent's turn by randomly selecting and executing a move.
-    private void opponentTurn() {
+    // Handles the opponent's turn; the stepper executes the move chosen by the opponent policy.
+    private void opponentTurn(BattleStepper stepper) {
         if (opponentPokemon.getMoves() == null || opponentPokemon.getMoves().isEmpty()) {
-            System.out.println(opponentPokemon.getName() + " has no moves! Using struggle...");
-            struggleAttack(opponentPokemon, playerPokemon);
-            return;
+            out.println(opponentPokemon.getName() + " has no moves! Using struggle...");
+        } else {
+            out.println("\n" + opponentPokemon.getName() + "'s turn!");
         }
-
-        System.out.println("\n" + opponentPokemon.getName() + "'s turn!");
-
-        Move selectedMove = opponentPokemon.getMoves().get(random.nextInt(opponentPokemon.getMoves().size()));
-        selectedMove.execute(opponentPokemon, playerPokemon);
-    }
-
-    // Executes the Struggle move, dealing damage to the target and recoil to the attacker.
-    private void struggleAttack(Pokemon attacker, Pokemon target) {
-        int damage = Math.max(1, attacker.getAttack() / 4);
-        System.out.printf("%s used Struggle!\n", attacker.getName());
-        target.takeDamage(damage);
-
-        int recoilDamage = Math.max(1, damage / 4);
-        attacker.takeDamage(recoilDamage);
-        System.out.printf("%s is hurt by recoil!\n", attacker.getName());
+        stepper.step();
     }
 
     // Displays the current health points of both Pokémon.
     private void showBattleStatus() {
-        System.out.println("\n--- Battle Status ---");
-        System.out.printf("%s: %d/%d health points\n",
+        out.println("\n--- Battle Status ---");
+        out.printf("%s: %d/%d health points\n",
             playerPokemon.getName(), playerPokemon.getHp(), playerPokemon.getMaxHp());
-        System.out.printf("%s: %d/%d health points\n",
+        out.printf("%s: %d/%d health points\n",
             opponentPokemon.getName(), opponentPokemon.getHp(), opponentPokemon.getMaxHp());
-        System.out.println("--------------------");
+        out.println("--------------------");
     }
 }
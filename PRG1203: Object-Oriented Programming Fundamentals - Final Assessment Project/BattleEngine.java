@@ -0,0 +1,119 @@
+// Imports for list handling.
+import java.util.List;
+
+// Headless 1v1 battle engine: applies the same Move.execute and Pokemon.takeDamage rules as Battle, but without console input, prompts, or pacing delays.
+// An engine reuses its working fighters from battle to battle, so the turn loop allocates nothing; it is not thread-safe, so use one per thread.
+public class BattleEngine {
+
+    // Upper bound on turns so that matchups where neither side can deal damage (e.g. both immune) still terminate as a draw.
+    public static final int MAX_TURNS = 1000;
+
+    // Receives the events of every battle this engine runs; BattleListener.NONE keeps simulations free of formatting.
+    private final BattleListener events;
+
+    // Working copies of the two fighters, reset at the start of every battle instead of allocated; listeners see these objects, not the templates.
+    private final Pokemon fighterA = new Pokemon();
+    private final Pokemon fighterB = new Pokemon();
+
+    // Counters of the battle most recently played.
+    private int turns;
+    private int damageByFirst;
+    private int damageBySecond;
+    private int hitsByFirst;
+    private int hitsBySecond;
+
+    // Creates an engine that discards all battle events.
+    public BattleEngine() {
+        this(BattleListener.NONE);
+    }
+
+    // Creates an engine that reports battle events to the given listener (e.g. a BattleEventLog or ConsoleBattleListener).
+    public BattleEngine(BattleListener events) {
+        this.events = events == null ? BattleListener.NONE : events;
+    }
+
+    // Runs one battle between fresh copies of the given fighters with this thread's unseeded random source.
+    public BattleResult fight(Pokemon first, Pokemon second) {
+        return fight(first, second, RandomSource.current());
+    }
+
+    // Runs one battle between fresh copies of the given fighters, drawing every move choice and damage roll from the given source; the originals are never mutated.
+    public BattleResult fight(Pokemon first, Pokemon second, RandomSource random) {
+        BattleResult.Outcome outcome = play(first, second, random);
+        return new BattleResult(outcome, turns, damageByFirst, damageBySecond, hitsByFirst, hitsBySecond);
+    }
+
+    // Runs one battle like fight(first, second, random) but adds it straight to the given statistics, so a simulation loop allocates nothing per battle.
+    public BattleResult.Outcome fight(Pokemon first, Pokemon second, RandomSource random, SimulationStats stats) {
+        BattleResult.Outcome outcome = play(first, second, random);
+        stats.record(outcome, turns, damageByFirst, damageBySecond, hitsByFirst, hitsBySecond);
+        return outcome;
+    }
+
+    // Plays one battle on this engine's working copies and leaves its counters in the fields above.
+    private BattleResult.Outcome play(Pokemon first, Pokemon second, RandomSource random) {
+        Pokemon a = resetForBattle(fighterA, first);
+        Pokemon b = resetForBattle(fighterB, second);
+
+        turns = 0;
+        damageByFirst = 0;
+        damageBySecond = 0;
+        hitsByFirst = 0;
+        hitsBySecond = 0;
+
+        // Same turn order as Battle.start(): the first fighter moves, then the second if it is still standing.
+        while (!a.isFainted() && !b.isFainted() && turns < MAX_TURNS) {
+            turns++;
+
+            damageByFirst += useMove(a, b, random);
+            hitsByFirst++;
+            if (b.isFainted() || a.isFainted()) break;
+
+            damageBySecond += useMove(b, a, random);
+            hitsBySecond++;
+        }
+
+        if (b.isFainted() && !a.isFainted()) return BattleResult.Outcome.FIRST_WON;
+        if (a.isFainted() && !b.isFainted()) return BattleResult.Outcome.SECOND_WON;
+        return BattleResult.Outcome.DRAW;
+    }
+
+    // Picks a random move for the attacker (as Battle.opponentTurn() does) and executes it, falling back to Struggle when no moves exist.
+    private int useMove(Pokemon attacker, Pokemon target, RandomSource random) {
+        List<Move> moves = attacker.getMoves();
+        if (moves == null || moves.isEmpty()) {
+            return Struggle.INSTANCE.execute(attacker, target, events, random);
+        }
+        Move move = moves.get(random.nextInt(moves.size()));
+        return move.execute(attacker, target, events, random);
+    }
+
+    // Creates a battle-ready copy of a Pokémon with full health points; moves are shared since they hold no per-battle state.
+    public static Pokemon copyForBattle(Pokemon src) {
+        return resetForBattle(new Pokemon(), src);
+    }
+
+    // Overwrites a working copy with the template's stats, types and moves at full health points, reusing the copy's move list.
+    static Pokemon resetForBattle(Pokemon p, Pokemon src) {
+        p.setId(src.getId());
+        p.setName(src.getName());
+        p.copyTypesFrom(src);
+        p.setMaxHp(src.getMaxHp());
+        p.setHp(src.getMaxHp());
+        p.setAttack(src.getAttack());
+        p.setDefense(src.getDefense());
+        p.setSpecialAttack(src.getSpecialAttack());
+        p.setSpecialDefense(src.getSpecialDefense());
+        p.setSpeed(src.getSpeed());
+        List<Move> moves = p.getMoves();
+        moves.clear();
+        List<Move> source = src.getMoves();
+        if (source != null) {
+            // Indexed rather than for-each, so no iterator is created.
+            for (int i = 0; i < source.size(); i++) {
+                p.addMove(source.get(i));
+            }
+        }
+        return p;
+    }
+}
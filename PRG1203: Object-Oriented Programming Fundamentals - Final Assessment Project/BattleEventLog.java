@@ -0,0 +1,128 @@
+// Fixed-size ring buffer of battle events for simulations: all storage is preallocated, so recording an event never allocates or formats text.
+// Once full, the oldest events are overwritten. The log is not thread-safe; use one per battle or per worker thread.
+public class BattleEventLog implements BattleListener {
+
+    // Kinds of recorded events, one per BattleListener callback.
+    public enum Kind {
+        MOVE_USED, EFFECTIVENESS, DAMAGE_DEALT, DAMAGE_TAKEN, RECOIL, FAINTED, HEALED, FULLY_HEALED
+    }
+
+    private final Kind[] kinds;
+    private final Pokemon[] actors;
+    private final Pokemon[] targets;
+    private final Move[] moves;
+    private final double[] values;
+    private final int mask;
+    private long written;
+
+    // Creates a log holding at least the given number of events (rounded up to a power of two).
+    public BattleEventLog(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.kinds = new Kind[size];
+        this.actors = new Pokemon[size];
+        this.targets = new Pokemon[size];
+        this.moves = new Move[size];
+        this.values = new double[size];
+        this.mask = size - 1;
+    }
+
+    // Stores one event in the next slot.
+    private void append(Kind kind, Pokemon actor, Pokemon target, Move move, double value) {
+        int slot = (int) (written & mask);
+        kinds[slot] = kind;
+        actors[slot] = actor;
+        targets[slot] = target;
+        moves[slot] = move;
+        values[slot] = value;
+        written++;
+    }
+
+    @Override
+    public void moveUsed(Pokemon user, Move move) {
+        append(Kind.MOVE_USED, user, null, move, 0);
+    }
+
+    @Override
+    public void effectiveness(Pokemon user, Pokemon target, double multiplier) {
+        append(Kind.EFFECTIVENESS, user, target, null, multiplier);
+    }
+
+    @Override
+    public void damageDealt(Pokemon user, Pokemon target, int damage) {
+        append(Kind.DAMAGE_DEALT, user, target, null, damage);
+    }
+
+    @Override
+    public void damageTaken(Pokemon target, int damage) {
+        append(Kind.DAMAGE_TAKEN, target, null, null, damage);
+    }
+
+    @Override
+    public void recoil(Pokemon user, int damage) {
+        append(Kind.RECOIL, user, null, null, damage);
+    }
+
+    @Override
+    public void fainted(Pokemon pokemon) {
+        append(Kind.FAINTED, pokemon, null, null, 0);
+    }
+
+    @Override
+    public void healed(Pokemon pokemon, int amount) {
+        append(Kind.HEALED, pokemon, null, null, amount);
+    }
+
+    @Override
+    public void fullyHealed(Pokemon pokemon) {
+        append(Kind.FULLY_HEALED, pokemon, null, null, pokemon.getHp());
+    }
+
+    // Number of events currently retained (at most the capacity).
+    public int size() {
+        return (int) Math.min(written, kinds.length);
+    }
+
+    // Total number of events recorded since creation or the last clear, including overwritten ones.
+    public long totalRecorded() {
+        return written;
+    }
+
+    // Maximum number of retained events.
+    public int capacity() {
+        return kinds.length;
+    }
+
+    // Forgets all events; the buffers are kept for reuse.
+    public void clear() {
+        written = 0;
+    }
+
+    // Converts an index in [0, size()) into a buffer slot, where 0 is the oldest retained event.
+    private int slot(int index) {
+        if (index < 0 || index >= size()) throw new IndexOutOfBoundsException("index " + index + ", size " + size());
+        long first = written - size();
+        return (int) ((first + index) & mask);
+    }
+
+    // Accessors for the retained events, oldest first.
+    public Kind kindAt(int index) {
+        return kinds[slot(index)];
+    }
+
+    public Pokemon actorAt(int index) {
+        return actors[slot(index)];
+    }
+
+    public Pokemon targetAt(int index) {
+        return targets[slot(index)];
+    }
+
+    public Move moveAt(int index) {
+        return moves[slot(index)];
+    }
+
+    // Damage, heal amount, or effectiveness multiplier, depending on the event kind.
+    public double valueAt(int index) {
+        return values[slot(index)];
+    }
+}
@@ -0,0 +1,31 @@
+// Receives battle events emitted by moves and Pokémon (move used, effectiveness, damage, recoil, faint, heal).
+// Every method has an empty default, so implementations only override the events they care about; nothing is formatted unless a listener does it.
+public interface BattleListener {
+
+    // Listener that ignores every event; used by headless and simulated battles.
+    BattleListener NONE = new BattleListener() {};
+
+    // A Pokémon used a move.
+    default void moveUsed(Pokemon user, Move move) {}
+
+    // A type-based move was scored with the given effectiveness multiplier.
+    default void effectiveness(Pokemon user, Pokemon target, double multiplier) {}
+
+    // A type-based move finished; damage is 0 when the move had no effect.
+    default void damageDealt(Pokemon user, Pokemon target, int damage) {}
+
+    // A Pokémon took damage; its health points have already been reduced.
+    default void damageTaken(Pokemon target, int damage) {}
+
+    // A Pokémon was hurt by the recoil of its own move.
+    default void recoil(Pokemon user, int damage) {}
+
+    // A Pokémon's health points reached zero.
+    default void fainted(Pokemon pokemon) {}
+
+    // A Pokémon recovered the given amount of health points.
+    default void healed(Pokemon pokemon, int amount) {}
+
+    // A Pokémon was restored to full health points.
+    default void fullyHealed(Pokemon pokemon) {}
+}
@@ -0,0 +1,40 @@
+// Imports for non-blocking pauses.
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+
+// Decides how long a battle pauses between rounds so players can follow the text; Battle asks its pacer once per round.
+// A pause is a stage that completes when the battle may go on, so a caller that drives battles from a scheduler can chain the next step onto it
+// instead of holding a thread while it waits. Battle.start() does not: it reads the player's moves on the session thread, so it waits with
+// awaitPauseAfterRound() and that thread is held for every pause of a live battle, as it is while the player is deciding.
+public interface BattlePacer {
+
+    // Already-completed pause shared by every pacer that does not wait.
+    CompletionStage<Void> NO_PAUSE = CompletableFuture.completedStage(null);
+
+    // Pacer that never waits, for simulations, automated runs and CI; pausing with it costs nothing.
+    BattlePacer INSTANT = new BattlePacer() {
+        @Override
+        public CompletionStage<Void> pauseAfterRound() {
+            return NO_PAUSE;
+        }
+
+        @Override
+        public void awaitPauseAfterRound() {
+        }
+    };
+
+    // Returns a stage that completes once the pause after a round is over.
+    CompletionStage<Void> pauseAfterRound();
+
+    // Waits for the pause after a round on the calling thread, for console loops that read input on that thread anyway; an interrupt ends the pause early.
+    default void awaitPauseAfterRound() {
+        try {
+            pauseAfterRound().toCompletableFuture().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // A failed pause only shortens the wait.
+        }
+    }
+}
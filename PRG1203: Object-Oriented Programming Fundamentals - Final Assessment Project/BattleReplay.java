@@ -0,0 +1,425 @@
+// Imports for the replay archive files and text encoding.
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Compact, deterministic record of one player-versus-opponent battle: the random seed, both fighters as they entered, and every move choice.
+// Replaying runs the same BattleStepper with the same seed and the recorded choices, so it reproduces every damage roll, faint and the result.
+// Encoding: "BR", a version byte, the 8-byte seed, two fighter snapshots (zig-zag varints, a UTF-8 name, type ordinals, MoveRegistry ids),
+// the outcome and turn count for checking, then the move choices packed four to a byte, i.e. half a byte per turn on top of a ~50-byte header.
+public final class BattleReplay {
+
+    private static final byte MAGIC_0 = 'B';
+    private static final byte MAGIC_1 = 'R';
+    private static final byte VERSION = 1;
+
+    // Move choices are indices into a move list of at most four, so two bits each.
+    private static final int MAX_MOVES = 4;
+
+    // Where each player's replays are kept, one archive file per player next to the saves.
+    private static final String ARCHIVE_DIRECTORY = "saves/replays/";
+    private static final String ARCHIVE_EXTENSION = ".replays";
+
+    private final byte[] data;
+    private final long seed;
+    private final Pokemon player;
+    private final Pokemon opponent;
+    private final BattleResult.Outcome outcome;
+    private final int turns;
+    private final int moveCount;
+    private final int movesOffset;
+
+    // Decodes and checks an encoded replay.
+    private BattleReplay(byte[] data) {
+        this.data = data;
+        Reader in = new Reader(data);
+        if (in.readByte() != MAGIC_0 || in.readByte() != MAGIC_1) throw new IllegalArgumentException("not a battle replay");
+        int version = in.readByte();
+        if (version != VERSION) throw new IllegalArgumentException("unsupported replay version " + version);
+        this.seed = in.readLong();
+        this.player = in.readFighter();
+        this.opponent = in.readFighter();
+        int outcomeOrdinal = in.readByte();
+        BattleResult.Outcome[] outcomes = BattleResult.Outcome.values();
+        if (outcomeOrdinal < 0 || outcomeOrdinal >= outcomes.length) throw new IllegalArgumentException("corrupt replay outcome");
+        this.outcome = outcomes[outcomeOrdinal];
+        this.turns = in.readVarInt();
+        this.moveCount = in.readVarInt();
+        this.movesOffset = in.position();
+        if (moveCount < 0 || movesOffset + (moveCount + 3) / 4 != data.length) throw new IllegalArgumentException("corrupt replay length");
+    }
+
+    // Decodes a replay from its bytes (e.g. one read back from an archive).
+    public static BattleReplay fromBytes(byte[] bytes) {
+        if (bytes == null) throw new IllegalArgumentException("bytes must not be null");
+        return new BattleReplay(bytes.clone());
+    }
+
+    // Starts recording the given battle, which must not have taken a step yet.
+    public static Recorder record(BattleStepper stepper) {
+        Recorder recorder = new Recorder(stepper.getSeed(), stepper.getPlayerPokemon(), stepper.getOpponentPokemon());
+        stepper.setRecorder(recorder);
+        return recorder;
+    }
+
+    // Getters.
+    public long getSeed() {
+        return seed;
+    }
+
+    public String getPlayerName() {
+        return player.getName();
+    }
+
+    public String getOpponentName() {
+        return opponent.getName();
+    }
+
+    public BattleResult.Outcome getOutcome() {
+        return outcome;
+    }
+
+    public int getTurns() {
+        return turns;
+    }
+
+    // Number of recorded move choices (moves made with Struggle need none).
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    // Encoded size in bytes.
+    public int size() {
+        return data.length;
+    }
+
+    // A copy of the encoded replay.
+    public byte[] toBytes() {
+        return data.clone();
+    }
+
+    // Re-runs the battle silently and returns its result.
+    public BattleResult replay() {
+        return replay(BattleListener.NONE);
+    }
+
+    // Re-runs the battle, reporting every event to the given listener (e.g. a ConsoleBattleListener to show a disputed battle move by move).
+    public BattleResult replay(BattleListener events) {
+        Pokemon a = fighter(player);
+        Pokemon b = fighter(opponent);
+        BattleStepper stepper = new BattleStepper(a, b, new RandomSource(seed), events, OpponentPolicy.RANDOM);
+        int next = 0;
+        while (!stepper.isFinished()) {
+            boolean playerMoves = stepper.getPhase() == BattleStepper.Phase.PLAYER_MOVE;
+            Pokemon mover = playerMoves ? a : b;
+            if (mover.getMoves() != null && !mover.getMoves().isEmpty()) {
+                if (next >= moveCount) throw new IllegalStateException("replay ends before the battle does");
+                int choice = moveAt(next++);
+                if (playerMoves) stepper.choosePlayerMove(choice);
+                else stepper.chooseOpponentMove(choice);
+            }
+            stepper.step();
+        }
+        return stepper.result();
+    }
+
+    // True if replaying gives the recorded outcome and turn count.
+    public boolean verify() {
+        try {
+            BattleResult result = replay();
+            return result.getOutcome() == outcome && result.getTurns() == turns;
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private int moveAt(int i) {
+        return (data[movesOffset + i / 4] >>> ((i % 4) * 2)) & 3;
+    }
+
+    // A fresh battle copy of a recorded fighter, at the health points it entered with.
+    private static Pokemon fighter(Pokemon snapshot) {
+        Pokemon p = BattleEngine.copyForBattle(snapshot);
+        p.setHp(snapshot.getHp());
+        return p;
+    }
+
+    // Archive file holding the given player's replays, named like the player's save file.
+    public static Path archivePath(String playerName) {
+        String sanitized = playerName.toLowerCase().replaceAll("[^a-z0-9]", "_");
+        return Paths.get(ARCHIVE_DIRECTORY + sanitized + ARCHIVE_EXTENSION);
+    }
+
+    // Appends this replay to an archive file as one length-prefixed record, written with a single append so concurrent sessions do not interleave.
+    public void appendTo(Path archive) throws IOException {
+        Path parent = archive.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Writer record = new Writer(data.length + 5);
+        record.writeVarInt(data.length);
+        record.writeBytes(data);
+        Files.write(archive, record.toBytes(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    // Reads every replay in an archive file, in the order they were played; an unfinished record at the end (e.g. after a crash) is skipped.
+    public static List<BattleReplay> readAll(Path archive) throws IOException {
+        List<BattleReplay> replays = new ArrayList<>();
+        if (!Files.exists(archive)) return replays;
+        Reader in = new Reader(Files.readAllBytes(archive));
+        while (in.remaining() > 0) {
+            int start = in.position();
+            int length;
+            try {
+                length = in.readVarInt();
+            } catch (IllegalArgumentException e) {
+                break;
+            }
+            if (length < 0 || length > in.remaining()) {
+                in.seek(start);
+                break;
+            }
+            replays.add(new BattleReplay(in.readBytes(length)));
+        }
+        return replays;
+    }
+
+    // Collects a battle's choices as it is played; BattleStepper feeds it, and toReplay() encodes the finished battle.
+    public static final class Recorder {
+        private final Writer header;
+        private byte[] moves = new byte[8];
+        private int moveCount;
+        private BattleResult.Outcome outcome;
+        private int turns;
+
+        // Snapshots both fighters now, before the first move; moves must come from MoveRegistry so they can be stored by id.
+        Recorder(long seed, Pokemon player, Pokemon opponent) {
+            header = new Writer(64);
+            header.writeByte(MAGIC_0);
+            header.writeByte(MAGIC_1);
+            header.writeByte(VERSION);
+            header.writeLong(seed);
+            header.writeFighter(player);
+            header.writeFighter(opponent);
+        }
+
+        // Records the index of the move about to be used.
+        void moveChosen(int index) {
+            if (index < 0 || index >= MAX_MOVES) throw new IllegalArgumentException("move index out of range: " + index);
+            if (moveCount / 4 == moves.length) moves = Arrays.copyOf(moves, moves.length * 2);
+            moves[moveCount / 4] |= (byte) (index << ((moveCount % 4) * 2));
+            moveCount++;
+        }
+
+        // Records how the battle ended.
+        void finished(BattleResult.Outcome outcome, int turns) {
+            this.outcome = outcome;
+            this.turns = turns;
+        }
+
+        // True once the recorded battle has ended.
+        public boolean isFinished() {
+            return outcome != null;
+        }
+
+        // Encodes the finished battle.
+        public BattleReplay toReplay() {
+            if (!isFinished()) throw new IllegalStateException("battle is not finished");
+            Writer out = new Writer(header.size() + 12 + (moveCount + 3) / 4);
+            out.writeBytes(header.toBytes());
+            out.writeByte(outcome.ordinal());
+            out.writeVarInt(turns);
+            out.writeVarInt(moveCount);
+            out.writeBytes(Arrays.copyOf(moves, (moveCount + 3) / 4));
+            return new BattleReplay(out.toBytes());
+        }
+    }
+
+    // Growable byte buffer with the replay's primitive encodings.
+    private static final class Writer {
+        private byte[] buf;
+        private int size;
+
+        Writer(int capacity) {
+            buf = new byte[Math.max(16, capacity)];
+        }
+
+        int size() {
+            return size;
+        }
+
+        byte[] toBytes() {
+            return Arrays.copyOf(buf, size);
+        }
+
+        void writeByte(int b) {
+            if (size == buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+            buf[size++] = (byte) b;
+        }
+
+        void writeBytes(byte[] bytes) {
+            if (size + bytes.length > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + bytes.length));
+            System.arraycopy(bytes, 0, buf, size, bytes.length);
+            size += bytes.length;
+        }
+
+        void writeLong(long v) {
+            for (int i = 56; i >= 0; i -= 8) writeByte((int) (v >>> i));
+        }
+
+        // Unsigned LEB128: seven bits per byte, high bit set on all but the last.
+        void writeVarInt(int v) {
+            while ((v & ~0x7F) != 0) {
+                writeByte((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            writeByte(v);
+        }
+
+        // Zig-zag first, so small negative stats stay short too.
+        void writeSignedVarInt(int v) {
+            writeVarInt((v << 1) ^ (v >> 31));
+        }
+
+        void writeString(String s) {
+            byte[] utf8 = (s == null ? "" : s).getBytes(StandardCharsets.UTF_8);
+            writeVarInt(utf8.length);
+            writeBytes(utf8);
+        }
+
+        void writeFighter(Pokemon p) {
+            writeSignedVarInt(p.getId());
+            writeString(p.getName());
+            List<String> types = p.getTypes();
+            int typeCount = types == null ? 0 : Math.min(types.size(), 255);
+            writeByte(typeCount);
+            for (int i = 0; i < typeCount; i++) writeByte(Type.fromString(types.get(i)).ordinal());
+            writeSignedVarInt(p.getMaxHp());
+            writeSignedVarInt(p.getHp());
+            writeSignedVarInt(p.getAttack());
+            writeSignedVarInt(p.getDefense());
+            writeSignedVarInt(p.getSpecialAttack());
+            writeSignedVarInt(p.getSpecialDefense());
+            writeSignedVarInt(p.getSpeed());
+            List<Move> moves = p.getMoves();
+            int moveCount = moves == null ? 0 : moves.size();
+            writeByte(moveCount);
+            for (int i = 0; i < moveCount; i++) {
+                int id = MoveRegistry.idOf(MoveRegistry.canonical(moves.get(i)));
+                if (id < 0) throw new IllegalArgumentException("move is not in MoveRegistry: " + moves.get(i).name());
+                writeVarInt(id);
+            }
+        }
+    }
+
+    // Cursor over encoded bytes; malformed input raises IllegalArgumentException.
+    private static final class Reader {
+        private final byte[] data;
+        private int pos;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        int position() {
+            return pos;
+        }
+
+        void seek(int position) {
+            pos = position;
+        }
+
+        int remaining() {
+            return data.length - pos;
+        }
+
+        int readByte() {
+            if (pos >= data.length) throw new IllegalArgumentException("replay is truncated");
+            return data[pos++] & 0xFF;
+        }
+
+        byte[] readBytes(int n) {
+            if (n > remaining()) throw new IllegalArgumentException("replay is truncated");
+            byte[] out = Arrays.copyOfRange(data, pos, pos + n);
+            pos += n;
+            return out;
+        }
+
+        long readLong() {
+            long v = 0;
+            for (int i = 0; i < 8; i++) v = (v << 8) | readByte();
+            return v;
+        }
+
+        int readVarInt() {
+            int v = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = readByte();
+                v |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return v;
+            }
+            throw new IllegalArgumentException("corrupt replay varint");
+        }
+
+        int readSignedVarInt() {
+            int v = readVarInt();
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        String readString() {
+            return new String(readBytes(readVarInt()), StandardCharsets.UTF_8);
+        }
+
+        Pokemon readFighter() {
+            Pokemon p = new Pokemon();
+            p.setId(readSignedVarInt());
+            p.setName(readString());
+            Type[] all = Type.values();
+            int typeCount = readByte();
+            List<String> types = new ArrayList<>(typeCount);
+            for (int i = 0; i < typeCount; i++) {
+                int ordinal = readByte();
+                if (ordinal >= all.length) throw new IllegalArgumentException("corrupt replay type");
+                types.add(all[ordinal].toString());
+            }
+            p.setTypes(types);
+            p.setMaxHp(readSignedVarInt());
+            p.setHp(readSignedVarInt());
+            p.setAttack(readSignedVarInt());
+            p.setDefense(readSignedVarInt());
+            p.setSpecialAttack(readSignedVarInt());
+            p.setSpecialDefense(readSignedVarInt());
+            p.setSpeed(readSignedVarInt());
+            int moveCount = readByte();
+            for (int i = 0; i < moveCount; i++) {
+                Move move = MoveRegistry.byId(readVarInt());
+                if (move == null) throw new IllegalArgumentException("unknown move id in replay");
+                p.addMove(move);
+            }
+            return p;
+        }
+    }
+
+    // Command-line entry point: re-runs every battle in a player's replay archive and reports whether each reproduces its recorded result.
+    // Usage: java BattleReplay archive.replays
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.out.println("Usage: java BattleReplay archive.replays");
+            return;
+        }
+        List<BattleReplay> replays = readAll(Paths.get(args[0].trim()));
+        int mismatches = 0;
+        for (int i = 0; i < replays.size(); i++) {
+            BattleReplay r = replays.get(i);
+            boolean ok = r.verify();
+            if (!ok) mismatches++;
+            System.out.printf("%d. %s vs %s: %s after %d turns (%d bytes) %s\n",
+                    i + 1, r.getPlayerName(), r.getOpponentName(), r.getOutcome(), r.getTurns(), r.size(), ok ? "reproduced" : "MISMATCH");
+        }
+        System.out.println(replays.size() + " replays, " + mismatches + " mismatches.");
+    }
+}
@@ -0,0 +1,55 @@
+// Holds the outcome of a single headless battle: who won, how many turns it took, and how much damage each side dealt.
+public class BattleResult {
+
+    // Possible outcomes from the point of view of the first fighter.
+    public enum Outcome {
+        FIRST_WON, SECOND_WON, DRAW
+    }
+
+    private final Outcome outcome;
+    private final int turns;
+    private final int damageByFirst;
+    private final int damageBySecond;
+    private final int hitsByFirst;
+    private final int hitsBySecond;
+
+    // Creates a result from the final battle counters.
+    public BattleResult(Outcome outcome, int turns, int damageByFirst, int damageBySecond, int hitsByFirst, int hitsBySecond) {
+        this.outcome = outcome;
+        this.turns = turns;
+        this.damageByFirst = damageByFirst;
+        this.damageBySecond = damageBySecond;
+        this.hitsByFirst = hitsByFirst;
+        this.hitsBySecond = hitsBySecond;
+    }
+
+    // Getters.
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public int getTurns() {
+        return turns;
+    }
+
+    public int getDamageByFirst() {
+        return damageByFirst;
+    }
+
+    public int getDamageBySecond() {
+        return damageBySecond;
+    }
+
+    public int getHitsByFirst() {
+        return hitsByFirst;
+    }
+
+    public int getHitsBySecond() {
+        return hitsBySecond;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s after %d turns (damage dealt: %d vs %d)", outcome, turns, damageByFirst, damageBySecond);
+    }
+}
@@ -0,0 +1,76 @@
+// Imports for fork-join parallelism.
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Runs large numbers of headless battles in parallel across all cores and returns aggregate win rates, turn counts, and damage statistics.
+public class BattleSimulator {
+
+    // Number of battles a single fork-join leaf runs before it stops splitting.
+    private static final int BATTLES_PER_TASK = 4096;
+
+    private final ForkJoinPool pool;
+
+    // Creates a simulator that uses the shared common pool (one worker per core).
+    public BattleSimulator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    // Creates a simulator that uses the given pool, e.g. to limit the number of worker threads.
+    public BattleSimulator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // Simulates the given number of battles between the two fighters with an unpredictable seed.
+    public SimulationStats simulate(Pokemon first, Pokemon second, int battles) {
+        return simulate(first, second, battles, new RandomSource().nextLong());
+    }
+
+    // Simulates the given number of battles between the two fighters; the template Pokémon are only read, never mutated.
+    // Battle i always uses random stream i of the seed, so the same seed gives the same statistics regardless of thread count.
+    public SimulationStats simulate(Pokemon first, Pokemon second, int battles, long seed) {
+        if (first == null || second == null) throw new IllegalArgumentException("fighters must not be null");
+        if (battles <= 0) return new SimulationStats();
+        return pool.invoke(new SimulationTask(first, second, seed, 0, battles));
+    }
+
+    // Fork-join task that splits the battle range in halves until it is small enough to run on one thread.
+    private static class SimulationTask extends RecursiveTask<SimulationStats> {
+        private static final long serialVersionUID = 1L;
+
+        private final Pokemon first;
+        private final Pokemon second;
+        private final long seed;
+        private final int from;
+        private final int to;
+
+        SimulationTask(Pokemon first, Pokemon second, long seed, int from, int to) {
+            this.first = first;
+            this.second = second;
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SimulationStats compute() {
+            if (to - from <= BATTLES_PER_TASK) {
+                BattleEngine engine = new BattleEngine();
+                SimulationStats stats = new SimulationStats();
+                RandomSource random = new RandomSource(0);
+                for (int i = from; i < to; i++) {
+                    random.reseed(RandomSource.streamSeed(seed, i));
+                    engine.fight(first, second, random, stats);
+                }
+                return stats;
+            }
+
+            int mid = (from + to) >>> 1;
+            SimulationTask left = new SimulationTask(first, second, seed, from, mid);
+            SimulationTask right = new SimulationTask(first, second, seed, mid, to);
+            left.fork();
+            SimulationStats stats = right.compute();
+            stats.merge(left.join());
+            return stats;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+// Imports for null-checking and list handling.
+import java.util.List;
+import java.util.Objects;
+
+// Resumable player-versus-opponent battle: each step() performs one move, and a battle waiting for the player's choice simply returns instead of blocking.
+// Turn order and rules match Battle: the player moves first, the opponent answers if still standing, and Struggle stands in when a side has no moves.
+// Nothing here prints, sleeps or reads input, so a single scheduler thread can drive many battles in turn; Battle.start() is a console loop over one.
+// Damage rolls and opponent move choices come from separate streams of the given source, so a BattleReplay can re-run a battle from its seed and
+// recorded moves without re-running the opponent's policy. A stepper is not thread-safe: drive each one from one thread at a time.
+public class BattleStepper {
+
+    // What the battle will do on the next step.
+    public enum Phase {
+        PLAYER_MOVE, OPPONENT_MOVE, FINISHED
+    }
+
+    private final Pokemon playerPokemon;
+    private final Pokemon opponentPokemon;
+    private final long seed;
+    private final RandomSource random;
+    private final RandomSource policyRandom;
+    private final BattleListener events;
+    private final OpponentPolicy opponentPolicy;
+
+    private Phase phase = Phase.PLAYER_MOVE;
+    // Chosen move indices for the coming player and opponent moves, or -1 while none has been chosen.
+    private int chosenMove = -1;
+    private int chosenOpponentMove = -1;
+    // Receives every move choice and the final result when the battle is being recorded.
+    private BattleReplay.Recorder recorder;
+
+    // Counters in the same form as BattleEngine's, with the player as the first fighter.
+    private int turns;
+    private int damageByPlayer;
+    private int damageByOpponent;
+    private int movesByPlayer;
+    private int movesByOpponent;
+
+    // Creates a battle with a random-move opponent and no event output.
+    public BattleStepper(Pokemon playerPokemon, Pokemon opponentPokemon, RandomSource random) {
+        this(playerPokemon, opponentPokemon, random, BattleListener.NONE, OpponentPolicy.RANDOM);
+    }
+
+    // Creates a battle that reports to the given listener and lets the given policy choose the opponent's moves; the Pokémon are fought with as given.
+    public BattleStepper(Pokemon playerPokemon, Pokemon opponentPokemon, RandomSource random, BattleListener events, OpponentPolicy opponentPolicy) {
+        this.playerPokemon = Objects.requireNonNull(playerPokemon, "playerPokemon must not be null");
+        this.opponentPokemon = Objects.requireNonNull(opponentPokemon, "opponentPokemon must not be null");
+        Objects.requireNonNull(random, "random must not be null");
+        this.seed = random.state();
+        this.random = random;
+        this.policyRandom = random.split();
+        this.events = events == null ? BattleListener.NONE : events;
+        this.opponentPolicy = Objects.requireNonNull(opponentPolicy, "opponentPolicy must not be null");
+        if (playerPokemon.isFainted() || opponentPokemon.isFainted()) phase = Phase.FINISHED;
+    }
+
+    // Getters.
+    public Pokemon getPlayerPokemon() {
+        return playerPokemon;
+    }
+
+    public Pokemon getOpponentPokemon() {
+        return opponentPokemon;
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    // State of the random source when the battle began; a stepper over the same fighters and a RandomSource with this seed rolls the same damage.
+    public long getSeed() {
+        return seed;
+    }
+
+    public boolean isFinished() {
+        return phase == Phase.FINISHED;
+    }
+
+    // True when the next step is the player's and still needs a move choice (a player with no moves struggles without one).
+    public boolean isAwaitingPlayer() {
+        return phase == Phase.PLAYER_MOVE && chosenMove < 0 && hasMoves(playerPokemon);
+    }
+
+    // Chooses the move (0-based index into the player's moves) for the coming player move.
+    public void choosePlayerMove(int moveIndex) {
+        if (phase != Phase.PLAYER_MOVE) throw new IllegalStateException("not the player's move: " + phase);
+        List<Move> moves = playerPokemon.getMoves();
+        if (moves == null || moveIndex < 0 || moveIndex >= moves.size()) {
+            throw new IllegalArgumentException("no move at index " + moveIndex);
+        }
+        chosenMove = moveIndex;
+    }
+
+    // Fixes the opponent's coming move (0-based index into its moves) instead of asking the policy, as a replay does.
+    public void chooseOpponentMove(int moveIndex) {
+        if (phase != Phase.OPPONENT_MOVE) throw new IllegalStateException("not the opponent's move: " + phase);
+        List<Move> moves = opponentPokemon.getMoves();
+        if (moves == null || moveIndex < 0 || moveIndex >= moves.size()) {
+            throw new IllegalArgumentException("no move at index " + moveIndex);
+        }
+        chosenOpponentMove = moveIndex;
+    }
+
+    // Records every move of this battle to the given recorder; call before the first step.
+    public void setRecorder(BattleReplay.Recorder recorder) {
+        if (turns > 0 || movesByOpponent > 0) throw new IllegalStateException("battle has already started");
+        this.recorder = recorder;
+        if (recorder != null && isFinished()) recorder.finished(outcome(), turns);
+    }
+
+    // Performs the next move and returns true, or returns false without doing anything when the battle is finished or waiting for the player.
+    public boolean step() {
+        switch (phase) {
+            case PLAYER_MOVE:
+                if (isAwaitingPlayer()) return false;
+                turns++;
+                if (recorder != null && hasMoves(playerPokemon)) recorder.moveChosen(chosenMove);
+                damageByPlayer += useMove(playerPokemon, opponentPokemon, chosenMove);
+                movesByPlayer++;
+                chosenMove = -1;
+                advance(isOver() ? Phase.FINISHED : Phase.OPPONENT_MOVE);
+                return true;
+            case OPPONENT_MOVE:
+                int choice = -1;
+                if (hasMoves(opponentPokemon)) {
+                    choice = chosenOpponentMove >= 0 ? chosenOpponentMove : opponentPolicy.chooseMove(opponentPokemon, playerPokemon, policyRandom);
+                    if (recorder != null) recorder.moveChosen(choice);
+                }
+                damageByOpponent += useMove(opponentPokemon, playerPokemon, choice);
+                movesByOpponent++;
+                chosenOpponentMove = -1;
+                advance(isOver() || turns >= BattleEngine.MAX_TURNS ? Phase.FINISHED : Phase.PLAYER_MOVE);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // Outcome with the player as the first fighter; a battle stopped by BattleEngine.MAX_TURNS is a draw.
+    public BattleResult.Outcome outcome() {
+        if (!isFinished()) throw new IllegalStateException("battle is not finished");
+        if (opponentPokemon.isFainted() && !playerPokemon.isFainted()) return BattleResult.Outcome.FIRST_WON;
+        if (playerPokemon.isFainted() && !opponentPokemon.isFainted()) return BattleResult.Outcome.SECOND_WON;
+        return BattleResult.Outcome.DRAW;
+    }
+
+    // Result of the finished battle, with the player as the first fighter.
+    public BattleResult result() {
+        return new BattleResult(outcome(), turns, damageByPlayer, damageByOpponent, movesByPlayer, movesByOpponent);
+    }
+
+    // Moves to the next phase, telling the recorder when the battle ends.
+    private void advance(Phase next) {
+        phase = next;
+        if (next == Phase.FINISHED && recorder != null) recorder.finished(outcome(), turns);
+    }
+
+    private boolean isOver() {
+        return playerPokemon.isFainted() || opponentPokemon.isFainted();
+    }
+
+    private static boolean hasMoves(Pokemon p) {
+        return p.getMoves() != null && !p.getMoves().isEmpty();
+    }
+
+    // Executes the move at the given index, or Struggle when the attacker has no moves.
+    private int useMove(Pokemon attacker, Pokemon target, int moveIndex) {
+        if (!hasMoves(attacker)) return Struggle.INSTANCE.execute(attacker, target, events, random);
+        return attacker.getMoves().get(moveIndex).execute(attacker, target, events, random);
+    }
+}
@@ -0,0 +1,423 @@
+// Imports for reading and converting save files, text encoding, the checksum, and the string table.
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+// Compact binary form of a save, holding exactly what the JSON save holds: the player's name and record, then each Pokémon's id, name,
+// types, stats, grade, evolution id, flags and move. Encoding: the magic bytes 0x89 "GSV" (never the start of a JSON document), a version
+// byte, the body length and a CRC-32 of the body; the body stores numbers as zig-zag varints, types as enum ordinals, and every Pokémon and
+// move name once in a string table that the Pokémon refer to by index. Binary saves are written to "<name>.sav"; JsonSaveSystem also checks
+// the magic bytes when reading, so a binary save written to "<name>.json" by an earlier version still loads.
+public final class BinarySaveCodec {
+
+    private static final byte[] MAGIC = {(byte) 0x89, 'G', 'S', 'V'};
+    // Version 2 added the journal sequence after the yen balance; version 1 saves are still read.
+    private static final byte VERSION = 2;
+    // Magic, version, body length and checksum.
+    static final int HEADER_LENGTH = MAGIC.length + 1 + 4 + 4;
+
+    // A type byte of this value is followed by a string-table index, for a type spelled other than its display name.
+    private static final int TYPE_BY_NAME = 0xFF;
+
+    // Pokémon flag bits.
+    private static final int FLAG_MEGA = 1;
+    private static final int FLAG_Z_MOVE = 2;
+    private static final int FLAG_EVOLVES = 4;
+
+    // Display name of each type, which is how saves normally spell them.
+    private static final String[] TYPE_NAMES = new String[Type.values().length];
+
+    static {
+        for (Type t : Type.values()) TYPE_NAMES[t.ordinal()] = t.toString();
+    }
+
+    private BinarySaveCodec() {
+    }
+
+    // True if the bytes start with the binary save magic.
+    public static boolean isBinary(byte[] data, int length) {
+        if (length < MAGIC.length) return false;
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (data[i] != MAGIC[i]) return false;
+        }
+        return true;
+    }
+
+    // True if the file exists and starts with the binary save magic.
+    public static boolean isBinary(Path file) {
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] head = new byte[MAGIC.length];
+            return isBinary(head, in.readNBytes(head, 0, head.length));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // Encodes a player and its Pokémon.
+    public static byte[] encode(Player player) {
+        if (player == null) throw new IllegalArgumentException("player must not be null");
+        List<Pokemon> pokes = player.getPokemons();
+        if (pokes == null) pokes = new ArrayList<>();
+
+        // One pass over the Pokémon, interning names as they appear; the string table is written ahead of these records afterwards.
+        Map<String, Integer> strings = new HashMap<>();
+        List<String> table = new ArrayList<>();
+        Writer records = new Writer(16 + pokes.size() * 16);
+        records.writeVarInt(pokes.size());
+        for (Pokemon p : pokes) writePokemon(records, p, strings, table);
+
+        Writer head = new Writer(HEADER_LENGTH + 64 + table.size() * 12);
+        head.size = HEADER_LENGTH;
+        head.writeString(player.getName());
+        head.writeSignedVarInt(player.getBattlesWon());
+        head.writeSignedVarInt(player.getBattlesLost());
+        head.writeSignedVarInt(player.getYen());
+        head.writeVarLong(player.getJournalSequence());
+        head.writeVarInt(table.size());
+        for (String s : table) head.writeString(s);
+        head.writeBytes(records.buf, records.size);
+
+        // Fill in the header now that the body is complete.
+        int bodyLength = head.size - HEADER_LENGTH;
+        CRC32 crc = new CRC32();
+        crc.update(head.buf, HEADER_LENGTH, bodyLength);
+        int end = head.size;
+        head.size = 0;
+        head.writeBytes(MAGIC, MAGIC.length);
+        head.writeByte(VERSION);
+        head.writeInt(bodyLength);
+        head.writeInt((int) crc.getValue());
+        head.size = end;
+        return head.toBytes();
+    }
+
+    // Decodes a binary save, checking its magic, version, length and checksum; malformed input raises IllegalArgumentException.
+    public static Player decode(byte[] data) {
+        if (data == null || !isBinary(data, data.length)) throw new IllegalArgumentException("not a binary save");
+        Reader in = new Reader(data, data.length);
+        in.pos = MAGIC.length;
+        int version = in.readByte();
+        if (version < 1 || version > VERSION) throw new IllegalArgumentException("unsupported binary save version " + version);
+        int length = in.readInt();
+        int checksum = in.readInt();
+        if (length != data.length - HEADER_LENGTH) throw new IllegalArgumentException("binary save is truncated");
+        CRC32 crc = new CRC32();
+        crc.update(data, HEADER_LENGTH, length);
+        if ((int) crc.getValue() != checksum) throw new IllegalArgumentException("binary save checksum mismatch");
+
+        Player player = new Player(in.readString());
+        player.setBattlesWon(in.readSignedVarInt());
+        player.setBattlesLost(in.readSignedVarInt());
+        player.setYen(in.readSignedVarInt());
+        if (version >= 2) player.setJournalSequence(in.readVarLong());
+        String[] table = new String[in.readCount()];
+        for (int i = 0; i < table.length; i++) table[i] = in.readString();
+
+        int count = in.readCount();
+        List<Pokemon> pokes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) pokes.add(readPokemon(in, table));
+        if (in.pos != data.length) throw new IllegalArgumentException("binary save has trailing bytes");
+        player.setPokemons(pokes);
+        return player;
+    }
+
+    // Writes one Pokémon's record, interning its name, unusual type spellings and move into the string table.
+    private static void writePokemon(Writer records, Pokemon p, Map<String, Integer> strings, List<String> table) {
+        records.writeSignedVarInt(p.getId());
+        records.writeVarInt(intern(p.getName(), strings, table));
+        Integer evolvesToId = p.getEvolvesToId();
+        records.writeByte((p.isMegaCapable() ? FLAG_MEGA : 0) | (p.isZMoveCapable() ? FLAG_Z_MOVE : 0) | (evolvesToId != null ? FLAG_EVOLVES : 0));
+
+        List<String> types = p.getTypes();
+        int typeCount = types == null ? 0 : types.size();
+        records.writeVarInt(typeCount);
+        for (int i = 0; i < typeCount; i++) {
+            String t = types.get(i);
+            int ordinal = Type.fromString(t).ordinal();
+            if (TYPE_NAMES[ordinal].equals(t)) {
+                records.writeByte(ordinal);
+            } else {
+                records.writeByte(TYPE_BY_NAME);
+                records.writeVarInt(intern(t, strings, table));
+            }
+        }
+
+        records.writeSignedVarInt(p.getMaxHp());
+        records.writeSignedVarInt(p.getHp());
+        records.writeSignedVarInt(p.getAttack());
+        records.writeSignedVarInt(p.getDefense());
+        records.writeSignedVarInt(p.getGrade());
+        if (evolvesToId != null) records.writeSignedVarInt(evolvesToId);
+
+        // Only the first move, as in the JSON save; 0 means none, otherwise the string index plus one.
+        List<Move> moves = p.getMoves();
+        records.writeVarInt(moves == null || moves.isEmpty() ? 0 : intern(moves.get(0).name(), strings, table) + 1);
+    }
+
+    // Reads one Pokémon's record against the string table.
+    private static Pokemon readPokemon(Reader in, String[] table) {
+        Pokemon p = new Pokemon();
+        p.setId(in.readSignedVarInt());
+        p.setName(in.readString(table));
+        int flags = in.readByte();
+
+        int typeCount = in.readCount();
+        List<String> types = new ArrayList<>(typeCount);
+        for (int t = 0; t < typeCount; t++) {
+            int ordinal = in.readByte();
+            if (ordinal == TYPE_BY_NAME) types.add(in.readString(table));
+            else if (ordinal < TYPE_NAMES.length) types.add(TYPE_NAMES[ordinal]);
+            else throw new IllegalArgumentException("corrupt type in binary save");
+        }
+
+        p.setMaxHp(in.readSignedVarInt());
+        p.setHp(in.readSignedVarInt());
+        p.setAttack(in.readSignedVarInt());
+        p.setDefense(in.readSignedVarInt());
+        p.setGrade(in.readSignedVarInt());
+        p.setEvolvesToId((flags & FLAG_EVOLVES) != 0 ? Integer.valueOf(in.readSignedVarInt()) : null);
+        p.setMegaCapable((flags & FLAG_MEGA) != 0);
+        p.setZMoveCapable((flags & FLAG_Z_MOVE) != 0);
+        p.setTypes(types);
+        int move = in.readVarInt();
+        if (move != 0) {
+            if (move > table.length) throw new IllegalArgumentException("corrupt move in binary save");
+            Move mv = MoveRegistry.resolve(table[move - 1]);
+            if (mv != null) p.addMove(mv);
+        }
+        return p;
+    }
+
+    // Writes a single self-contained Pokémon (its own string table, then its record), as PlayerJournal stores them.
+    static void writeStandalonePokemon(Writer out, Pokemon p) {
+        Map<String, Integer> strings = new HashMap<>();
+        List<String> table = new ArrayList<>();
+        Writer record = new Writer(32);
+        writePokemon(record, p, strings, table);
+        out.writeVarInt(table.size());
+        for (String s : table) out.writeString(s);
+        out.writeBytes(record.buf, record.size);
+    }
+
+    // Reads a Pokémon written by writeStandalonePokemon.
+    static Pokemon readStandalonePokemon(Reader in) {
+        String[] table = new String[in.readCount()];
+        for (int i = 0; i < table.length; i++) table[i] = in.readString();
+        return readPokemon(in, table);
+    }
+
+    private static String nonNull(String s) {
+        return s == null ? "" : s;
+    }
+
+    // Index of the string in the table, adding it on first use.
+    private static int intern(String s, Map<String, Integer> strings, List<String> table) {
+        s = nonNull(s);
+        Integer index = strings.get(s);
+        if (index == null) {
+            index = table.size();
+            strings.put(s, index);
+            table.add(s);
+        }
+        return index;
+    }
+
+    // Growable byte buffer with the save's primitive encodings; PlayerJournal uses it for its records too.
+    static final class Writer {
+        private byte[] buf;
+        private int size;
+
+        Writer(int capacity) {
+            buf = new byte[Math.max(16, capacity)];
+        }
+
+        int size() {
+            return size;
+        }
+
+        byte[] toBytes() {
+            return buf.length == size ? buf : Arrays.copyOf(buf, size);
+        }
+
+        void writeByte(int b) {
+            if (size == buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+            buf[size++] = (byte) b;
+        }
+
+        void writeBytes(byte[] bytes, int length) {
+            if (size + length > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + length));
+            System.arraycopy(bytes, 0, buf, size, length);
+            size += length;
+        }
+
+        void writeInt(int v) {
+            for (int i = 24; i >= 0; i -= 8) writeByte(v >>> i);
+        }
+
+        // Unsigned LEB128: seven bits per byte, high bit set on all but the last.
+        void writeVarInt(int v) {
+            while ((v & ~0x7F) != 0) {
+                writeByte((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            writeByte(v);
+        }
+
+        // Zig-zag first, so small negative values stay short too.
+        void writeSignedVarInt(int v) {
+            writeVarInt((v << 1) ^ (v >> 31));
+        }
+
+        void writeVarLong(long v) {
+            while ((v & ~0x7FL) != 0) {
+                writeByte((int) (v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            writeByte((int) v);
+        }
+
+        void writeString(String s) {
+            byte[] utf8 = nonNull(s).getBytes(StandardCharsets.UTF_8);
+            writeVarInt(utf8.length);
+            writeBytes(utf8, utf8.length);
+        }
+    }
+
+    // Cursor over encoded bytes; malformed input raises IllegalArgumentException.
+    static final class Reader {
+        private final byte[] data;
+        private final int limit;
+        private int pos;
+
+        Reader(byte[] data, int limit) {
+            this.data = data;
+            this.limit = limit;
+        }
+
+        int position() {
+            return pos;
+        }
+
+        void seek(int position) {
+            pos = position;
+        }
+
+        int remaining() {
+            return limit - pos;
+        }
+
+        int readByte() {
+            if (pos >= limit) throw new IllegalArgumentException("binary save is truncated");
+            return data[pos++] & 0xFF;
+        }
+
+        int readInt() {
+            int v = 0;
+            for (int i = 0; i < 4; i++) v = (v << 8) | readByte();
+            return v;
+        }
+
+        int readVarInt() {
+            int v = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = readByte();
+                v |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return v;
+            }
+            throw new IllegalArgumentException("corrupt varint in binary save");
+        }
+
+        int readSignedVarInt() {
+            int v = readVarInt();
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        long readVarLong() {
+            long v = 0;
+            for (int shift = 0; shift < 70; shift += 7) {
+                int b = readByte();
+                v |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return v;
+            }
+            throw new IllegalArgumentException("corrupt varint in binary save");
+        }
+
+        // A count of following items, each at least one byte long, so a corrupt count cannot demand a huge allocation.
+        int readCount() {
+            int n = readVarInt();
+            if (n < 0 || n > limit - pos) throw new IllegalArgumentException("corrupt count in binary save");
+            return n;
+        }
+
+        String readString() {
+            int n = readCount();
+            String s = new String(data, pos, n, StandardCharsets.UTF_8);
+            pos += n;
+            return s;
+        }
+
+        String readString(String[] table) {
+            int index = readVarInt();
+            if (index < 0 || index >= table.length) throw new IllegalArgumentException("corrupt string index in binary save");
+            return table[index];
+        }
+    }
+
+    // Command-line entry point: converts saves between the two formats (all of them, or the named players'), reporting sizes. A converted
+    // save moves between "<name>.json" and "<name>.sav".
+    // Usage: java BinarySaveCodec binary|json [player ...]
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0 || !(args[0].equalsIgnoreCase("binary") || args[0].equalsIgnoreCase("json"))) {
+            System.out.println("Usage: java BinarySaveCodec binary|json [player ...]");
+            return;
+        }
+        boolean toBinary = args[0].equalsIgnoreCase("binary");
+        List<Path> files = new ArrayList<>();
+        if (args.length > 1) {
+            for (int i = 1; i < args.length; i++) files.add(JsonSaveSystem.findSaveFile(args[i]));
+        } else if (Files.isDirectory(Paths.get(JsonSaveSystem.SAVE_DIRECTORY))) {
+            try (DirectoryStream<Path> saves = Files.newDirectoryStream(Paths.get(JsonSaveSystem.SAVE_DIRECTORY), "*.{json,sav}")) {
+                for (Path path : saves) files.add(path);
+            }
+        }
+
+        long before = 0;
+        long after = 0;
+        int converted = 0;
+        for (Path file : files) {
+            if (!Files.isRegularFile(file)) {
+                System.out.println(file + ": no such save");
+                continue;
+            }
+            try {
+                Player player = JsonSaveSystem.readSave(file);
+                long oldSize = Files.size(file);
+                if (isBinary(file) == toBinary) {
+                    before += oldSize;
+                    after += oldSize;
+                    continue;
+                }
+                Path written = Paths.get(JsonSaveSystem.writeSave(player, toBinary));
+                long newSize = Files.size(written);
+                before += oldSize;
+                after += newSize;
+                converted++;
+                System.out.printf("%s -> %s: %,d -> %,d bytes\n", file.getFileName(), written.getFileName(), oldSize, newSize);
+            } catch (IOException e) {
+                System.out.println(file + ": " + e.getMessage());
+            }
+        }
+        System.out.printf("Converted %d of %d saves to %s; %,d -> %,d bytes in total.\n",
+                converted, files.size(), toBinary ? "binary" : "JSON", before, after);
+    }
+}
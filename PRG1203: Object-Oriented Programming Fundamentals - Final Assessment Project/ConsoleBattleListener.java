@@ -0,0 +1,61 @@
+// Import for the output stream the battle text is written to.
+import java.io.PrintStream;
+
+// Renders battle events as the console text the game has always shown.
+public class ConsoleBattleListener implements BattleListener {
+
+    // Shared renderer that writes to standard output.
+    public static final ConsoleBattleListener INSTANCE = new ConsoleBattleListener(System.out);
+
+    private final PrintStream out;
+
+    // Creates a renderer that writes to the given stream.
+    public ConsoleBattleListener(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void moveUsed(Pokemon user, Move move) {
+        out.printf("%s used %s!\n", user.getName(), move.name());
+    }
+
+    @Override
+    public void effectiveness(Pokemon user, Pokemon target, double multiplier) {
+        if (multiplier <= 0.0) {
+            out.println("It has no effect.");
+        } else if (multiplier > 1.0) {
+            out.println("It is super effective.");
+        } else if (multiplier < 1.0) {
+            out.println("It is not very effective.");
+        }
+    }
+
+    @Override
+    public void damageDealt(Pokemon user, Pokemon target, int damage) {
+        if (damage > 0) {
+            out.printf("%s dealt %d damage to %s.\n", user.getName(), damage, target.getName());
+        } else {
+            out.printf("%s dealt no damage to %s.\n", user.getName(), target.getName());
+        }
+    }
+
+    @Override
+    public void damageTaken(Pokemon target, int damage) {
+        out.printf("%s took %d damage and now has %d health points.\n", target.getName(), damage, target.getHp());
+    }
+
+    @Override
+    public void recoil(Pokemon user, int damage) {
+        out.printf("%s is hurt by recoil!\n", user.getName());
+    }
+
+    @Override
+    public void healed(Pokemon pokemon, int amount) {
+        out.printf("%s healed %d HP and now has %d health points.\n", pokemon.getName(), amount, pokemon.getHp());
+    }
+
+    @Override
+    public void fullyHealed(Pokemon pokemon) {
+        out.printf("%s was fully healed to %d health points.\n", pokemon.getName(), pokemon.getHp());
+    }
+}
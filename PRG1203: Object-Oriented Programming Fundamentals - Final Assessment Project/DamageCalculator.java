@@ -0,0 +1,163 @@
+// Imports for the bounded result caches.
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.LongToIntFunction;
+
+// Analytic damage calculator: the exact damage distribution of a (user, move, target) triple and the chance of a KO within N hits, without rolling.
+// Moves roll RandomSource.nextDouble(), which is k / 2^53 for a uniform k, and every damage formula is monotone in that roll. So each damage value
+// covers one contiguous range of k, found by binary search, and its probability is the exact share of the 2^53 rolls that produce it.
+// Results are memoised in bounded caches keyed by the stat/type tuple, so repeated queries from balance tooling or the AI are a single lookup.
+public final class DamageCalculator {
+
+    // Number of distinct rolls of RandomSource.nextDouble().
+    private static final long ROLLS = 1L << 53;
+    private static final double ROLL_UNIT = 0x1.0p-53;
+
+    // Maximum number of remembered distributions and KO probabilities.
+    private static final int CACHE_CAPACITY = 1 << 14;
+
+    private static final Map<Key, DamageDistribution> distributions = Collections.synchronizedMap(new LruCache<>());
+    private static final Map<Key, Double> koProbabilities = Collections.synchronizedMap(new LruCache<>());
+
+    private DamageCalculator() {
+    }
+
+    // Exact damage distribution of one use of the move by the user against the target, with their current stats.
+    public static DamageDistribution distribution(Pokemon user, Move move, Pokemon target) {
+        Objects.requireNonNull(user, "user must not be null");
+        Objects.requireNonNull(target, "target must not be null");
+        if (move instanceof Struggle) {
+            return DamageDistribution.fixed(Struggle.damage(user.getAttack()));
+        }
+        if (move instanceof BasicAttack) {
+            Key key = new Key(Key.BASIC, user.getAttack(), target.getDefense(), 0.0, 1.0, 0, 0);
+            return distributions.computeIfAbsent(key, k -> enumerate(roll -> BasicAttack.damage(k.atk, k.def, roll * ROLL_UNIT)));
+        }
+        if (move instanceof TypeMove) {
+            TypeMove typeMove = (TypeMove) move;
+            double eff = TypeChart.getDualEffectiveness(typeMove.getType().ordinal(), target.getDefenderIndex());
+            if (eff <= 0.0) return DamageDistribution.fixed(0);
+            // Same stat clamping as TypeMove.execute.
+            Key key = new Key(Key.TYPED, Math.max(1, user.getAttack()), Math.max(0, target.getDefense()), typeMove.getPower(), eff, 0, 0);
+            return distributions.computeIfAbsent(key, k -> enumerate(roll -> typeMove.damage(k.atk, k.def, k.eff, roll * ROLL_UNIT)));
+        }
+        throw new IllegalArgumentException("No damage model for move: " + (move == null ? "null" : move.name()));
+    }
+
+    // Chance that the target, at its current health points, faints within the given number of uses of the move.
+    public static double koProbability(Pokemon user, Move move, Pokemon target, int hits) {
+        return koProbability(user, move, target, target.getHp(), hits);
+    }
+
+    // Chance that the target faints within the given number of uses of the move when it starts at the given health points.
+    public static double koProbability(Pokemon user, Move move, Pokemon target, int hp, int hits) {
+        DamageDistribution dist = distribution(user, move, target);
+        // A fixed damage decides the answer by arithmetic alone, so only rolled distributions are worth caching.
+        if (dist.getMinDamage() == dist.getMaxDamage()) return dist.koProbability(hp, hits);
+        Key key = new Key(dist, hp, hits);
+        Double cached = koProbabilities.get(key);
+        if (cached != null) return cached;
+        double p = dist.koProbability(hp, hits);
+        koProbabilities.put(key, p);
+        return p;
+    }
+
+    // Walks the rolls from lowest to highest, finding where each damage value ends by binary search.
+    private static DamageDistribution enumerate(LongToIntFunction damageForRoll) {
+        int first = damageForRoll.applyAsInt(0);
+        int last = damageForRoll.applyAsInt(ROLLS - 1);
+        int min = Math.min(first, last);
+        double[] probabilities = new double[Math.abs(last - first) + 1];
+
+        long start = 0;
+        while (start < ROLLS) {
+            int value = damageForRoll.applyAsInt(start);
+            long lo = start;
+            long hi = ROLLS - 1;
+            while (lo < hi) {
+                long mid = lo + (hi - lo + 1) / 2;
+                if (damageForRoll.applyAsInt(mid) == value) lo = mid;
+                else hi = mid - 1;
+            }
+            // Counts below 2^53 convert to double exactly, and scaling by a power of two is exact as well.
+            probabilities[value - min] += (lo - start + 1) * ROLL_UNIT;
+            start = lo + 1;
+        }
+        return new DamageDistribution(min, probabilities);
+    }
+
+    // Cache key: the move's damage model and every input of its formula. KO keys add the health points and hit count.
+    private static final class Key {
+        static final int BASIC = 0;
+        static final int TYPED = 1;
+
+        final int model;
+        final int atk;
+        final int def;
+        final double power;
+        final double eff;
+        final int hp;
+        final int hits;
+        final DamageDistribution dist;
+
+        Key(int model, int atk, int def, double power, double eff, int hp, int hits) {
+            this.model = model;
+            this.atk = atk;
+            this.def = def;
+            this.power = power;
+            this.eff = eff;
+            this.hp = hp;
+            this.hits = hits;
+            this.dist = null;
+        }
+
+        // KO key; distributions are shared cache entries, so identity stands in for their stat tuple.
+        Key(DamageDistribution dist, int hp, int hits) {
+            this.model = -1;
+            this.atk = 0;
+            this.def = 0;
+            this.power = 0.0;
+            this.eff = 0.0;
+            this.hp = hp;
+            this.hits = hits;
+            this.dist = dist;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return model == k.model && atk == k.atk && def == k.def && hp == k.hp && hits == k.hits
+                    && Double.compare(power, k.power) == 0 && Double.compare(eff, k.eff) == 0 && dist == k.dist;
+        }
+
+        @Override
+        public int hashCode() {
+            int h = model;
+            h = 31 * h + atk;
+            h = 31 * h + def;
+            h = 31 * h + Double.hashCode(power);
+            h = 31 * h + Double.hashCode(eff);
+            h = 31 * h + hp;
+            h = 31 * h + hits;
+            return 31 * h + System.identityHashCode(dist);
+        }
+    }
+
+    // Access-ordered map that drops the least recently used entry once it is full.
+    private static final class LruCache<K, V> extends LinkedHashMap<K, V> {
+        private static final long serialVersionUID = 1L;
+
+        LruCache() {
+            super(256, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > CACHE_CAPACITY;
+        }
+    }
+}
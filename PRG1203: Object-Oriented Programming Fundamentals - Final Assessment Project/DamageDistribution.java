@@ -0,0 +1,95 @@
+// Imports for the convolution buffers and formatting the distribution.
+import java.util.Arrays;
+import java.util.Locale;
+
+// Exact probability distribution of the damage one use of a move deals, over a contiguous range of damage values. Instances are immutable.
+public final class DamageDistribution {
+    private final int minDamage;
+    private final double[] probabilities; // probabilities[i] is the chance of dealing exactly minDamage + i.
+
+    DamageDistribution(int minDamage, double[] probabilities) {
+        this.minDamage = minDamage;
+        this.probabilities = probabilities;
+    }
+
+    // Distribution that always deals the same damage (e.g. Struggle, or an immune target's 0).
+    static DamageDistribution fixed(int damage) {
+        return new DamageDistribution(damage, new double[] {1.0});
+    }
+
+    // Smallest damage with a non-zero chance.
+    public int getMinDamage() {
+        return minDamage;
+    }
+
+    // Largest damage with a non-zero chance.
+    public int getMaxDamage() {
+        return minDamage + probabilities.length - 1;
+    }
+
+    // Chance of dealing exactly the given damage.
+    public double probability(int damage) {
+        int i = damage - minDamage;
+        return i >= 0 && i < probabilities.length ? probabilities[i] : 0.0;
+    }
+
+    // Expected damage of one hit.
+    public double mean() {
+        double sum = 0;
+        for (int i = 0; i < probabilities.length; i++) sum += (minDamage + i) * probabilities[i];
+        return sum;
+    }
+
+    // Chance that a target with the given health points faints within the given number of hits of this move.
+    // Rolls are independent, so this convolves the single-hit distribution, folding every total of at least hp into one absorbing "fainted" state.
+    public double koProbability(int hp, int hits) {
+        if (hp <= 0) return 1.0;
+        if (hits <= 0 || getMaxDamage() <= 0) return 0.0;
+        if ((long) minDamage * hits >= hp) return 1.0;
+        if ((long) getMaxDamage() * hits < hp) return 0.0;
+
+        // dealt[d] is the chance that exactly d damage (d < hp) has been dealt so far.
+        double[] dealt = new double[hp];
+        double[] next = new double[hp];
+        dealt[0] = 1.0;
+        double fainted = 0.0;
+        for (int h = 0; h < hits; h++) {
+            Arrays.fill(next, 0.0);
+            for (int d = 0; d < hp; d++) {
+                double p = dealt[d];
+                if (p == 0.0) continue;
+                for (int i = 0; i < probabilities.length; i++) {
+                    int total = d + minDamage + i;
+                    if (total >= hp) fainted += p * probabilities[i];
+                    else next[total] += p * probabilities[i];
+                }
+            }
+            double[] swap = dealt;
+            dealt = next;
+            next = swap;
+        }
+        return fainted;
+    }
+
+    // Smallest number of hits with at least the given chance of fainting a target with the given health points, or -1 if the move deals no damage.
+    public int hitsToKo(int hp, double confidence) {
+        if (hp <= 0) return 0;
+        if (getMaxDamage() <= 0) return -1;
+        // Every damaging roll deals at least 1, so hp / minDamage hits (rounded up) always faint the target.
+        int most = (hp + minDamage - 1) / minDamage;
+        for (int hits = (hp + getMaxDamage() - 1) / getMaxDamage(); hits < most; hits++) {
+            if (koProbability(hp, hits) >= confidence) return hits;
+        }
+        return most;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("DamageDistribution{");
+        for (int i = 0; i < probabilities.length; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(minDamage + i).append('=').append(String.format(Locale.ROOT, "%.4f", probabilities[i]));
+        }
+        return sb.append('}').toString();
+    }
+}
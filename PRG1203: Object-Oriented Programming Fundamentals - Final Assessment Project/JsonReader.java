@@ -0,0 +1,451 @@
+// Imports for reading characters from a stream and closing it.
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.Objects;
+
+// Single-pass pull parser over a character stream: callers step through tokens (beginObject, nextName, nextInt, ...) and build their objects
+// as the values go by, so nothing is rescanned and no fragment is copied. Strings honour every JSON escape, so quotes, commas and brackets
+// inside names are just characters. Malformed input raises an IOException with the line and column; nesting depth is limited only by memory.
+public final class JsonReader implements Closeable {
+
+    // Kinds of token the reader can be positioned at.
+    public enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+
+    // What each open container expects next.
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_ARRAY = 2;
+    private static final int NONEMPTY_ARRAY = 3;
+    private static final int EMPTY_OBJECT = 4;
+    private static final int DANGLING_NAME = 5;
+    private static final int NONEMPTY_OBJECT = 6;
+
+    private final Reader in;
+    private final char[] buffer = new char[8192];
+    private int pos;
+    private int limit;
+
+    // Characters consumed before the current buffer and the offset where the current line starts, for error positions.
+    private long bufferStart;
+    private long lineStart;
+    private int line = 1;
+
+    private int[] stack = new int[16];
+    private int stackSize = 1;
+
+    // Token found by peek() but not yet consumed; for names and strings the opening quote has already been read.
+    private Token peeked;
+
+    // Reused for every string, so only the returned String is allocated.
+    private final StringBuilder text = new StringBuilder();
+
+    // Recently read short strings, by hash: every Pokémon in a save repeats the same keys and a few type names, so those are
+    // returned from here instead of being allocated again. A collision simply replaces the entry.
+    private static final int CACHE_SIZE = 256;
+    private static final int CACHE_MAX_LENGTH = 16;
+    private final String[] cache = new String[CACHE_SIZE];
+
+    // Creates a reader over the given stream; it reads in blocks, so the stream need not be buffered.
+    public JsonReader(Reader in) {
+        this.in = Objects.requireNonNull(in, "in must not be null");
+        stack[0] = EMPTY_DOCUMENT;
+    }
+
+    // Returns the kind of the next token without consuming it.
+    public Token peek() throws IOException {
+        if (peeked != null) return peeked;
+        int c;
+        switch (stack[stackSize - 1]) {
+            case EMPTY_ARRAY:
+                c = nextNonWhitespace();
+                if (c == ']') return structural(Token.END_ARRAY);
+                stack[stackSize - 1] = NONEMPTY_ARRAY;
+                return peeked = peekValue(c);
+            case NONEMPTY_ARRAY:
+                c = nextNonWhitespace();
+                if (c == ']') return structural(Token.END_ARRAY);
+                if (c != ',') throw syntaxError(c == -1 ? "unexpected end of input" : "expected ',' or ']'");
+                pos++;
+                return peeked = peekValue(nextNonWhitespace());
+            case EMPTY_OBJECT:
+                c = nextNonWhitespace();
+                if (c == '}') return structural(Token.END_OBJECT);
+                return peeked = peekName(c);
+            case NONEMPTY_OBJECT:
+                c = nextNonWhitespace();
+                if (c == '}') return structural(Token.END_OBJECT);
+                if (c != ',') throw syntaxError(c == -1 ? "unexpected end of input" : "expected ',' or '}'");
+                pos++;
+                return peeked = peekName(nextNonWhitespace());
+            case DANGLING_NAME:
+                c = nextNonWhitespace();
+                if (c != ':') throw syntaxError(c == -1 ? "unexpected end of input" : "expected ':'");
+                pos++;
+                stack[stackSize - 1] = NONEMPTY_OBJECT;
+                return peeked = peekValue(nextNonWhitespace());
+            case EMPTY_DOCUMENT:
+                stack[stackSize - 1] = NONEMPTY_DOCUMENT;
+                return peeked = peekValue(nextNonWhitespace());
+            default:
+                if (nextNonWhitespace() != -1) throw syntaxError("unexpected data after the document");
+                return peeked = Token.END_DOCUMENT;
+        }
+    }
+
+    // True while the current object or array has more members.
+    public boolean hasNext() throws IOException {
+        Token t = peek();
+        return t != Token.END_OBJECT && t != Token.END_ARRAY && t != Token.END_DOCUMENT;
+    }
+
+    public void beginObject() throws IOException {
+        expect(Token.BEGIN_OBJECT);
+        push(EMPTY_OBJECT);
+    }
+
+    public void endObject() throws IOException {
+        expect(Token.END_OBJECT);
+        stackSize--;
+    }
+
+    public void beginArray() throws IOException {
+        expect(Token.BEGIN_ARRAY);
+        push(EMPTY_ARRAY);
+    }
+
+    public void endArray() throws IOException {
+        expect(Token.END_ARRAY);
+        stackSize--;
+    }
+
+    // Consumes the next member name of an object.
+    public String nextName() throws IOException {
+        expect(Token.NAME);
+        String name = readString();
+        stack[stackSize - 1] = DANGLING_NAME;
+        return name;
+    }
+
+    // Consumes a string value; a number is returned as its literal text.
+    public String nextString() throws IOException {
+        Token t = peek();
+        if (t == Token.STRING) {
+            peeked = null;
+            return readString();
+        }
+        if (t == Token.NUMBER) {
+            peeked = null;
+            return readNumberLiteral();
+        }
+        throw syntaxError("expected a string but was " + t);
+    }
+
+    // Consumes a whole number that fits in an int, parsing it straight from the buffer.
+    public int nextInt() throws IOException {
+        expect(Token.NUMBER);
+        boolean negative = peekChar() == '-';
+        if (negative) pos++;
+        long value = 0;
+        int digits = 0;
+        for (int c = peekChar(); c >= '0' && c <= '9'; c = peekChar()) {
+            value = value * 10 + (c - '0');
+            if (value > (long) Integer.MAX_VALUE + 1) throw syntaxError("number does not fit in an int");
+            pos++;
+            digits++;
+        }
+        int c = peekChar();
+        if (digits == 0 || c == '.' || c == 'e' || c == 'E') throw syntaxError("expected a whole number");
+        if (negative) value = -value;
+        if (value > Integer.MAX_VALUE) throw syntaxError("number does not fit in an int");
+        return (int) value;
+    }
+
+    public boolean nextBoolean() throws IOException {
+        expect(Token.BOOLEAN);
+        if (peekChar() == 't') {
+            readKeyword("true");
+            return true;
+        }
+        readKeyword("false");
+        return false;
+    }
+
+    public void nextNull() throws IOException {
+        expect(Token.NULL);
+        readKeyword("null");
+    }
+
+    // Skips the next value, including everything nested inside it.
+    public void skipValue() throws IOException {
+        Token first = peek();
+        if (first == Token.NAME || first == Token.END_OBJECT || first == Token.END_ARRAY || first == Token.END_DOCUMENT) {
+            throw syntaxError("expected a value but was " + first);
+        }
+        int depth = 0;
+        do {
+            switch (peek()) {
+                case BEGIN_OBJECT:
+                    beginObject();
+                    depth++;
+                    break;
+                case BEGIN_ARRAY:
+                    beginArray();
+                    depth++;
+                    break;
+                case END_OBJECT:
+                    endObject();
+                    depth--;
+                    break;
+                case END_ARRAY:
+                    endArray();
+                    depth--;
+                    break;
+                case NAME:
+                    nextName();
+                    break;
+                case STRING:
+                    peeked = null;
+                    skipString();
+                    break;
+                case NUMBER:
+                    nextString();
+                    break;
+                case BOOLEAN:
+                    nextBoolean();
+                    break;
+                case NULL:
+                    nextNull();
+                    break;
+                default:
+                    throw syntaxError("unexpected end of input");
+            }
+        } while (depth > 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // Consumes a structural character already identified by peek().
+    private Token structural(Token t) {
+        pos++;
+        return peeked = t;
+    }
+
+    private Token peekName(int c) throws IOException {
+        if (c != '"') throw syntaxError(c == -1 ? "unexpected end of input" : "expected a name");
+        pos++;
+        return Token.NAME;
+    }
+
+    private Token peekValue(int c) throws IOException {
+        switch (c) {
+            case '{':
+                pos++;
+                return Token.BEGIN_OBJECT;
+            case '[':
+                pos++;
+                return Token.BEGIN_ARRAY;
+            case '"':
+                pos++;
+                return Token.STRING;
+            case 't':
+            case 'f':
+                return Token.BOOLEAN;
+            case 'n':
+                return Token.NULL;
+            case -1:
+                throw syntaxError("unexpected end of input");
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) return Token.NUMBER;
+                throw syntaxError("unexpected character '" + (char) c + "'");
+        }
+    }
+
+    private void expect(Token expected) throws IOException {
+        Token t = peek();
+        if (t != expected) throw syntaxError("expected " + expected + " but was " + t);
+        peeked = null;
+    }
+
+    private void push(int state) {
+        if (stackSize == stack.length) stack = Arrays.copyOf(stack, stackSize * 2);
+        stack[stackSize++] = state;
+    }
+
+    // Reads the rest of a string whose opening quote has been consumed, copying unescaped runs in bulk.
+    private String readString() throws IOException {
+        // Fast path: a short string without escapes that ends inside the buffer comes from the cache when it has been seen before.
+        int end = pos;
+        int hash = 0;
+        while (end < limit && end - pos <= CACHE_MAX_LENGTH) {
+            char c = buffer[end];
+            if (c == '"') return cached(pos, end, hash);
+            if (c == '\\' || c < 0x20) break;
+            hash = 31 * hash + c;
+            end++;
+        }
+
+        text.setLength(0);
+        while (true) {
+            int start = pos;
+            while (pos < limit) {
+                char c = buffer[pos];
+                if (c == '"') {
+                    text.append(buffer, start, pos - start);
+                    pos++;
+                    return text.toString();
+                }
+                if (c == '\\') {
+                    text.append(buffer, start, pos - start);
+                    pos++;
+                    text.append(readEscape());
+                    start = pos;
+                    continue;
+                }
+                if (c < 0x20) throw syntaxError("unescaped control character in string");
+                pos++;
+            }
+            text.append(buffer, start, pos - start);
+            if (!fill()) throw syntaxError("unterminated string");
+        }
+    }
+
+    // Returns the string in buffer[start, end) from the cache, adding it if absent, and consumes it with its closing quote.
+    private String cached(int start, int end, int hash) {
+        int slot = (hash ^ (hash >>> 16)) & (CACHE_SIZE - 1);
+        String s = cache[slot];
+        int length = end - start;
+        if (s == null || s.length() != length || !matches(s, start)) {
+            s = new String(buffer, start, length);
+            cache[slot] = s;
+        }
+        pos = end + 1;
+        return s;
+    }
+
+    private boolean matches(String s, int start) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) != buffer[start + i]) return false;
+        }
+        return true;
+    }
+
+    // Consumes the rest of a string without building it.
+    private void skipString() throws IOException {
+        while (true) {
+            while (pos < limit) {
+                char c = buffer[pos++];
+                if (c == '"') return;
+                if (c == '\\') readEscape();
+                else if (c < 0x20) throw syntaxError("unescaped control character in string");
+            }
+            if (!fill()) throw syntaxError("unterminated string");
+        }
+    }
+
+    private char readEscape() throws IOException {
+        int c = peekChar();
+        if (c == -1) throw syntaxError("unterminated escape");
+        pos++;
+        switch (c) {
+            case '"':
+            case '\\':
+            case '/':
+                return (char) c;
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int h = peekChar();
+                    int digit = Character.digit(h, 16);
+                    if (h == -1 || digit < 0) throw syntaxError("invalid \\u escape");
+                    value = value * 16 + digit;
+                    pos++;
+                }
+                return (char) value;
+            default:
+                throw syntaxError("invalid escape '\\" + (char) c + "'");
+        }
+    }
+
+    private String readNumberLiteral() throws IOException {
+        text.setLength(0);
+        for (int c = peekChar(); c != -1 && (c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E' || (c >= '0' && c <= '9')); c = peekChar()) {
+            text.append((char) c);
+            pos++;
+        }
+        return text.toString();
+    }
+
+    private void readKeyword(String word) throws IOException {
+        for (int i = 0; i < word.length(); i++) {
+            if (peekChar() != word.charAt(i)) throw syntaxError("expected " + word);
+            pos++;
+        }
+        int c = peekChar();
+        if (c != -1 && Character.isLetterOrDigit(c)) throw syntaxError("expected " + word);
+    }
+
+    // Skips whitespace and returns the next character without consuming it, or -1 at the end of input.
+    // Saves are pretty-printed, so this loop sees most of the input; it works on locals and leaves at the first character above a space.
+    private int nextNonWhitespace() throws IOException {
+        while (true) {
+            char[] buf = buffer;
+            int p = pos;
+            int l = limit;
+            while (p < l) {
+                char c = buf[p];
+                if (c > ' ' || (c != ' ' && c != '\n' && c != '\t' && c != '\r')) {
+                    pos = p;
+                    return c;
+                }
+                p++;
+                if (c == '\n') {
+                    line++;
+                    lineStart = bufferStart + p;
+                }
+            }
+            pos = p;
+            if (!fill()) return -1;
+        }
+    }
+
+    private int peekChar() throws IOException {
+        if (pos == limit && !fill()) return -1;
+        return buffer[pos];
+    }
+
+    // Replaces the buffer with the next block of input; nothing is carried over, as no token keeps a position in the buffer.
+    private boolean fill() throws IOException {
+        bufferStart += limit;
+        pos = 0;
+        limit = 0;
+        int n;
+        while ((n = in.read(buffer, 0, buffer.length)) == 0) {
+            // A reader may return 0 without reaching the end; read again.
+        }
+        if (n < 0) return false;
+        limit = n;
+        return true;
+    }
+
+    private IOException syntaxError(String message) {
+        long column = bufferStart + pos - lineStart + 1;
+        return new IOException("Malformed JSON: " + message + " at line " + line + " column " + column);
+    }
+}
@@ -1,12 +1,20 @@
 // Imports for file input/output (I/O), working with file paths, and using collections.
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.ByteBuffer;
 import java.nio.file.*;
+import java.nio.file.attribute.PosixFileAttributeView;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
+// Saves and loads player profiles as one file per player, JSON (".json") or binary (".sav", see BinarySaveCodec); saves are atomic file replacements, so many sessions can use it at once.
 public class JsonSaveSystem {
     // Directory and file extension used for saving player data.
-    private static final String SAVE_DIRECTORY = "saves/";
+    static final String SAVE_DIRECTORY = "saves/";
     private static final String SAVE_FILE_EXTENSION = ".json";
+    // Binary saves (BinarySaveCodec) get their own extension, so a ".json" file always holds JSON.
+    private static final String BINARY_SAVE_FILE_EXTENSION = ".sav";
 
     // Ensures the save directory exists, creating it if necessary.
     private static void ensureSaveDirectoryExists() {
@@ -17,124 +25,215 @@ public class JsonSaveSystem {
         }
     }
 
-    // Generates a sanitised file name for the player's save file.
-    private static String getPlayerFileName(String playerName) {
+    // Generates a sanitised file name for the player's JSON save file.
+    static String getPlayerFileName(String playerName) {
+        return getPlayerFileName(playerName, false);
+    }
+
+    // Generates a sanitised file name for the player's save file in the given format (binary or JSON).
+    static String getPlayerFileName(String playerName, boolean binary) {
         String sanitized = playerName.toLowerCase().replaceAll("[^a-z0-9]", "_");
-        return SAVE_DIRECTORY + sanitized + SAVE_FILE_EXTENSION;
+        return SAVE_DIRECTORY + sanitized + (binary ? BINARY_SAVE_FILE_EXTENSION : SAVE_FILE_EXTENSION);
+    }
+
+    // The player's save file: the binary save if there is one, else the JSON save (which may not exist). Both exist only if the game stopped
+    // while converting a save between formats, and then hold the same player.
+    static Path findSaveFile(String playerName) {
+        Path binary = Paths.get(getPlayerFileName(playerName, true));
+        return Files.exists(binary) ? binary : Paths.get(getPlayerFileName(playerName, false));
     }
 
     // Saves the player's game data to a JavaScript Object Notation (JSON) file. This write format uses the canonical keys: "pokemon" entries include "move" (single-element array).
     public static boolean saveGame(Player player) {
+        try {
+            String fileName = writeSave(player);
+            System.out.println("Game saved to " + fileName);
+            return true;
+        } catch (IOException e) {
+            System.out.println("Error saving game: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Writes the player's save without printing anything, records it in the player index, and returns the file name; SaveService calls this
+    // from its writer thread. A save already in the binary format stays binary; anything else is written as JSON. Saves written in binary
+    // before binary saves had their own extension are recognised by their first bytes and moved to a ".sav" file.
+    static String writeSave(Player player) throws IOException {
+        return writeSave(player, BinarySaveCodec.isBinary(findSaveFile(player.getName())));
+    }
+
+    // Writes the player's save in the given format (binary or JSON).
+    static String writeSave(Player player, boolean binary) throws IOException {
+        // The summary is taken with the document, so the index describes exactly what was written.
+        Summary summary = new Summary(player.getName(), player.getBattlesWon(), player.getBattlesLost(), player.getYen());
+        return writeEncoded(summary, encode(player, binary));
+    }
+
+    // Encodes the player's save in memory; PlayerJournal does this under the player's lock and writes it afterwards.
+    static byte[] encode(Player player, boolean binary) {
+        return binary ? BinarySaveCodec.encode(player) : toJson(player).getBytes(Charset.defaultCharset());
+    }
+
+    // Writes an encoded save for the summarised player and records it in the player index. The file's extension follows the content's format;
+    // a save in the other format is deleted once the new one is in place, so converting a save never leaves the player without one.
+    static String writeEncoded(Summary summary, byte[] content) throws IOException {
         ensureSaveDirectoryExists();
-        String fileName = getPlayerFileName(player.getName());
-
-        try (PrintWriter writer = new PrintWriter(new FileWriter(fileName))) {
-            StringBuilder json = new StringBuilder();
-            json.append("{\n");
-            json.append("  \"playerName\": \"").append(escapeJson(player.getName())).append("\",\n");
-            json.append("  \"battlesWon\": ").append(player.getBattlesWon()).append(",\n");
-            json.append("  \"battlesLost\": ").append(player.getBattlesLost()).append(",\n");
-            json.append("  \"yen\": ").append(player.getYen()).append(",\n");
-
-            // Serialise player's Pokémon collection.
-            List<Pokemon> pokes = player.getPokemons();
-            if (pokes == null) pokes = new ArrayList<>();
-
-            json.append("  \"pokemon\": [\n");
-            for (int i = 0; i < pokes.size(); i++) {
-                Pokemon p = pokes.get(i);
-                json.append("    {\n");
-                json.append("      \"id\": ").append(p.getId()).append(",\n");
-                json.append("      \"name\": \"").append(escapeJson(p.getName())).append("\",\n");
-
-                // Pokémon types.
-                json.append("      \"types\": [");
-                if (p.getTypes() != null) {
-                    for (int t = 0; t < p.getTypes().size(); t++) {
-                        if (t > 0) json.append(", ");
-                        json.append("\"").append(escapeJson(p.getTypes().get(t))).append("\"");
-                    }
-                }
-                json.append("],\n");
-
-                // Pokémon statistics.
-                json.append("      \"maxHp\": ").append(p.getMaxHp()).append(",\n");
-                json.append("      \"hp\": ").append(p.getHp()).append(",\n");
-                json.append("      \"attack\": ").append(p.getAttack()).append(",\n");
-                json.append("      \"defense\": ").append(p.getDefense()).append(",\n");
-
-                // Optional meta fields (safe fallbacks if missing).
-                try {
-                    json.append("      \"grade\": ").append(p.getGrade()).append(",\n");
-                } catch (Throwable ignore) { json.append("      \"grade\": 0,\n"); }
-                try {
-                    Integer evo = p.getEvolvesToId();
-                    json.append("      \"evolvesToId\": ").append(evo == null ? "null" : evo).append(",\n");
-                } catch (Throwable ignore) { json.append("      \"evolvesToId\": null,\n"); }
-                try {
-                    json.append("      \"megaCapable\": ").append(p.isMegaCapable()).append(",\n");
-                } catch (Throwable ignore) { json.append("      \"megaCapable\": false,\n"); }
-                try {
-                    json.append("      \"zMoveCapable\": ").append(p.isZMoveCapable()).append(",\n");
-                } catch (Throwable ignore) { json.append("      \"zMoveCapable\": false,\n"); }
-
-                // "move" - Canonical single-element array: write the first move if present.
-                String firstMove = null;
-                if (p.getMoves() != null && !p.getMoves().isEmpty()) {
-                    firstMove = p.getMoves().get(0).name();
-                }
-                json.append("      \"move\": [");
-                if (firstMove != null) {
-                    json.append("\"").append(escapeJson(firstMove)).append("\"");
+        boolean binary = BinarySaveCodec.isBinary(content, content.length);
+        String fileName = getPlayerFileName(summary.playerName, binary);
+        PlayerIndex index = PlayerIndex.shared();
+        long directoryBefore = index.directoryTime();
+        writeAtomically(fileName, content, true);
+        index.recordSave(Paths.get(fileName), directoryBefore, summary.playerName, summary.battlesWon, summary.battlesLost, summary.yen);
+        deleteSaveFile(Paths.get(getPlayerFileName(summary.playerName, !binary)), index);
+        return fileName;
+    }
+
+    // Deletes a save file, if it exists, and records the delete in the player index.
+    private static boolean deleteSaveFile(Path file, PlayerIndex index) throws IOException {
+        long directoryBefore = index.directoryTime();
+        boolean deleted = Files.deleteIfExists(file);
+        if (deleted) index.recordDelete(file, directoryBefore);
+        return deleted;
+    }
+
+    // Builds the save document for a player.
+    static String toJson(Player player) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"playerName\": \"").append(escapeJson(player.getName())).append("\",\n");
+        json.append("  \"battlesWon\": ").append(player.getBattlesWon()).append(",\n");
+        json.append("  \"battlesLost\": ").append(player.getBattlesLost()).append(",\n");
+        json.append("  \"yen\": ").append(player.getYen()).append(",\n");
+        if (player.getJournalSequence() > 0) {
+            json.append("  \"journalSequence\": ").append(player.getJournalSequence()).append(",\n");
+        }
+
+        // Serialise player's Pokémon collection.
+        List<Pokemon> pokes = player.getPokemons();
+        if (pokes == null) pokes = new ArrayList<>();
+
+        json.append("  \"pokemon\": [\n");
+        for (int i = 0; i < pokes.size(); i++) {
+            Pokemon p = pokes.get(i);
+            json.append("    {\n");
+            json.append("      \"id\": ").append(p.getId()).append(",\n");
+            json.append("      \"name\": \"").append(escapeJson(p.getName())).append("\",\n");
+
+            // Pokémon types.
+            json.append("      \"types\": [");
+            if (p.getTypes() != null) {
+                for (int t = 0; t < p.getTypes().size(); t++) {
+                    if (t > 0) json.append(", ");
+                    json.append("\"").append(escapeJson(p.getTypes().get(t))).append("\"");
                 }
-                json.append("]\n");
+            }
+            json.append("],\n");
 
-                json.append("    }");
-                if (i < pokes.size() - 1) json.append(",");
-                json.append("\n");
+            // Pokémon statistics.
+            json.append("      \"maxHp\": ").append(p.getMaxHp()).append(",\n");
+            json.append("      \"hp\": ").append(p.getHp()).append(",\n");
+            json.append("      \"attack\": ").append(p.getAttack()).append(",\n");
+            json.append("      \"defense\": ").append(p.getDefense()).append(",\n");
+
+            // Optional meta fields (safe fallbacks if missing).
+            try {
+                json.append("      \"grade\": ").append(p.getGrade()).append(",\n");
+            } catch (Throwable ignore) { json.append("      \"grade\": 0,\n"); }
+            try {
+                Integer evo = p.getEvolvesToId();
+                json.append("      \"evolvesToId\": ").append(evo == null ? "null" : evo).append(",\n");
+            } catch (Throwable ignore) { json.append("      \"evolvesToId\": null,\n"); }
+            try {
+                json.append("      \"megaCapable\": ").append(p.isMegaCapable()).append(",\n");
+            } catch (Throwable ignore) { json.append("      \"megaCapable\": false,\n"); }
+            try {
+                json.append("      \"zMoveCapable\": ").append(p.isZMoveCapable()).append(",\n");
+            } catch (Throwable ignore) { json.append("      \"zMoveCapable\": false,\n"); }
+
+            // "move" - Canonical single-element array: write the first move if present.
+            String firstMove = null;
+            if (p.getMoves() != null && !p.getMoves().isEmpty()) {
+                firstMove = p.getMoves().get(0).name();
+            }
+            json.append("      \"move\": [");
+            if (firstMove != null) {
+                json.append("\"").append(escapeJson(firstMove)).append("\"");
             }
-            json.append("  ]\n");
-            json.append("}");
+            json.append("]\n");
 
-            // Write JSON to file.
-            writer.write(json.toString());
-            System.out.println("Game saved to " + fileName);
-            return true;
+            json.append("    }");
+            if (i < pokes.size() - 1) json.append(",");
+            json.append("\n");
+        }
+        json.append("  ]\n");
+        json.append("}");
+        return json.toString();
+    }
+
+    // Writes a file through a uniquely named temporary file in the same directory and an atomic rename, so sessions saving at the same time
+    // never interleave their writes and readers never see half a save. The temporary file is forced to disk before the rename, so a crash
+    // leaves either the old save or the new one, never a renamed but partly written file. Files that can be rebuilt (the player index) skip the sync.
+    static void writeAtomically(String fileName, String content, boolean sync) throws IOException {
+        writeAtomically(fileName, content.getBytes(Charset.defaultCharset()), sync);
+    }
+
+    static void writeAtomically(String fileName, byte[] content, boolean sync) throws IOException {
+        Path target = Paths.get(fileName).toAbsolutePath();
+        FileChannel channel = null;
+        Path tmp = null;
+        // The temporary file is created like any new file (Files.createTempFile would make it readable by the owner only), and takes the
+        // permissions of the file it replaces, so rewriting a save never changes who can read it.
+        while (channel == null) {
+            tmp = target.resolveSibling(target.getFileName() + "." + Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), 36) + ".tmp");
+            try {
+                channel = FileChannel.open(tmp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            } catch (FileAlreadyExistsException e) {
+                // Another writer's temporary file; pick another name.
+            }
+        }
+        try {
+            try (FileChannel out = channel) {
+                ByteBuffer buffer = ByteBuffer.wrap(content);
+                while (buffer.hasRemaining()) out.write(buffer);
+                if (sync) out.force(true);
+            }
+            copyPermissions(target, tmp);
+            try {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (sync) syncDirectory(target.getParent());
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    // Gives the file at to the POSIX permissions of the file at from, if from exists and the file system has POSIX permissions.
+    private static void copyPermissions(Path from, Path to) throws IOException {
+        PosixFileAttributeView view = Files.getFileAttributeView(from, PosixFileAttributeView.class);
+        if (view == null) return;
+        try {
+            Files.setPosixFilePermissions(to, view.readAttributes().permissions());
+        } catch (NoSuchFileException e) {
+            // Nothing to replace yet; the new file keeps the default permissions.
+        }
+    }
+
+    // Forces a directory entry change (the rename) to disk where the platform allows opening a directory; elsewhere this is a no-op.
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
         } catch (IOException e) {
-            System.out.println("Error saving game: " + e.getMessage());
-            return false;
+            // Not supported on this platform (e.g. Windows); the rename is still atomic.
         }
     }
 
     // Loads a saved game for the specified player name from disk.
     public static Player loadGame(String playerName) {
-        String fileName = getPlayerFileName(playerName);
-        File saveFile = new File(fileName);
-        if (!saveFile.exists()) return null;
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
-            StringBuilder content = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) content.append(line).append("\n");
-            String json = content.toString();
-
-            // Extract player data from JSON.
-            String loadedPlayerName = extractJsonString(json, "playerName");
-            int battlesWon = extractJsonInt(json, "battlesWon");
-            int battlesLost = extractJsonInt(json, "battlesLost");
-            int yen = extractJsonInt(json, "yen");
-
-            // Create and populate Player object.
-            Player player = new Player(loadedPlayerName);
-            player.setBattlesWon(battlesWon);
-            player.setBattlesLost(battlesLost);
-            player.setYen(yen);
-
-            // Loads Pokémon collection.
-            List<Pokemon> pokes = parsePokemonArrayFromJson(json);
-            player.setPokemons(pokes);
-
-            System.out.println("Game loaded successfully! Welcome back, " + loadedPlayerName + "!");
+        try {
+            Player player = readPlayerSave(playerName);
+            if (player != null) System.out.println("Game loaded successfully! Welcome back, " + player.getName() + "!");
             return player;
         } catch (IOException e) {
             System.out.println("Error loading game: " + e.getMessage());
@@ -142,253 +241,368 @@ public class JsonSaveSystem {
         }
     }
 
-    // Loads the first available saved game (if any).
-    public static Player loadGame() {
-        List<String> players = getExistingPlayers();
-        if (players.isEmpty()) return null;
-        return loadGame(players.get(0));
+    // Loads the named player's save with its journal replayed, without printing anything; null if there is no save.
+    static Player readPlayerSave(String playerName) throws IOException {
+        Path saveFile = findSaveFile(playerName);
+        if (!Files.exists(saveFile)) return null;
+        Player player = readSave(saveFile);
+        PlayerJournal.replay(player);
+        return player;
     }
 
-    // Retrieves a list of all saved player names from the save directory.
-    public static List<String> getExistingPlayers() {
-        List<String> playerNames = new ArrayList<>();
-        try {
-            if (!Files.exists(Paths.get(SAVE_DIRECTORY))) return playerNames;
-            Files.walk(Paths.get(SAVE_DIRECTORY))
-                .filter(Files::isRegularFile)
-                .filter(path -> path.toString().endsWith(SAVE_FILE_EXTENSION))
-                .forEach(path -> {
-                    try (BufferedReader reader = new BufferedReader(new FileReader(path.toFile()))) {
-                        StringBuilder content = new StringBuilder();
-                        String line;
-                        while ((line = reader.readLine()) != null) content.append(line).append("\n");
-                        String json = content.toString();
-                        String playerName = extractJsonString(json, "playerName");
-                        if (playerName != null && !playerName.isEmpty() && !playerNames.contains(playerName)) {
-                            playerNames.add(playerName);
-                        }
-                    } catch (IOException e) {
-                        System.err.println("Failed to read player from " + path + ": " + e.getMessage());
-                    }
-                });
-        } catch (IOException e) {
-            System.err.println("Failed to scan save directory: " + e.getMessage());
+    // Reads a save in either format, telling them apart by the binary format's magic bytes.
+    static Player readSave(Path file) throws IOException {
+        byte[] data = Files.readAllBytes(file);
+        if (BinarySaveCodec.isBinary(data, data.length)) {
+            try {
+                return BinarySaveCodec.decode(data);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Corrupt binary save: " + e.getMessage(), e);
+            }
         }
-        Collections.sort(playerNames);
-        return playerNames;
+        return readPlayer(new InputStreamReader(new ByteArrayInputStream(data), Charset.defaultCharset()));
     }
 
-    // Checks if at least one save file exists.
-    public static boolean saveFileExists() {
-        return !getExistingPlayers().isEmpty();
+    // Reads the name and summary of a save in either format.
+    static Summary readSummary(Path file) throws IOException {
+        byte[] data = Files.readAllBytes(file);
+        if (BinarySaveCodec.isBinary(data, data.length)) {
+            try {
+                Player p = BinarySaveCodec.decode(data);
+                return new Summary(p.getName(), p.getBattlesWon(), p.getBattlesLost(), p.getYen());
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Corrupt binary save: " + e.getMessage(), e);
+            }
+        }
+        return readSummary(new InputStreamReader(new ByteArrayInputStream(data), Charset.defaultCharset()));
     }
 
-    // Deletes the save file for the specified player.
-    public static boolean deletePlayerSave(String playerName) {
-        try {
-            String fileName = getPlayerFileName(playerName);
-            return Files.deleteIfExists(Paths.get(fileName));
-        } catch (IOException e) {
-            System.err.println("Failed to delete save for " + playerName + ": " + e.getMessage());
-            return false;
+    // Reads the summary of a save with its player's journal replayed on top, for a save whose journal holds changes not yet folded in.
+    static Summary readJournalledSummary(Path file) throws IOException {
+        Player p = readSave(file);
+        PlayerJournal.replay(p);
+        return new Summary(p.getName(), p.getBattlesWon(), p.getBattlesLost(), p.getYen());
+    }
+
+    // Reads a whole save document in one pass, filling the Player and its Pokémon as the values stream by; unknown keys are skipped.
+    // The stream is closed afterwards.
+    static Player readPlayer(Reader source) throws IOException {
+        try (JsonReader json = new JsonReader(source)) {
+            String playerName = "";
+            int battlesWon = 0;
+            int battlesLost = 0;
+            Integer yen = null;
+            int coins = 0;
+            long journalSequence = 0;
+            List<Pokemon> pokes = new ArrayList<>();
+
+            json.beginObject();
+            while (json.hasNext()) {
+                switch (json.nextName()) {
+                    case "playerName":
+                        playerName = readString(json);
+                        break;
+                    case "battlesWon":
+                        battlesWon = readInt(json);
+                        break;
+                    case "battlesLost":
+                        battlesLost = readInt(json);
+                        break;
+                    case "yen":
+                        yen = readInt(json);
+                        break;
+                    case "coins":
+                        // Legacy key, used only when the save has no "yen".
+                        coins = readInt(json);
+                        break;
+                    case "journalSequence":
+                        journalSequence = readLong(json);
+                        break;
+                    case "pokemon":
+                        readPokemonList(json, pokes);
+                        break;
+                    default:
+                        json.skipValue();
+                }
+            }
+            json.endObject();
+
+            Player player = new Player(playerName);
+            player.setBattlesWon(battlesWon);
+            player.setBattlesLost(battlesLost);
+            player.setYen(yen != null ? yen : coins);
+            player.setPokemons(pokes);
+            player.setJournalSequence(journalSequence);
+            return player;
         }
     }
 
-    // Extracts a string value from a JSON string for the given key.
-    private static String extractJsonString(String json, String key) {
-        String searchPattern = "\"" + key + "\": \"";
-        int start = json.indexOf(searchPattern);
-        if (start == -1) return "";
-        start += searchPattern.length();
-        int end = json.indexOf("\"", start);
-        return end == -1 ? "" : json.substring(start, end);
-    }
-
-    // Extracts an integer value from a JSON string for the given key.
-    private static int extractJsonInt(String json, String key) {
-        String searchPattern = "\"" + key + "\": ";
-        int start = json.indexOf(searchPattern);
-        if (start == -1) return 0;
-        start += searchPattern.length();
-        int end = json.indexOf(",", start);
-        if (end == -1) end = json.indexOf("}", start);
-        if (end == -1) return 0;
-        try {
-            return Integer.parseInt(json.substring(start, end).trim());
-        } catch (NumberFormatException e) {
-            return 0;
+    // Won/lost/yen summary of a save, read for the player index.
+    static final class Summary {
+        final String playerName;
+        final int battlesWon;
+        final int battlesLost;
+        final int yen;
+
+        Summary(String playerName, int battlesWon, int battlesLost, int yen) {
+            this.playerName = playerName;
+            this.battlesWon = battlesWon;
+            this.battlesLost = battlesLost;
+            this.yen = yen;
         }
     }
 
-    // Extracts a boolean value from a JSON string for the given key.
-    private static boolean extractJsonBoolean(String json, String key) {
-        String searchPattern = "\"" + key + "\": ";
-        int start = json.indexOf(searchPattern);
-        if (start == -1) return false;
-        start += searchPattern.length();
-        int end = json.indexOf(",", start);
-        if (end == -1) end = json.indexOf("}", start);
-        if (end == -1) return false;
-        String token = json.substring(start, end).trim();
-        return token.equalsIgnoreCase("true");
-    }
-
-    // Parses the Pokémon array from a JSON string into a list of Pokémon objects.
-    private static List<Pokemon> parsePokemonArrayFromJson(String json) {
-        List<Pokemon> result = new ArrayList<>();
-        String search = "\"pokemon\":";
-        int idx = json.indexOf(search);
-        if (idx == -1) return result;
-        idx = json.indexOf("[", idx);
-        if (idx == -1) return result;
-        int end = json.indexOf("]", idx);
-        if (end == -1) return result;
-
-        // Scan for object blocks between idx and end.
-        int i = idx + 1;
-        while (i < end) {
-            int objStart = json.indexOf("{", i);
-            if (objStart == -1 || objStart > end) break;
-
-            // Find matching closing brace.
-            int depth = 0;
-            int j = objStart;
-            for (; j <= end; j++) {
-                char c = json.charAt(j);
-                if (c == '{') depth++;
-                else if (c == '}') {
-                    depth--;
-                    if (depth == 0) break;
+    // Reads a save's name and summary, skipping over its Pokémon without building them. The stream is closed afterwards.
+    static Summary readSummary(Reader source) throws IOException {
+        try (JsonReader json = new JsonReader(source)) {
+            String playerName = "";
+            int battlesWon = 0;
+            int battlesLost = 0;
+            Integer yen = null;
+            int coins = 0;
+
+            json.beginObject();
+            while (json.hasNext()) {
+                switch (json.nextName()) {
+                    case "playerName":
+                        playerName = readString(json);
+                        break;
+                    case "battlesWon":
+                        battlesWon = readInt(json);
+                        break;
+                    case "battlesLost":
+                        battlesLost = readInt(json);
+                        break;
+                    case "yen":
+                        yen = readInt(json);
+                        break;
+                    case "coins":
+                        coins = readInt(json);
+                        break;
+                    default:
+                        json.skipValue();
                 }
             }
-            if (j > end) break;
+            json.endObject();
+            return new Summary(playerName, battlesWon, battlesLost, yen != null ? yen : coins);
+        }
+    }
 
-            String obj = json.substring(objStart, j + 1);
-            Pokemon p = parsePokemonFromFragment(obj);
-            if (p != null) result.add(p);
-            i = j + 1;
+    // Reads the "pokemon" value: an array of Pokémon, a single Pokémon object, or null.
+    private static void readPokemonList(JsonReader json, List<Pokemon> out) throws IOException {
+        switch (json.peek()) {
+            case BEGIN_ARRAY:
+                json.beginArray();
+                while (json.hasNext()) out.add(readPokemon(json));
+                json.endArray();
+                break;
+            case BEGIN_OBJECT:
+                out.add(readPokemon(json));
+                break;
+            default:
+                json.skipValue();
         }
-        return result;
     }
 
-    // Parses a single Pokémon object from a JSON fragment. This parse expects the canonical save format. It reads "move" (single-element array) only.
-    private static Pokemon parsePokemonFromFragment(String fragment) {
-        try {
-            Pokemon pokemon = new Pokemon();
-            pokemon.setId(extractJsonInt(fragment, "id"));
-            pokemon.setName(extractJsonString(fragment, "name"));
-            pokemon.setMaxHp(extractJsonInt(fragment, "maxHp"));
-            pokemon.setHp(extractJsonInt(fragment, "hp"));
-            pokemon.setAttack(extractJsonInt(fragment, "attack"));
-            pokemon.setDefense(extractJsonInt(fragment, "defense"));
-
-            // Optional meta fields.
-            Integer grade = extractJsonNullableInt(fragment, "grade");
-            if (grade != null) pokemon.setGrade(grade);
-            Integer evolves = extractJsonNullableInt(fragment, "evolvesToId");
-            pokemon.setEvolvesToId(evolves);
-            pokemon.setMegaCapable(extractJsonBoolean(fragment, "megaCapable"));
-            pokemon.setZMoveCapable(extractJsonBoolean(fragment, "zMoveCapable"));
-
-            // Types and moves.
-            List<String> types = parseJsonStringArray(fragment, "types");
-            pokemon.setTypes(types);
-
-            // Load moves: canonical "move" single-element array preferred, fall back to legacy "moves."
-            List<String> moveNames = parseJsonStringArray(fragment, "move");
-            if (moveNames.isEmpty()) moveNames = parseJsonStringArray(fragment, "moves");
-            for (String mn : moveNames) {
-                Move mv = createMoveByName(mn);
-                if (mv != null) pokemon.addMove(mv);
+    // Reads one Pokémon object in the canonical save format; "move" (single-element array) is preferred, with legacy "moves" as the fallback.
+    private static Pokemon readPokemon(JsonReader json) throws IOException {
+        int id = 0;
+        String name = "";
+        int maxHp = 0;
+        int hp = 0;
+        int attack = 0;
+        int defense = 0;
+        Integer grade = null;
+        Integer evolvesToId = null;
+        boolean megaCapable = false;
+        boolean zMoveCapable = false;
+        List<String> types = new ArrayList<>(2);
+        List<String> move = new ArrayList<>(1);
+        List<String> moves = new ArrayList<>();
+
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "id":
+                    id = readInt(json);
+                    break;
+                case "name":
+                    name = readString(json);
+                    break;
+                case "types":
+                    readStrings(json, types);
+                    break;
+                case "maxHp":
+                    maxHp = readInt(json);
+                    break;
+                case "hp":
+                    hp = readInt(json);
+                    break;
+                case "attack":
+                    attack = readInt(json);
+                    break;
+                case "defense":
+                    defense = readInt(json);
+                    break;
+                case "grade":
+                    grade = readNullableInt(json);
+                    break;
+                case "evolvesToId":
+                    evolvesToId = readNullableInt(json);
+                    break;
+                case "megaCapable":
+                    megaCapable = readBoolean(json);
+                    break;
+                case "zMoveCapable":
+                    zMoveCapable = readBoolean(json);
+                    break;
+                case "move":
+                    readStrings(json, move);
+                    break;
+                case "moves":
+                    readStrings(json, moves);
+                    break;
+                default:
+                    json.skipValue();
             }
-
-            return pokemon;
-        } catch (Exception e) {
-            System.out.println("Error parsing Pokemon fragment: " + e.getMessage());
-            return null;
         }
+        json.endObject();
+
+        Pokemon pokemon = new Pokemon();
+        pokemon.setId(id);
+        pokemon.setName(name);
+        pokemon.setMaxHp(maxHp);
+        pokemon.setHp(hp);
+        pokemon.setAttack(attack);
+        pokemon.setDefense(defense);
+        if (grade != null) pokemon.setGrade(grade);
+        pokemon.setEvolvesToId(evolvesToId);
+        pokemon.setMegaCapable(megaCapable);
+        pokemon.setZMoveCapable(zMoveCapable);
+        pokemon.setTypes(types);
+        for (String mn : move.isEmpty() ? moves : move) {
+            Move mv = MoveRegistry.resolve(mn);
+            if (mv != null) pokemon.addMove(mv);
+        }
+        return pokemon;
+    }
+
+    // Value readers that treat null as the field's default, as older saves write null for missing values.
+    private static int readInt(JsonReader json) throws IOException {
+        Integer value = readNullableInt(json);
+        return value == null ? 0 : value;
     }
 
-    // Extracts an integer value from JSON that may be null.
-    private static Integer extractJsonNullableInt(String json, String key) {
-        String searchPattern = "\"" + key + "\": ";
-        int start = json.indexOf(searchPattern);
-        if (start == -1) return null;
-        start += searchPattern.length();
-        int end = json.indexOf(",", start);
-        if (end == -1) end = json.indexOf("}", start);
-        if (end == -1) return null;
-        String token = json.substring(start, end).trim();
-        if ("null".equals(token)) return null;
+    private static long readLong(JsonReader json) throws IOException {
+        if (json.peek() == JsonReader.Token.NULL) {
+            json.nextNull();
+            return 0;
+        }
+        String literal = json.nextString();
         try {
-            return Integer.parseInt(token);
+            return Long.parseLong(literal);
         } catch (NumberFormatException e) {
+            throw new IOException("Malformed JSON: expected a whole number but was " + literal);
+        }
+    }
+
+    private static Integer readNullableInt(JsonReader json) throws IOException {
+        if (json.peek() == JsonReader.Token.NULL) {
+            json.nextNull();
             return null;
         }
+        return json.nextInt();
     }
 
-    // Parses an array of strings from a JSON string for the given key.
-    private static List<String> parseJsonStringArray(String json, String key) {
-        List<String> result = new ArrayList<>();
-        String searchPattern = "\"" + key + "\": [";
-        int start = json.indexOf(searchPattern);
-        if (start == -1) return result;
-        start += searchPattern.length();
-        int end = json.indexOf("]", start);
-        if (end == -1) return result;
-        String arrayContent = json.substring(start, end);
-        if (arrayContent.trim().isEmpty()) return result;
-        String[] items = arrayContent.split(",");
-        for (String item : items) {
-            String cleaned = item.trim();
-            if (cleaned.startsWith("\"") && cleaned.endsWith("\"")) {
-                cleaned = cleaned.substring(1, cleaned.length() - 1);
-                result.add(cleaned);
-            }
+    private static String readString(JsonReader json) throws IOException {
+        if (json.peek() == JsonReader.Token.NULL) {
+            json.nextNull();
+            return "";
         }
-        return result;
+        return json.nextString();
     }
 
-    // Creates a Move object based on its name string.
-    public static Move createMoveByName(String moveName) {
-        if (moveName == null) return null;
-        String trimmed = moveName.trim();
-        if (trimmed.isEmpty()) return null;
-        String lower = trimmed.toLowerCase();
-        if (lower.equals("tackle")) return new BasicAttack();
-        if (lower.endsWith(" strike")) {
-            String typeStr = trimmed.substring(0, trimmed.length() - " Strike".length()).trim();
-            try {
-                try { return new TypeMove(Type.fromString(typeStr)); } catch (Exception ignored) {}
-                try { return new TypeMove(Type.fromString(typeStr.toUpperCase())); } catch (Exception ignored) {}
-                try { return new TypeMove(Type.fromString(formatDisplayName(typeStr))); } catch (Exception ignored) {}
-            } catch (Exception e) {}
-            return new BasicAttack();
+    private static boolean readBoolean(JsonReader json) throws IOException {
+        if (json.peek() != JsonReader.Token.BOOLEAN) {
+            json.skipValue();
+            return false;
+        }
+        return json.nextBoolean();
+    }
+
+    // Appends the strings of an array value to the list, skipping non-string elements; null leaves the list empty.
+    private static void readStrings(JsonReader json, List<String> out) throws IOException {
+        if (json.peek() != JsonReader.Token.BEGIN_ARRAY) {
+            json.skipValue();
+            return;
+        }
+        json.beginArray();
+        while (json.hasNext()) {
+            if (json.peek() == JsonReader.Token.STRING) out.add(json.nextString());
+            else json.skipValue();
         }
-        return new BasicAttack();
-    }
-
-    // Formats a raw string into a display-friendly name (capitalised words).
-    private static String formatDisplayName(String raw) {
-        if (raw == null) return "";
-        String s = raw.trim().replace("_", " ");
-        if (s.isEmpty()) return "";
-        String[] parts = s.split("\\s+");
-        for (int i = 0; i < parts.length; i++) {
-            if (parts[i].length() == 0) continue;
-            String lower = parts[i].toLowerCase();
-            parts[i] = Character.toUpperCase(lower.charAt(0)) + (lower.length() > 1 ? lower.substring(1) : "");
+        json.endArray();
+    }
+
+    // Loads the first available saved game (if any).
+    public static Player loadGame() {
+        List<String> players = getExistingPlayers();
+        if (players.isEmpty()) return null;
+        return loadGame(players.get(0));
+    }
+
+    // Retrieves a list of all saved player names, sorted, from the player index (which parses only saves that changed since it was written).
+    public static List<String> getExistingPlayers() {
+        return PlayerIndex.shared().playerNames();
+    }
+
+    // Checks if at least one save file exists.
+    public static boolean saveFileExists() {
+        return !getExistingPlayers().isEmpty();
+    }
+
+    // Deletes the save file for the specified player (in either format), with its journal and battle replay archive, so a new profile of the
+    // same name starts clean.
+    public static boolean deletePlayerSave(String playerName) {
+        try {
+            PlayerIndex index = PlayerIndex.shared();
+            boolean deleted = deleteSaveFile(Paths.get(getPlayerFileName(playerName, false)), index);
+            deleted |= deleteSaveFile(Paths.get(getPlayerFileName(playerName, true)), index);
+            PlayerJournal.delete(playerName);
+            Files.deleteIfExists(BattleReplay.archivePath(playerName));
+            return deleted;
+        } catch (IOException e) {
+            System.err.println("Failed to delete save for " + playerName + ": " + e.getMessage());
+            return false;
         }
-        return String.join(" ", parts);
     }
 
-    // Escapes special characters in a string for safe JSON output.
-    private static String escapeJson(String str) {
+    // Resolves a move name to its shared instance in the MoveRegistry (unknown names fall back to Tackle).
+    public static Move createMoveByName(String moveName) {
+        return MoveRegistry.resolve(moveName);
+    }
+
+    // Escapes special characters in a string for safe JSON output. Control characters other than newline, return and tab are written as
+    // four-digit hex escapes, since JSON (and so JsonReader) rejects them unescaped inside strings.
+    static String escapeJson(String str) {
         if (str == null) return "";
-        return str.replace("\\", "\\\\")
-                  .replace("\"", "\\\"")
-                  .replace("\n", "\\n")
-                  .replace("\r", "\\r")
-                  .replace("\t", "\\t");
+        StringBuilder sb = null;
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            String escape;
+            if (c == '\\') escape = "\\\\";
+            else if (c == '"') escape = "\\\"";
+            else if (c == '\n') escape = "\\n";
+            else if (c == '\r') escape = "\\r";
+            else if (c == '\t') escape = "\\t";
+            else if (c < 0x20) escape = String.format("\\u%04x", (int) c);
+            else {
+                if (sb != null) sb.append(c);
+                continue;
+            }
+            if (sb == null) sb = new StringBuilder(str.length() + 16).append(str, 0, i);
+            sb.append(escape);
+        }
+        return sb == null ? str : sb.toString();
     }
 }
@@ -1,4 +1,6 @@
-// Imports for user input handling and utility classes.
+// Imports for user input handling, session output, and utility classes.
+import java.io.IOException;
+import java.io.PrintStream;
 import java.util.*;
 
 public class Main {
@@ -25,61 +27,66 @@ public class Main {
     // Prompts the player to insert at least START_COST yen before starting a Pokémon Center session.
     // This method deducts START_COST from player's balance when successful, or prompts deposits until enough is available.
     public static boolean ensureInsertedStartCost(Player player, Scanner scanner) {
-        if (player == null || scanner == null) return false;
+        return ensureInsertedStartCost(player, scanner, System.out);
+    }
+
+    // Same as above, writing the prompts to the given stream (e.g. a hosted session's output).
+    public static boolean ensureInsertedStartCost(Player player, Scanner scanner, PrintStream out) {
+        if (player == null || scanner == null || out == null) return false;
 
         // If player already has enough yen, deduct immediately.
         if (player.getYen() >= START_COST) {
             boolean deducted = player.spendYen(START_COST);
             if (deducted) {
-                System.out.println("Inserted " + fmtYen(START_COST) + ". Welcome to the Pokémon Center!");
+                out.println("Inserted " + fmtYen(START_COST) + ". Welcome to the Pokémon Center!");
                 return true;
             } else {
-                System.out.println("Unexpected error deducting " + fmtYen(START_COST) + ". Please try again later.");
+                out.println("Unexpected error deducting " + fmtYen(START_COST) + ". Please try again later.");
                 return false;
             }
         }
 
         // Otherwise, prompt for deposits until START_COST is reached or cancelled.
-        System.out.println("You need to insert " + fmtYen(START_COST) + " to start a session at the Pokémon Center.");
+        out.println("You need to insert " + fmtYen(START_COST) + " to start a session at the Pokémon Center.");
         while (player.getYen() < START_COST) {
-            System.out.println("Current balance: " + fmtYen(player.getYen()));
-            System.out.print("Insert amount now (enter integer amount, or 0 to cancel): ");
+            out.println("Current balance: " + fmtYen(player.getYen()));
+            out.print("Insert amount now (enter integer amount, or 0 to cancel): ");
             String line = scanner.nextLine().trim();
             int add = 0;
             try {
                 add = Integer.parseInt(line);
             } catch (NumberFormatException e) {
-                System.out.println("Invalid amount entered. Please enter a whole number (e.g. 100) or 0 to cancel.");
+                out.println("Invalid amount entered. Please enter a whole number (e.g. 100) or 0 to cancel.");
                 continue;
             }
 
             if (add == 0) {
-                System.out.println("No yen inserted. Cancelled.");
+                out.println("No yen inserted. Cancelled.");
                 return false;
             }
             if (add < 0) {
-                System.out.println("Amount must be positive. Try again or enter 0 to cancel.");
+                out.println("Amount must be positive. Try again or enter 0 to cancel.");
                 continue;
             }
 
             // Add deposit to player's balance.
             player.addYen(add);
-            System.out.println(fmtYen(add) + " added. New balance: " + fmtYen(player.getYen()));
+            out.println(fmtYen(add) + " added. New balance: " + fmtYen(player.getYen()));
 
             // If enough funds, deduct and proceed.
             if (player.getYen() >= START_COST) {
                 boolean ok = player.spendYen(START_COST);
                 if (ok) {
-                    System.out.println("Inserted " + fmtYen(START_COST) + ". Welcome to the Pokémon Center!");
+                    out.println("Inserted " + fmtYen(START_COST) + ". Welcome to the Pokémon Center!");
                     return true;
                 } else {
-                    System.out.println("Unexpected error deducting " + fmtYen(START_COST) + ". Please try again.");
+                    out.println("Unexpected error deducting " + fmtYen(START_COST) + ". Please try again.");
                     return false;
                 }
             } else {
                 // Still not enough, prompt again.
                 int remaining = START_COST - player.getYen();
-                System.out.println("Still need " + fmtYen(remaining) + " to start a session. You can add more or enter 0 to cancel.");
+                out.println("Still need " + fmtYen(remaining) + " to start a session. You can add more or enter 0 to cancel.");
             }
         }
 
@@ -87,7 +94,7 @@ public class Main {
         if (player.getYen() >= START_COST) {
             boolean ok = player.spendYen(START_COST);
             if (ok) {
-                System.out.println("Inserted " + fmtYen(START_COST) + ". Welcome to the Pokémon Center!");
+                out.println("Inserted " + fmtYen(START_COST) + ". Welcome to the Pokémon Center!");
                 return true;
             }
         }
@@ -96,186 +103,306 @@ public class Main {
     
     // Main entry point for the Pokémon Ga-Olé console game.
     public static void main(String[] args) {
-        Scanner scanner = new Scanner(System.in);
-        Player player = null;
-
-        // Introduction screen
-        System.out.println();
-        System.out.println("Welcome to the Pokémon Ga-Olé arcade game coded in Java!");
-        System.out.println();
-        System.out.println("To create a new player profile, select option one (1).");
-        System.out.println("To log in an existing player profile, select option two (2).");
-        System.out.println();
-        System.out.print("Select an option: ");
+        play(SessionIO.console());
+    }
 
-        // Retrieve list of existing saved player profiles.
-        List<String> existingPlayers = JsonSaveSystem.getExistingPlayers();
+    // Runs one player's whole session (profile selection, the game, and the final save) over the given session streams.
+    public static void play(SessionIO io) {
+        Scanner scanner = io.in();
+        PrintStream out = io.out();
+        Player player = null;
+        // Lock on the profile being played, taken before it is loaded or created so no other session can change it meanwhile.
+        PlayerJournal.ProfileLock profileLock = null;
+        // Journal of the profile once play starts; it holds the lock from then on.
+        PlayerJournal journal = null;
 
-        String mainChoice = scanner.nextLine().trim();
+        // Whatever ends the session, including the player's input closing mid-prompt, the profile is given up in the finally below.
+        try {
 
-        // Handle main menu choice
-        if (mainChoice.equals("2")) {
-            if (existingPlayers.isEmpty()) {
-                System.out.println("No existing player profiles found. Creating new player instead...");
-            } else {
-                boolean playerSelected = false;
-
-                // Loop until a player is selected or user chooses to create a new one.
-                while (!playerSelected) {
-                    // Display list of existing players.
-                    System.out.println("\nExisting player profiles:");
-                    for (int i = 0; i < existingPlayers.size(); i++) {
-                        System.out.println((i + 1) + ". " + existingPlayers.get(i));
-                    }
+            // Introduction screen
+            out.println();
+            out.println("Welcome to the Pokémon Ga-Olé arcade game coded in Java!");
+            out.println();
+            out.println("To create a new player profile, select option one (1).");
+            out.println("To log in an existing player profile, select option two (2).");
+            out.println();
+            out.print("Select an option: ");
 
-                    // Display additional options.
-                    System.out.println("\nOther options:");
-                    System.out.println((existingPlayers.size() + 1) + ". Delete a player profile");
-                    System.out.println((existingPlayers.size() + 2) + ". Go back to main menu");
+            // Retrieve list of existing saved player profiles.
+            List<String> existingPlayers = JsonSaveSystem.getExistingPlayers();
 
-                    System.out.print("\nSelect an option (1-" + (existingPlayers.size() + 2) + "): ");
+            String mainChoice = scanner.nextLine().trim();
 
-                    try {
-                        int playerChoice = Integer.parseInt(scanner.nextLine().trim());
+            // Handle main menu choice
+            if (mainChoice.equals("2")) {
+                if (existingPlayers.isEmpty()) {
+                    out.println("No existing player profiles found. Creating new player instead...");
+                } else {
+                    boolean playerSelected = false;
+
+                    // Loop until a player is selected or user chooses to create a new one.
+                    while (!playerSelected) {
+                        // Display list of existing players, with each one's record from the player index.
+                        out.println("\nExisting player profiles:");
+                        Map<String, PlayerIndex.Entry> summaries = PlayerIndex.shared().byPlayerName();
+                        for (int i = 0; i < existingPlayers.size(); i++) {
+                            PlayerIndex.Entry summary = summaries.get(existingPlayers.get(i));
+                            out.println((i + 1) + ". " + existingPlayers.get(i) + (summary == null ? ""
+                                    : " (won " + summary.getBattlesWon() + ", lost " + summary.getBattlesLost() + ", " + fmtYen(summary.getYen()) + ")"));
+                        }
 
-                        // Load selected player profile
-                        if (playerChoice >= 1 && playerChoice <= existingPlayers.size()) {
-                            String selectedPlayerName = existingPlayers.get(playerChoice - 1);
-                            player = JsonSaveSystem.loadGame(selectedPlayerName);
+                        // Display additional options.
+                        out.println("\nOther options:");
+                        out.println((existingPlayers.size() + 1) + ". Delete a player profile");
+                        out.println((existingPlayers.size() + 2) + ". Go back to main menu");
+
+                        out.print("\nSelect an option (1-" + (existingPlayers.size() + 2) + "): ");
+
+                        try {
+                            int playerChoice = Integer.parseInt(scanner.nextLine().trim());
+
+                            // Load selected player profile
+                            if (playerChoice >= 1 && playerChoice <= existingPlayers.size()) {
+                                String selectedPlayerName = existingPlayers.get(playerChoice - 1);
+                                try {
+                                    profileLock = PlayerJournal.ProfileLock.acquire(selectedPlayerName);
+                                } catch (IllegalStateException e) {
+                                    out.println(e.getMessage() + ". Please choose another profile.");
+                                    continue;
+                                } catch (IOException e) {
+                                    out.println("Could not lock " + selectedPlayerName + " (" + e.getMessage() + "); loading it anyway.");
+                                }
+                                // Let any pending background write land first so the load sees the latest save.
+                                SaveService.shared().flush();
+                                // Loaded quietly and reported here, so a hosted player sees the messages rather than the host's console.
+                                try {
+                                    player = JsonSaveSystem.readPlayerSave(selectedPlayerName);
+                                    if (player != null) out.println("Game loaded successfully! Welcome back, " + player.getName() + "!");
+                                } catch (IOException e) {
+                                    out.println("Error loading game: " + e.getMessage());
+                                }
 
-                            if (player != null) {
-                                System.out.println("\nWelcome back, Trainer " + player.getName() + "!");
-                                playerSelected = true;
-                            } else {
-                                System.out.println("Failed to load " + selectedPlayerName + ". Please try again.");
-                            }
+                                if (player != null) {
+                                    out.println("\nWelcome back, Trainer " + player.getName() + "!");
+                                    playerSelected = true;
+                                } else {
+                                    release(profileLock);
+                                    profileLock = null;
+                                    out.println("Failed to load " + selectedPlayerName + ". Please try again.");
+                                }
 
-                        // Delete a player's profile.
-                        } else if (playerChoice == existingPlayers.size() + 1) {
-                            System.out.println("\nSelect a player profile to delete:");
-                            for (int i = 0; i < existingPlayers.size(); i++) {
-                                System.out.println((i + 1) + ". " + existingPlayers.get(i));
-                            }
-                            System.out.println((existingPlayers.size() + 1) + ". Cancel deletion");
+                            // Delete a player's profile.
+                            } else if (playerChoice == existingPlayers.size() + 1) {
+                                out.println("\nSelect a player profile to delete:");
+                                for (int i = 0; i < existingPlayers.size(); i++) {
+                                    out.println((i + 1) + ". " + existingPlayers.get(i));
+                                }
+                                out.println((existingPlayers.size() + 1) + ". Cancel deletion");
 
-                            System.out.print("\nSelect a player to delete (1-" + (existingPlayers.size() + 1) + "): ");
+                                out.print("\nSelect a player to delete (1-" + (existingPlayers.size() + 1) + "): ");
 
-                            try {
-                                int deleteChoice = Integer.parseInt(scanner.nextLine().trim());
+                                try {
+                                    int deleteChoice = Integer.parseInt(scanner.nextLine().trim());
 
-                                if (deleteChoice >= 1 && deleteChoice <= existingPlayers.size()) {
-                                    String playerToDelete = existingPlayers.get(deleteChoice - 1);
+                                    if (deleteChoice >= 1 && deleteChoice <= existingPlayers.size()) {
+                                        String playerToDelete = existingPlayers.get(deleteChoice - 1);
 
-                                    // Confirm deletion.
-                                    System.out.print("Are you sure you want to delete '" + playerToDelete + "'? This cannot be undone. (Yes (y)/No (n)): ");
-                                    String confirmation = scanner.nextLine().trim().toLowerCase();
+                                        // Confirm deletion.
+                                        out.print("Are you sure you want to delete '" + playerToDelete + "'? This cannot be undone. (Yes (y)/No (n)): ");
+                                        String confirmation = scanner.nextLine().trim().toLowerCase();
 
-                                    if (confirmation.equals("y") || confirmation.equals("yes")) {
-                                        if (JsonSaveSystem.deletePlayerSave(playerToDelete)) {
-                                            System.out.println("Player profile '" + playerToDelete + "' has been deleted successfully.");
+                                        boolean confirmed = confirmation.equals("y") || confirmation.equals("yes");
 
-                                            // Refresh player list after deletion.
-                                            existingPlayers = JsonSaveSystem.getExistingPlayers();
+                                        // A profile being played in another session holds its lock, and is not deleted from under it.
+                                        PlayerJournal.ProfileLock deleteLock = null;
+                                        if (confirmed) {
+                                            try {
+                                                deleteLock = PlayerJournal.ProfileLock.acquire(playerToDelete);
+                                            } catch (IllegalStateException e) {
+                                                out.println(e.getMessage() + "; it cannot be deleted now.");
+                                                confirmed = false;
+                                            } catch (IOException e) {
+                                                // Could not check; delete it anyway.
+                                            }
+                                        }
 
-                                            // If no profiles remain, proceed to create a new player.
-                                            if (existingPlayers.isEmpty()) {
-                                                System.out.println("No player profiles remaining. Creating new player...");
-                                                playerSelected = true;
+                                        if (confirmed) {
+                                            // Drop any pending write and wait out one in progress, so it cannot bring the file back.
+                                            SaveService.shared().discard(playerToDelete);
+                                            SaveService.shared().flush();
+                                            boolean deleted = JsonSaveSystem.deletePlayerSave(playerToDelete);
+                                            release(deleteLock);
+                                            if (deleted) {
+                                                out.println("Player profile '" + playerToDelete + "' has been deleted successfully.");
+
+                                                // Refresh player list after deletion.
+                                                existingPlayers = JsonSaveSystem.getExistingPlayers();
+
+                                                // If no profiles remain, proceed to create a new player.
+                                                if (existingPlayers.isEmpty()) {
+                                                    out.println("No player profiles remaining. Creating new player...");
+                                                    playerSelected = true;
+                                                }
+                                            } else {
+                                                out.println("Failed to delete player profile '" + playerToDelete + "'.");
                                             }
                                         } else {
-                                            System.out.println("Failed to delete player profile '" + playerToDelete + "'.");
+                                            out.println("Deletion cancelled.");
                                         }
+                                    } else if (deleteChoice == existingPlayers.size() + 1) {
+                                        out.println("Deletion cancelled.");
                                     } else {
-                                        System.out.println("Deletion cancelled.");
+                                        out.println("Invalid selection. Deletion cancelled.");
                                     }
-                                } else if (deleteChoice == existingPlayers.size() + 1) {
-                                    System.out.println("Deletion cancelled.");
-                                } else {
-                                    System.out.println("Invalid selection. Deletion cancelled.");
+                                } catch (NumberFormatException e) {
+                                    out.println("Invalid input. Deletion cancelled.");
                                 }
-                            } catch (NumberFormatException e) {
-                                System.out.println("Invalid input. Deletion cancelled.");
+                            // Return to the main menu to create a new player profile.
+                            } else if (playerChoice == existingPlayers.size() + 2) {
+                                out.println("Going back to create new player...");
+                                playerSelected = true;
+
+                            // Invalid selection handling.
+                            } else {
+                                out.println("Invalid selection. Please try again.");
                             }
-                        // Return to the main menu to create a new player profile.
-                        } else if (playerChoice == existingPlayers.size() + 2) {
-                            System.out.println("Going back to create new player...");
-                            playerSelected = true;
-
-                        // Invalid selection handling.
-                        } else {
-                            System.out.println("Invalid selection. Please try again.");
+                        } catch (NumberFormatException e) {
+                            out.println("Invalid input. Please try again.");
                         }
-                    } catch (NumberFormatException e) {
-                        System.out.println("Invalid input. Please try again.");
                     }
                 }
+            } else if (!mainChoice.equals("1")) {
+                out.println("Invalid choice. Creating new player...");
             }
-        } else if (!mainChoice.equals("1")) {
-            System.out.println("Invalid choice. Creating new player...");
-        }
 
-        // Create a new player profile if none was loaded.
-        if (player == null) {
-            System.out.println("\n--- Create New Player ---");
+            // Create a new player profile if none was loaded.
+            if (player == null) {
+                out.println("\n--- Create New Player ---");
 
-            // Refresh player list in case profiles were deleted earlier.
-            existingPlayers = JsonSaveSystem.getExistingPlayers();
+                // Refresh player list in case profiles were deleted earlier.
+                existingPlayers = JsonSaveSystem.getExistingPlayers();
 
-            String name;
-            do {
-                System.out.print("Enter your trainer name: ");
-                name = scanner.nextLine().trim();
+                String name;
+                do {
+                    out.print("Enter your trainer name: ");
+                    name = scanner.nextLine().trim();
 
-                if (name.isEmpty()) {
-                    System.out.println("Name cannot be empty. Please try again.");
-                    continue;
-                }
+                    if (name.isEmpty()) {
+                        out.println("Name cannot be empty. Please try again.");
+                        continue;
+                    }
 
-                // Prevent duplicate trainer names.
-                if (existingPlayers.contains(name)) {
-                    System.out.println("Trainer name '" + name + "' already exists. Please choose a different name.");
-                    continue;
-                }
+                    // Prevent duplicate trainer names.
+                    if (existingPlayers.contains(name)) {
+                        out.println("Trainer name '" + name + "' already exists. Please choose a different name.");
+                        continue;
+                    }
 
-                break;
-            } while (true);
+                    // Claim the name, so another session cannot create the same profile at the same time.
+                    try {
+                        profileLock = PlayerJournal.ProfileLock.acquire(name);
+                    } catch (IllegalStateException e) {
+                        out.println("Trainer name '" + name + "' is being used in another session. Please choose a different name.");
+                        continue;
+                    } catch (IOException e) {
+                        out.println("Could not lock " + name + " (" + e.getMessage() + "); creating it anyway.");
+                    }
 
-            // Create player profile and assign a starter Pokémon.
-            player = new Player(name);
-            System.out.println("Welcome, Trainer " + name + "!");
-            Pokemon starter = createStarterPokemon();
-            player.setPokemon(starter);
-            System.out.println("You've been given a starter Pokémon: " + starter.getName() + " (ID " + starter.getId() + ").");
-            JsonSaveSystem.saveGame(player);
-        }
+                    break;
+                } while (true);
 
-        // Game start message and tips.
-        System.out.println("\nStarting your Pokémon adventure...");
-        System.out.println();
-        System.out.println("Tip: To play, choose option 1 (Go to Pokémon Center) from the in-game main menu, then insert \u00A5" + START_COST + " when prompted.");
-        System.out.println("You can also add funds any time from the main menu (option 5).");
-
-        // NOTE: Removed the mandatory startup deposit prompt — the player can deposit from main menu.
-        // The check to ensure at least START_COST is inserted occurs inside Game.pokemonCenter() via ensureInsertedStartCost().
-
-        // Assign starter to loaded players without Pokémon (edge case).
-        if (player.getPokemon() == null) {
-            Pokemon starter = createStarterPokemon();
-            player.setPokemon(starter);
-            System.out.println("No Pokémon found for this trainer. A starter Pokémon (" + starter.getName() + ") has been assigned.");
-            JsonSaveSystem.saveGame(player);
-        }
+                // Create player profile and assign a starter Pokémon.
+                player = new Player(name);
+                out.println("Welcome, Trainer " + name + "!");
+                Pokemon starter = createStarterPokemon();
+                player.setPokemon(starter);
+                out.println("You've been given a starter Pokémon: " + starter.getName() + " (ID " + starter.getId() + ").");
+                SaveService.shared().markDirty(player);
+            }
 
-        // Launch game
-        Game game = new Game(player);
-        game.startGame();
+            // Game start message and tips.
+            out.println("\nStarting your Pokémon adventure...");
+            out.println();
+            out.println("Tip: To play, choose option 1 (Go to Pokémon Center) from the in-game main menu, then insert \u00A5" + START_COST + " when prompted.");
+            out.println("You can also add funds any time from the main menu (option 5).");
+
+            // NOTE: Removed the mandatory startup deposit prompt — the player can deposit from main menu.
+            // The check to ensure at least START_COST is inserted occurs inside Game.pokemonCenter() via ensureInsertedStartCost().
+
+            // Assign starter to loaded players without Pokémon (edge case).
+            if (player.getPokemon() == null) {
+                Pokemon starter = createStarterPokemon();
+                player.setPokemon(starter);
+                out.println("No Pokémon found for this trainer. A starter Pokémon (" + starter.getName() + ") has been assigned.");
+                SaveService.shared().markDirty(player);
+            }
 
-        // Auto-save on exit
-        JsonSaveSystem.saveGame(player);
-        System.out.println("Your progress has been automatically saved!");
+            // Journal every change from here on, so each save costs the size of the change; earlier saves must be on disk first.
+            SaveService.shared().flush();
+            try {
+                // The journal takes over the profile lock and releases it when closed.
+                journal = PlayerJournal.attach(player, profileLock);
+            } catch (IOException e) {
+                out.println("Could not open the save journal (" + e.getMessage() + "); whole profiles will be saved instead.");
+            } catch (IllegalStateException e) {
+                // Only when the profile could not be locked up front, and another session has taken it since.
+                out.println(e.getMessage() + ". Goodbye.");
+                scanner.close();
+                return;
+            }
 
-        scanner.close();
-        System.out.println("Goodbye, Trainer " + player.getName() + "!");
+            // Launch game
+            Game game = new Game(player, new RandomSource(), io, Pokedex.shared());
+            game.startGame();
+
+            // Auto-save on exit: fold the journal into the save (or save the whole profile without one), then wait for the background writer
+            // so the message below is true.
+            boolean saved = true;
+            if (journal != null) {
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    // The journal still holds the changes and is replayed on the next load.
+                    saved = false;
+                }
+                journal = null;
+            } else {
+                SaveService.shared().markDirty(player);
+            }
+            if (SaveService.shared().flush() && saved) {
+                out.println("Your progress has been automatically saved!");
+            } else {
+                out.println("Your progress could not be saved.");
+            }
+            release(profileLock);
+            profileLock = null;
+
+            scanner.close();
+            out.println("Goodbye, Trainer " + player.getName() + "!");
+        } finally {
+            if (journal != null) close(journal);
+            else release(profileLock);
+        }
+    }
+
+    // Closes the session's journal when the session ends early, folding in its changes and releasing the profile lock.
+    private static void close(PlayerJournal journal) {
+        try {
+            journal.close();
+        } catch (IOException e) {
+            // The journal still holds the changes and is replayed on the next load.
+            System.err.println("Failed to close a save journal: " + e.getMessage());
+        }
+    }
+
+    // Releases a profile lock taken by this session, if any.
+    private static void release(PlayerJournal.ProfileLock lock) {
+        if (lock == null) return;
+        try {
+            lock.close();
+        } catch (IOException e) {
+            System.err.println("Failed to release a profile lock: " + e.getMessage());
+        }
     }
 
     // Creates a default starter Pokémon (Pikachu) with sensible statistics and moves.
@@ -295,7 +422,7 @@ public class Main {
 
         // Add default moves.
         p.setMoves(new ArrayList<>());
-        p.addMove(new BasicAttack());
+        p.addMove(MoveRegistry.tackle());
 
         // Attempt to add a type-based move for Electric type.
         try {
@@ -308,7 +435,7 @@ public class Main {
                 try { t = Type.fromString(p.getTypes().get(0)); } catch (Exception ignored) {}
             }
             if (t != null) {
-                p.addMove(new TypeMove(t));
+                p.addMove(MoveRegistry.strike(t));
             }
         } catch (Throwable ignored) {
             // Ignore errors and proceed with BasicAttack only.
@@ -0,0 +1,267 @@
+// Imports for streaming the CSV, the checkpoint file, and fork-join parallelism.
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Batch job that computes the win-probability matrix of every Pokédex species against every other, for balance reviews.
+// Cell (i, j) is the rate at which species i, moving first, beats species j over the given number of trials. Rows are streamed
+// to a CSV file as they finish, and a checkpoint file beside it records how many rows are complete so an interrupted run can resume.
+public class MatchupMatrix {
+
+    // Number of matchups a single fork-join leaf runs before it stops splitting.
+    private static final int CELLS_PER_TASK = 4;
+
+    private final List<Pokedex.Entry> species;
+    private final List<Pokemon> fighters;
+    private final int trials;
+    private final long seed;
+    private final ForkJoinPool pool;
+
+    // Creates a matrix over every species of the Pokédex, building each fighter once the way wild encounters do.
+    public MatchupMatrix(Pokedex pokedex, int trials, long seed, ForkJoinPool pool) {
+        if (trials <= 0) throw new IllegalArgumentException("trials must be positive");
+        this.species = pokedex.entries();
+        this.fighters = new ArrayList<>(species.size());
+        for (Pokedex.Entry e : species) {
+            Pokemon p = pokedex.createPokemon(e);
+            Pokedex.ensureSomeMoves(p);
+            fighters.add(p);
+        }
+        this.trials = trials;
+        this.seed = seed;
+        this.pool = pool;
+    }
+
+    // Number of species (rows and columns).
+    public int size() {
+        return fighters.size();
+    }
+
+    // Computes one row of the matrix in parallel; the fighter templates are only read, never mutated.
+    // Trial t of cell (i, j) always uses the same random stream, so results do not depend on thread count or on where a run resumed.
+    public double[] computeRow(int row) {
+        double[] winRates = new double[size()];
+        pool.invoke(new RowTask(row, winRates, 0, winRates.length));
+        return winRates;
+    }
+
+    // Win rate of the row fighter against the column fighter.
+    private double computeCell(int row, int column, BattleEngine engine, RandomSource random) {
+        long cellSeed = RandomSource.streamSeed(seed, (long) row * size() + column);
+        Pokemon first = fighters.get(row);
+        Pokemon second = fighters.get(column);
+        SimulationStats stats = new SimulationStats();
+        for (int t = 0; t < trials; t++) {
+            random.reseed(RandomSource.streamSeed(cellSeed, t));
+            engine.fight(first, second, random, stats);
+        }
+        return stats.getFirstWinRate();
+    }
+
+    // Fork-join task that splits a row's columns in halves until few enough remain to run on one thread.
+    private class RowTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int row;
+        private final double[] out;
+        private final int from;
+        private final int to;
+
+        RowTask(int row, double[] out, int from, int to) {
+            this.row = row;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CELLS_PER_TASK) {
+                BattleEngine engine = new BattleEngine();
+                RandomSource random = new RandomSource(0);
+                for (int j = from; j < to; j++) out[j] = computeCell(row, j, engine, random);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RowTask(row, out, from, mid), new RowTask(row, out, mid, to));
+        }
+    }
+
+    // Writes the whole matrix to the CSV file, resuming after the last completed row when a matching checkpoint exists.
+    public void writeCsv(Path csv, String pokedexPath) throws IOException {
+        Path checkpoint = checkpointPath(csv);
+        int startRow = resumableRows(csv, checkpoint, pokedexPath);
+        if (startRow == 0) {
+            try (Writer w = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+                w.write(headerLine());
+            }
+            saveCheckpoint(checkpoint, pokedexPath, 0);
+        } else {
+            System.out.println("Resuming from row " + startRow + " of " + size() + ".");
+        }
+
+        for (int i = startRow; i < size(); i++) {
+            long start = System.nanoTime();
+            String line = rowLine(i, computeRow(i));
+            // Append and force the row before the checkpoint advances, so the checkpoint never counts a row the file lacks.
+            try (OutputStream out = Files.newOutputStream(csv, StandardOpenOption.APPEND, StandardOpenOption.SYNC)) {
+                out.write(line.getBytes(StandardCharsets.UTF_8));
+            }
+            saveCheckpoint(checkpoint, pokedexPath, i + 1);
+            System.out.printf("Row %d/%d (%s) done in %.2f s\n", i + 1, size(), species.get(i).name, (System.nanoTime() - start) / 1_000_000_000.0);
+        }
+    }
+
+    // Location of the checkpoint file that belongs to a CSV file.
+    public static Path checkpointPath(Path csv) {
+        return Paths.get(csv.toString() + ".checkpoint");
+    }
+
+    // Returns how many rows of an earlier run can be kept, trimming any partly written row from the CSV; 0 means start afresh.
+    private int resumableRows(Path csv, Path checkpoint, String pokedexPath) throws IOException {
+        if (!Files.exists(csv) || !Files.exists(checkpoint)) return 0;
+        Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(checkpoint)) {
+            props.load(in);
+        }
+        // The run must have been started with the same parameters and species list, otherwise its rows cannot be reused.
+        if (!String.valueOf(trials).equals(props.getProperty("trials"))
+                || !String.valueOf(seed).equals(props.getProperty("seed"))
+                || !String.valueOf(size()).equals(props.getProperty("species"))
+                || !pokedexPath.equals(props.getProperty("pokedex"))) {
+            System.out.println("Checkpoint does not match these settings - starting a new matrix.");
+            return 0;
+        }
+        int rows;
+        try {
+            rows = Integer.parseInt(props.getProperty("rowsCompleted", "0").trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+        if (rows <= 0 || rows > size()) return 0;
+
+        // Keep the header and the completed rows; anything after them was cut off mid-write.
+        byte[] expectedHeader = headerLine().getBytes(StandardCharsets.UTF_8);
+        try (RandomAccessFile file = new RandomAccessFile(csv.toFile(), "rw")) {
+            if (file.length() < expectedHeader.length) return 0;
+            byte[] header = new byte[expectedHeader.length];
+            file.readFully(header);
+            if (!Arrays.equals(header, expectedHeader)) return 0;
+            int lines = 0;
+            long pos = header.length;
+            byte[] buffer = new byte[8192];
+            while (lines < rows) {
+                file.seek(pos);
+                int read = file.read(buffer);
+                if (read <= 0) return 0;
+                for (int k = 0; k < read && lines < rows; k++) {
+                    pos++;
+                    if (buffer[k] == '\n') lines++;
+                }
+            }
+            file.setLength(pos);
+        }
+        return rows;
+    }
+
+    // Records progress in a temporary file first and then renames it, so a crash never leaves a half-written checkpoint.
+    private void saveCheckpoint(Path checkpoint, String pokedexPath, int rowsCompleted) throws IOException {
+        Properties props = new Properties();
+        props.setProperty("trials", String.valueOf(trials));
+        props.setProperty("seed", String.valueOf(seed));
+        props.setProperty("species", String.valueOf(size()));
+        props.setProperty("pokedex", pokedexPath);
+        props.setProperty("rowsCompleted", String.valueOf(rowsCompleted));
+        Path tmp = Paths.get(checkpoint.toString() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tmp)) {
+            props.store(out, "MatchupMatrix progress");
+        }
+        Files.move(tmp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Header row: an empty corner cell followed by one column per species.
+    private String headerLine() {
+        StringBuilder sb = new StringBuilder("species");
+        for (Pokedex.Entry e : species) sb.append(',').append(csvField(label(e)));
+        return sb.append('\n').toString();
+    }
+
+    // One data row: the species label followed by its win rate against every column.
+    private String rowLine(int row, double[] winRates) {
+        StringBuilder sb = new StringBuilder(csvField(label(species.get(row))));
+        for (double rate : winRates) sb.append(',').append(String.format(Locale.ROOT, "%.4f", rate));
+        return sb.append('\n').toString();
+    }
+
+    // Species label such as "Pikachu (25)", so species that share a name stay distinguishable.
+    private static String label(Pokedex.Entry e) {
+        return e.name + " (" + e.id + ")";
+    }
+
+    // Quotes a CSV field if it contains a separator or quote.
+    private static String csvField(String s) {
+        if (s.indexOf(',') == -1 && s.indexOf('"') == -1 && s.indexOf('\n') == -1) return s;
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+
+    // Command-line entry point. Usage: java MatchupMatrix [trials] [output.csv] [seed] [pokedex.json]
+    // Re-running with the same arguments continues an interrupted run; without a seed, the checkpoint's seed is reused.
+    public static void main(String[] args) {
+        int trials = 1000;
+        Path csv = Paths.get("matchups.csv");
+        Long seed = null;
+        String pokedexPath = Pokedex.DEFAULT_PATH;
+        try {
+            if (args.length > 0) trials = Integer.parseInt(args[0].trim());
+            if (args.length > 1) csv = Paths.get(args[1].trim());
+            if (args.length > 2) seed = Long.parseLong(args[2].trim());
+            if (args.length > 3) pokedexPath = args[3].trim();
+        } catch (NumberFormatException e) {
+            System.out.println("Usage: java MatchupMatrix [trials] [output.csv] [seed] [pokedex.json]");
+            return;
+        }
+
+        try {
+            if (seed == null) seed = checkpointSeed(checkpointPath(csv));
+            if (seed == null) seed = new RandomSource().nextLong();
+
+            MatchupMatrix matrix = new MatchupMatrix(Pokedex.load(pokedexPath), trials, seed, ForkJoinPool.commonPool());
+            System.out.println("=== " + matrix.size() + " x " + matrix.size() + " matchups, " + trials + " trials each (seed " + seed + ") ===");
+            long start = System.nanoTime();
+            matrix.writeCsv(csv, pokedexPath);
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            System.out.printf("Wrote %s in %.2f s\n", csv, seconds);
+        } catch (IOException e) {
+            System.out.println("Failed to write matchup matrix: " + e.getMessage());
+        }
+    }
+
+    // Seed recorded by an earlier run, or null if there is no readable checkpoint.
+    private static Long checkpointSeed(Path checkpoint) throws IOException {
+        if (!Files.exists(checkpoint)) return null;
+        Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(checkpoint)) {
+            props.load(in);
+        }
+        try {
+            return Long.parseLong(props.getProperty("seed", "").trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
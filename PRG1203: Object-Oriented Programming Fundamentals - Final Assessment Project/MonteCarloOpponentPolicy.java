@@ -0,0 +1,210 @@
+// Imports for the transposition cache and the parallel rollout workers.
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// Search-based opponent AI: Monte Carlo search over battle states with UCB1 move selection at the root.
+// Each rollout plays the chosen move and then finishes the battle with random moves on both sides; the move with the best mean result is used.
+// Rollouts are split across worker threads (root parallelisation), and finished searches are kept in a transposition cache keyed on the compact
+// battle state, so a position seen again (e.g. after a move that dealt no damage) starts from the earlier statistics.
+public class MonteCarloOpponentPolicy implements OpponentPolicy {
+
+    // Default per-turn budget: stop at whichever of the rollout count or the time limit is reached first.
+    public static final int DEFAULT_ROLLOUTS = 20_000;
+    public static final long DEFAULT_TIME_MILLIS = 40;
+
+    // UCB1 exploration constant; sqrt(2) suits results in the range [0, 1].
+    private static final double EXPLORATION = Math.sqrt(2.0);
+
+    // Number of rollouts between clock checks, so reading the clock stays cheap.
+    private static final int ROLLOUTS_PER_CLOCK_CHECK = 64;
+
+    // Maximum number of battle states remembered by the transposition cache.
+    private static final int CACHE_CAPACITY = 4096;
+
+    private final int rolloutBudget;
+    private final long timeBudgetNanos;
+    private final int workers;
+    private final ForkJoinPool pool;
+
+    // Search statistics per state, as {wins, visits} pairs per move; least recently used states are dropped first.
+    private final Map<Long, double[]> cache = new LinkedHashMap<Long, double[]>(256, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, double[]> eldest) {
+            return size() > CACHE_CAPACITY;
+        }
+    };
+
+    // The matchup the cached states belong to; the cache is cleared when a different pair of Pokémon is searched.
+    private Pokemon cachedSelf;
+    private Pokemon cachedFoe;
+
+    // Creates a policy with the default budget, using every core of the common pool.
+    public MonteCarloOpponentPolicy() {
+        this(DEFAULT_ROLLOUTS, DEFAULT_TIME_MILLIS);
+    }
+
+    // Creates a policy with the given rollout and time budget per turn; a time budget of 0 disables the time limit, making seeded searches reproducible.
+    public MonteCarloOpponentPolicy(int rolloutBudget, long timeBudgetMillis) {
+        this(rolloutBudget, timeBudgetMillis, ForkJoinPool.commonPool());
+    }
+
+    // Creates a policy that runs its rollouts on the given pool, one worker per pool thread.
+    public MonteCarloOpponentPolicy(int rolloutBudget, long timeBudgetMillis, ForkJoinPool pool) {
+        if (rolloutBudget <= 0) throw new IllegalArgumentException("rolloutBudget must be positive");
+        if (timeBudgetMillis < 0) throw new IllegalArgumentException("timeBudgetMillis must not be negative");
+        this.rolloutBudget = rolloutBudget;
+        this.timeBudgetNanos = timeBudgetMillis * 1_000_000L;
+        this.pool = pool;
+        this.workers = Math.max(1, Math.min(pool.getParallelism(), rolloutBudget));
+    }
+
+    // Searches the current position and returns the index of the move with the highest estimated win rate.
+    @Override
+    public synchronized int chooseMove(Pokemon self, Pokemon foe, RandomSource random) {
+        int moveCount = self.getMoves().size();
+        if (moveCount == 1) return 0;
+
+        if (self != cachedSelf || foe != cachedFoe) {
+            cache.clear();
+            cachedSelf = self;
+            cachedFoe = foe;
+        }
+        long key = stateKey(self.getHp(), foe.getHp());
+        double[] stats = cache.get(key);
+        if (stats == null || stats.length != moveCount * 2) stats = new double[moveCount * 2];
+
+        // Each worker gets its own random stream and share of the budget, and starts from the cached statistics.
+        long deadline = timeBudgetNanos == 0 ? Long.MAX_VALUE : System.nanoTime() + timeBudgetNanos;
+        List<Callable<double[]>> tasks = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            int rollouts = rolloutBudget / workers + (w < rolloutBudget % workers ? 1 : 0);
+            tasks.add(new RolloutWorker(self, foe, stats, rollouts, deadline, random.split()));
+        }
+
+        double[] merged = stats.clone();
+        try {
+            for (Future<double[]> result : pool.invokeAll(tasks)) {
+                double[] delta = result.get();
+                for (int i = 0; i < merged.length; i++) merged[i] += delta[i];
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Opponent search failed", e.getCause());
+        }
+        cache.put(key, merged);
+        return bestMove(merged);
+    }
+
+    // Packs both health point values into one cache key; stats and moves are fixed for the cached matchup, so the health points identify the state.
+    private static long stateKey(int selfHp, int foeHp) {
+        return ((long) selfHp << 32) | (foeHp & 0xFFFFFFFFL);
+    }
+
+    // Index of the move with the highest mean result among those searched.
+    private static int bestMove(double[] stats) {
+        int best = 0;
+        double bestMean = -1.0;
+        for (int m = 0; m < stats.length / 2; m++) {
+            double visits = stats[2 * m + 1];
+            if (visits == 0) continue;
+            double mean = stats[2 * m] / visits;
+            if (mean > bestMean) {
+                bestMean = mean;
+                best = m;
+            }
+        }
+        return best;
+    }
+
+    // Runs one worker's share of the rollouts on private copies of both fighters and returns the statistics it added.
+    private static class RolloutWorker implements Callable<double[]> {
+        private final Pokemon self;
+        private final Pokemon foe;
+        private final double[] prior;
+        private final int rollouts;
+        private final long deadline;
+        private final RandomSource random;
+
+        RolloutWorker(Pokemon self, Pokemon foe, double[] prior, int rollouts, long deadline, RandomSource random) {
+            this.self = self;
+            this.foe = foe;
+            this.prior = prior;
+            this.rollouts = rollouts;
+            this.deadline = deadline;
+            this.random = random;
+        }
+
+        @Override
+        public double[] call() {
+            Pokemon a = BattleEngine.copyForBattle(self);
+            Pokemon b = BattleEngine.copyForBattle(foe);
+            int selfHp = self.getHp();
+            int foeHp = foe.getHp();
+            int moveCount = prior.length / 2;
+            double[] delta = new double[prior.length];
+            double totalVisits = 0;
+            for (int m = 0; m < moveCount; m++) totalVisits += prior[2 * m + 1];
+
+            for (int r = 0; r < rollouts; r++) {
+                if (r % ROLLOUTS_PER_CLOCK_CHECK == 0 && r >= moveCount && System.nanoTime() > deadline) break;
+                int m = selectMove(delta, totalVisits);
+                a.setHp(selfHp);
+                b.setHp(foeHp);
+                delta[2 * m] += rollout(a, b, m);
+                delta[2 * m + 1]++;
+                totalVisits++;
+            }
+            return delta;
+        }
+
+        // UCB1 over the prior plus this worker's own results; unvisited moves are tried first.
+        private int selectMove(double[] delta, double totalVisits) {
+            int best = 0;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            double logTotal = Math.log(Math.max(1.0, totalVisits));
+            for (int m = 0; m < prior.length / 2; m++) {
+                double visits = prior[2 * m + 1] + delta[2 * m + 1];
+                if (visits == 0) return m;
+                double score = (prior[2 * m] + delta[2 * m]) / visits + EXPLORATION * Math.sqrt(logTotal / visits);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = m;
+                }
+            }
+            return best;
+        }
+
+        // Plays the chosen move, then random moves for both sides in Battle's turn order; returns 1 for a win, 0 for a loss, 0.5 for a draw.
+        private double rollout(Pokemon a, Pokemon b, int firstMove) {
+            a.getMoves().get(firstMove).execute(a, b, BattleListener.NONE, random);
+            for (int turn = 0; turn < BattleEngine.MAX_TURNS; turn++) {
+                if (b.isFainted()) return a.isFainted() ? 0.5 : 1.0;
+                if (a.isFainted()) return 0.0;
+                useRandomMove(b, a);
+                if (a.isFainted()) return b.isFainted() ? 0.5 : 0.0;
+                if (b.isFainted()) return 1.0;
+                useRandomMove(a, b);
+            }
+            return 0.5;
+        }
+
+        // Executes a uniformly random move, or Struggle when the attacker has none.
+        private void useRandomMove(Pokemon attacker, Pokemon target) {
+            List<Move> moves = attacker.getMoves();
+            if (moves == null || moves.isEmpty()) {
+                Struggle.INSTANCE.execute(attacker, target, BattleListener.NONE, random);
+                return;
+            }
+            moves.get(random.nextInt(moves.size())).execute(attacker, target, BattleListener.NONE, random);
+        }
+    }
+}
@@ -1,5 +1,10 @@
 // Represents a Pokémon move that can be executed in battle.
 public interface Move {
     String name(); // Returns the name of the move.
-    int execute(Pokemon user, Pokemon target); // Executes the move using the given user and target Pokémon, returning the damage dealt.
+    int execute(Pokemon user, Pokemon target, BattleListener events, RandomSource random); // Executes the move using the given user and target Pokémon, drawing rolls from the given random source and reporting to the listener; returns the damage dealt.
+
+    // Executes the move with this thread's unseeded random source and renders it to the console, as interactive battles do.
+    default int execute(Pokemon user, Pokemon target) {
+        return execute(user, target, ConsoleBattleListener.INSTANCE, RandomSource.current());
+    }
 }
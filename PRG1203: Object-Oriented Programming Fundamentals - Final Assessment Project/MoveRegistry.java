@@ -0,0 +1,161 @@
+// Imports for reading the move data file and building the lookup tables.
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Catalog of every move in the game, loaded once from moves.json. Each move is a single shared, immutable instance (flyweight) found by name in O(1).
+// Ids are stable positions in the catalog: Tackle is 0, the generic "<Type> Strike" moves follow in Type order, then the data file entries in file order.
+public final class MoveRegistry {
+
+    // Candidate locations of the move data file, matching where Game looks for pokemon.json.
+    private static final String[] DATA_FILES = {"pokemon/moves.json", "moves.json"};
+
+    private static final String STRIKE_SUFFIX = " strike";
+
+    private MoveRegistry() {
+    }
+
+    // Lazily built catalog; the holder idiom makes the one-time load thread-safe without locking on lookups.
+    private static final class Catalog {
+        static final List<Move> byId = new ArrayList<>();
+        static final Map<String, Move> byName = new HashMap<>();
+        static final Map<Move, Integer> ids = new IdentityHashMap<>();
+        static final Move[] strikes = new Move[Type.values().length];
+        static final Move tackle = new BasicAttack();
+
+        static {
+            register(tackle);
+            for (Type t : Type.values()) {
+                strikes[t.ordinal()] = new TypeMove(t);
+                register(strikes[t.ordinal()]);
+            }
+            loadDataFile();
+        }
+
+        // Adds a move unless one with the same name already exists.
+        static void register(Move move) {
+            String key = key(move.name());
+            if (byName.containsKey(key)) return;
+            ids.put(move, byId.size());
+            byId.add(move);
+            byName.put(key, move);
+        }
+
+        // Reads the named moves from the first data file found; without one, only Tackle and the Strike moves exist.
+        static void loadDataFile() {
+            for (String file : DATA_FILES) {
+                Path path = Paths.get(file);
+                if (!Files.exists(path)) continue;
+                try {
+                    String raw = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+                    for (String obj : raw.split("\\{")) {
+                        if (!obj.contains("\"name\"")) continue;
+                        String name = extractString(obj, "\"name\"");
+                        if (name.isEmpty()) continue;
+                        Type type = Type.fromString(extractString(obj, "\"type\""));
+                        double power = extractDouble(obj, "\"power\"", TypeMove.DEFAULT_POWER);
+                        register(new TypeMove(name, type, power));
+                    }
+                } catch (IOException e) {
+                    System.err.println("Failed to read move data from " + file + ": " + e.getMessage());
+                }
+                return;
+            }
+        }
+    }
+
+    // Returns the registered move with this name (case-insensitive), or null if there is none.
+    public static Move get(String name) {
+        if (name == null) return null;
+        return Catalog.byName.get(key(name));
+    }
+
+    // Resolves a saved or Pokédex move name: registered names map to their move, other "<Type> Strike" spellings to that type's Strike, and anything else to Tackle.
+    public static Move resolve(String name) {
+        if (name == null || name.trim().isEmpty()) return null;
+        Move move = get(name);
+        if (move != null) return move;
+        String trimmed = name.trim();
+        if (trimmed.toLowerCase(Locale.ROOT).endsWith(STRIKE_SUFFIX)) {
+            return strike(Type.fromString(trimmed, 0, trimmed.length() - STRIKE_SUFFIX.length()));
+        }
+        return tackle();
+    }
+
+    // Returns the shared Tackle move.
+    public static Move tackle() {
+        return Catalog.tackle;
+    }
+
+    // Returns the shared generic Strike move of the given type.
+    public static Move strike(Type type) {
+        return Catalog.strikes[(type == null ? Type.NORMAL : type).ordinal()];
+    }
+
+    // Returns the registered instance equivalent to the given move (itself if it is registered), or null for null.
+    public static Move canonical(Move move) {
+        if (move == null) return null;
+        if (Catalog.ids.containsKey(move)) return move;
+        return resolve(move.name());
+    }
+
+    // Returns the stable id of a registered move, or -1 if it is not registered.
+    public static int idOf(Move move) {
+        Integer id = move == null ? null : Catalog.ids.get(move);
+        return id == null ? -1 : id;
+    }
+
+    // Returns the move with the given id, or null if the id is out of range.
+    public static Move byId(int id) {
+        return id >= 0 && id < Catalog.byId.size() ? Catalog.byId.get(id) : null;
+    }
+
+    // Number of registered moves.
+    public static int size() {
+        return Catalog.byId.size();
+    }
+
+    // All registered moves in id order.
+    public static List<Move> all() {
+        return Collections.unmodifiableList(Catalog.byId);
+    }
+
+    // Normalises a move name for lookup.
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Extracts a string value from a JSON fragment given a key.
+    private static String extractString(String frag, String key) {
+        int idx = frag.indexOf(key + ":");
+        if (idx == -1) return "";
+        idx = frag.indexOf("\"", idx + key.length() + 1);
+        if (idx == -1) return "";
+        int end = frag.indexOf("\"", idx + 1);
+        if (end == -1) return "";
+        return frag.substring(idx + 1, end);
+    }
+
+    // Extracts a decimal value from a JSON fragment given a key, or returns the fallback.
+    private static double extractDouble(String frag, String key, double fallback) {
+        int idx = frag.indexOf(key + ":");
+        if (idx == -1) return fallback;
+        int start = idx + key.length() + 1;
+        int end = start;
+        while (end < frag.length() && ",}\n".indexOf(frag.charAt(end)) == -1) end++;
+        try {
+            return Double.parseDouble(frag.substring(start, end).trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+}
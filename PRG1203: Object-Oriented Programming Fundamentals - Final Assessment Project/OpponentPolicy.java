@@ -0,0 +1,9 @@
+// Decides which move a computer-controlled Pokémon uses on its turn; Battle asks its policy once per opponent turn.
+public interface OpponentPolicy {
+
+    // Policy that picks uniformly at random, as wild Pokémon always have; it draws exactly one number, so seeded battles replay unchanged.
+    OpponentPolicy RANDOM = (self, foe, random) -> random.nextInt(self.getMoves().size());
+
+    // Returns the index into self.getMoves() of the move to use. self always has at least one move, and neither Pokémon may be mutated.
+    int chooseMove(Pokemon self, Pokemon foe, RandomSource random);
+}
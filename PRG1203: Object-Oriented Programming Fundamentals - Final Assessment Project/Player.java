@@ -1,4 +1,5 @@
-// Imports for serialisation support and list collection utilities.
+// Imports for serialisation support, printing stats, and list collection utilities.
+import java.io.PrintStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
@@ -12,6 +13,10 @@ public class Player implements Serializable {
     private int battlesWon;
     private int battlesLost;
     private int yen;
+    // Last journal record reflected in this state (0 if none); saved with the snapshot so replay skips what it already holds.
+    private long journalSequence;
+    // Journal receiving every change as it is made, or null; not saved.
+    private transient PlayerJournal journal;
 
     // Creates a new player with an empty collection, zero stats, and no yen.
     public Player(String name) {
@@ -34,34 +39,43 @@ public class Player implements Serializable {
     }
 
     // Sets or replaces the active Pokémon (index 0); adds it if the collection is empty.
-    public void setPokemon(Pokemon pokemon) {
+    public synchronized void setPokemon(Pokemon pokemon) {
         if (pokemon == null) return;
         if (pokemons == null) pokemons = new ArrayList<>();
-        if (pokemons.isEmpty()) pokemons.add(pokemon);
-        else pokemons.set(0, pokemon);
+        if (pokemons.isEmpty()) {
+            pokemons.add(pokemon);
+            if (journal != null) journal.pokemonAdded(pokemon);
+        } else {
+            pokemons.set(0, pokemon);
+            if (journal != null) journal.pokemonSet(0, pokemon);
+        }
     }
 
-    // Collection accessors.
+    // Collection accessors. Changes made directly to the returned list bypass the journal; use the methods below instead.
     public List<Pokemon> getPokemons() {
         if (pokemons == null) pokemons = new ArrayList<>();
         return pokemons;
     }
 
-    public void setPokemons(List<Pokemon> pokemons) {
+    public synchronized void setPokemons(List<Pokemon> pokemons) {
         this.pokemons = pokemons == null ? new ArrayList<>() : pokemons;
+        if (journal != null) journal.pokemonsSet(this.pokemons);
     }
 
     // Adds a Pokémon to the collection (appended to the end).
-    public void addPokemon(Pokemon p) {
+    public synchronized void addPokemon(Pokemon p) {
         if (p == null) return;
         if (pokemons == null) pokemons = new ArrayList<>();
         pokemons.add(p);
+        if (journal != null) journal.pokemonAdded(p);
     }
 
     // Removes a Pokémon by index; returns the removed Pokémon or null if invalid.
-    public Pokemon removePokemon(int index) {
+    public synchronized Pokemon removePokemon(int index) {
         if (pokemons == null || index < 0 || index >= pokemons.size()) return null;
-        return pokemons.remove(index);
+        Pokemon removed = pokemons.remove(index);
+        if (journal != null) journal.pokemonRemoved(index);
+        return removed;
     }
 
     // Duplicate detection helpers: Returns true if the collection contains an equivalent Pokémon. 
@@ -86,24 +100,26 @@ public class Player implements Serializable {
         return battlesWon;
     }
 
-    public void setBattlesWon(int battlesWon) {
+    public synchronized void setBattlesWon(int battlesWon) {
         this.battlesWon = battlesWon;
+        if (journal != null) journal.battlesWonSet(battlesWon);
     }
 
     public int getBattlesLost() {
         return battlesLost;
     }
 
-    public void setBattlesLost(int battlesLost) {
+    public synchronized void setBattlesLost(int battlesLost) {
         this.battlesLost = battlesLost;
+        if (journal != null) journal.battlesLostSet(battlesLost);
     }
 
-    public void incrementBattlesWon() {
-        this.battlesWon++;
+    public synchronized void incrementBattlesWon() {
+        setBattlesWon(battlesWon + 1);
     }
 
-    public void incrementBattlesLost() {
-        this.battlesLost++;
+    public synchronized void incrementBattlesLost() {
+        setBattlesLost(battlesLost + 1);
     }
 
     // Yen management.
@@ -111,34 +127,57 @@ public class Player implements Serializable {
         return this.yen;
     }
 
-    public void setYen(int yen) {
+    public synchronized void setYen(int yen) {
         this.yen = yen;
+        if (journal != null) journal.yenSet(yen);
     }
 
     public synchronized void addYen(int amount) {
-        if (amount > 0) this.yen += amount;
+        if (amount > 0) setYen(this.yen + amount);
     }
 
     // Attempts to spend yen; returns true if successful.
     public synchronized boolean spendYen(int amount) {
         if (amount <= 0) return false;
         if (this.yen >= amount) {
-            this.yen -= amount;
+            setYen(this.yen - amount);
             return true;
         }
         return false;
     }
 
+    // Journal bookkeeping, used by PlayerJournal and the save formats.
+    long getJournalSequence() {
+        return journalSequence;
+    }
+
+    void setJournalSequence(long journalSequence) {
+        this.journalSequence = journalSequence;
+    }
+
+    synchronized PlayerJournal getJournal() {
+        return journal;
+    }
+
+    synchronized void setJournal(PlayerJournal journal) {
+        this.journal = journal;
+    }
+
     // Console Display: Prints the player's stats and balance to the console.
     public void displayStats() {
-        System.out.println("=== Trainer Stats ===");
-        System.out.println("Name: " + name);
-        System.out.println("Battles Won: " + battlesWon);
-        System.out.println("Battles Lost: " + battlesLost);
+        displayStats(System.out);
+    }
+
+    // Prints the player's stats and balance to the given stream, e.g. a hosted session's output.
+    public void displayStats(PrintStream out) {
+        out.println("=== Trainer Stats ===");
+        out.println("Name: " + name);
+        out.println("Battles Won: " + battlesWon);
+        out.println("Battles Lost: " + battlesLost);
         if (battlesWon + battlesLost > 0) {
             double winRate = (double) battlesWon / (battlesWon + battlesLost) * 100;
-            System.out.printf("Win Rate: %.1f%%\n", winRate);
+            out.printf("Win Rate: %.1f%%\n", winRate);
         }
-        System.out.println("Balance: ¥" + this.yen);
+        out.println("Balance: ¥" + this.yen);
     }
 }
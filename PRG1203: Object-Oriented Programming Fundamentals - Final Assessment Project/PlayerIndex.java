@@ -0,0 +1,468 @@
+// Imports for reading, appending to and rewriting the index file, checking modified times, and parsing changed saves in parallel.
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
+// Index of the save directory kept in one file beside the saves: for every save file, the player's name, the file's modified time, and a
+// won/lost/yen summary, so listing profiles reads one file instead of parsing every save. JsonSaveSystem updates it on each save and delete.
+// Before use it is checked by modified time: the directory is listed and only saves that are new or whose modified time changed are parsed
+// again, in parallel; after that, while the save directory's own time is unchanged, no save was added, replaced or removed and the listing
+// is skipped. The file holds one entry per line: a save or delete appends a line (a later line for the same file replaces an earlier one,
+// and a deleted save gets a "deleted" line), so a save's cost does not grow with the number of profiles, and the file is rewritten in full
+// only once superseded lines outnumber current ones. The index is only a cache, so it is written without an fsync and rebuilt from the
+// saves whenever it is missing or unreadable; a line cut short by a crash is ignored.
+public final class PlayerIndex {
+
+    // Index file name; it ends in neither ".json" nor ".sav", so it is never mistaken for a save.
+    public static final String INDEX_FILE_NAME = "players.index";
+    private static final int FORMAT_VERSION = 2;
+    // Superseded lines always allowed before the file is rewritten, so small indexes are not rewritten on every other save.
+    private static final int MIN_STALE_LINES = 64;
+    // Saves parsed by one fork-join task before it stops splitting.
+    private static final int SAVES_PER_TASK = 16;
+
+    // One save file's entry.
+    public static final class Entry {
+        private final String fileName;
+        private final String playerName;
+        private final long modified;
+        private final int battlesWon;
+        private final int battlesLost;
+        private final int yen;
+
+        Entry(String fileName, String playerName, long modified, int battlesWon, int battlesLost, int yen) {
+            this.fileName = fileName;
+            this.playerName = playerName;
+            this.modified = modified;
+            this.battlesWon = battlesWon;
+            this.battlesLost = battlesLost;
+            this.yen = yen;
+        }
+
+        public String getFileName() { return fileName; }
+        // Empty for a save that could not be read; such entries are kept so the file is not parsed again until it changes.
+        public String getPlayerName() { return playerName; }
+        // Save file's modified time, in nanoseconds since the epoch.
+        public long getModified() { return modified; }
+        public int getBattlesWon() { return battlesWon; }
+        public int getBattlesLost() { return battlesLost; }
+        public int getYen() { return yen; }
+
+        @Override
+        public String toString() {
+            return playerName + " (" + fileName + "): won " + battlesWon + ", lost " + battlesLost + ", " + Main.fmtYen(yen);
+        }
+    }
+
+    private final Path directory;
+    private final Path indexFile;
+
+    // Entries by save file name; guarded by this.
+    private final Map<String, Entry> entries = new HashMap<>();
+    // Save directory's modified time when the entries were last known to match it, or -1 if they must be checked.
+    private long directoryModified = -1;
+    private boolean loaded;
+    // Entry and deletion lines in the index file, current or superseded, and whether its last line was cut short and must not be appended to.
+    private int fileLines;
+    private boolean torn;
+
+    // Creates an index over the given save directory.
+    public PlayerIndex(Path directory) {
+        if (directory == null) throw new IllegalArgumentException("directory must not be null");
+        this.directory = directory;
+        this.indexFile = directory.resolve(INDEX_FILE_NAME);
+    }
+
+    // Index of the game's save directory, shared by every session in this JVM.
+    public static PlayerIndex shared() {
+        return Shared.INSTANCE;
+    }
+
+    // Every readable save's entry, sorted by player name.
+    public synchronized List<Entry> entries() {
+        refresh();
+        List<Entry> list = new ArrayList<>(entries.size());
+        for (Entry e : entries.values()) {
+            if (!e.playerName.isEmpty()) list.add(e);
+        }
+        list.sort(Comparator.comparing(Entry::getPlayerName));
+        return list;
+    }
+
+    // Distinct player names of every readable save, sorted.
+    public synchronized List<String> playerNames() {
+        refresh();
+        TreeSet<String> names = new TreeSet<>();
+        for (Entry e : entries.values()) {
+            if (!e.playerName.isEmpty()) names.add(e.playerName);
+        }
+        return new ArrayList<>(names);
+    }
+
+    // Entries keyed by player name, for showing a summary beside each profile.
+    public synchronized Map<String, Entry> byPlayerName() {
+        Map<String, Entry> map = new LinkedHashMap<>();
+        for (Entry e : entries()) map.putIfAbsent(e.playerName, e);
+        return map;
+    }
+
+    // Save directory's modified time now; JsonSaveSystem takes it just before changing a save and passes it to recordSave or recordDelete.
+    long directoryTime() {
+        return modifiedTime(directory);
+    }
+
+    // Records a save just written to the given file with the values that went into it; directoryBefore is the directory's time before the write.
+    synchronized void recordSave(Path saveFile, long directoryBefore, String playerName, int battlesWon, int battlesLost, int yen) {
+        if (!loaded) {
+            load();
+            loaded = true;
+        }
+        long modified = modifiedTime(saveFile);
+        if (modified < 0) return;
+        String fileName = saveFile.getFileName().toString();
+        Entry e = new Entry(fileName, playerName == null ? "" : playerName, modified, battlesWon, battlesLost, yen);
+        entries.put(fileName, e);
+        append(fileName, e, afterOwnChange(directoryBefore));
+    }
+
+    // Records a new won/lost/yen summary for a save that has not changed itself, e.g. one whose player journals changes since it was written;
+    // the entry keeps the file's modified time, so it stays valid until the save is rewritten. A save not in the index is left to the next refresh.
+    synchronized void recordSummary(Path saveFile, String playerName, int battlesWon, int battlesLost, int yen) {
+        if (!loaded) {
+            load();
+            loaded = true;
+        }
+        String fileName = saveFile.getFileName().toString();
+        Entry e = entries.get(fileName);
+        if (e == null || (e.playerName.equals(playerName) && e.battlesWon == battlesWon && e.battlesLost == battlesLost && e.yen == yen)) return;
+        Entry updated = new Entry(fileName, playerName, e.modified, battlesWon, battlesLost, yen);
+        entries.put(fileName, updated);
+        append(fileName, updated, directoryModified);
+    }
+
+    // Records that a save file was deleted; directoryBefore is the directory's time before the delete.
+    synchronized void recordDelete(Path saveFile, long directoryBefore) {
+        if (!loaded) {
+            load();
+            loaded = true;
+        }
+        String fileName = saveFile.getFileName().toString();
+        if (entries.remove(fileName) == null) return;
+        append(fileName, null, afterOwnChange(directoryBefore));
+    }
+
+    // If the entries matched the directory before our own change, they match it now (plus that change); otherwise they need checking.
+    private long afterOwnChange(long directoryBefore) {
+        return directoryModified >= 0 && directoryModified == directoryBefore ? modifiedTime(directory) : -1;
+    }
+
+    // Discards the index and parses every save again.
+    public synchronized void rebuild() {
+        entries.clear();
+        directoryModified = -1;
+        loaded = true;
+        refresh();
+    }
+
+    // Brings the entries in line with the save directory, parsing only what changed.
+    private void refresh() {
+        if (!loaded) {
+            load();
+            loaded = true;
+        }
+        long dirModified = modifiedTime(directory);
+        if (dirModified < 0) {
+            // No save directory, so no saves.
+            entries.clear();
+            directoryModified = -1;
+            return;
+        }
+        if (dirModified == directoryModified) return;
+
+        // List the saves and keep every entry whose file is still there with the same modified time.
+        Map<String, Entry> kept = new HashMap<>();
+        List<Path> changed = new ArrayList<>();
+        List<Long> changedModified = new ArrayList<>();
+        try (DirectoryStream<Path> saves = Files.newDirectoryStream(directory, "*.{json,sav}")) {
+            for (Path path : saves) {
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                } catch (IOException e) {
+                    continue; // Deleted since it was listed.
+                }
+                if (!attributes.isRegularFile()) continue;
+                long modified = attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+                String fileName = path.getFileName().toString();
+                Entry e = entries.get(fileName);
+                if (e != null && e.modified == modified) {
+                    kept.put(fileName, e);
+                } else {
+                    changed.add(path);
+                    changedModified.add(modified);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to scan save directory: " + e.getMessage());
+            return;
+        }
+        boolean dirty = kept.size() != entries.size() || !changed.isEmpty();
+
+        // Parse the new and changed saves; only these cost a read.
+        if (!changed.isEmpty()) {
+            Entry[] parsed = new Entry[changed.size()];
+            ScanTask task = new ScanTask(changed, changedModified, parsed, 0, parsed.length);
+            if (parsed.length <= SAVES_PER_TASK) task.compute();
+            else ForkJoinPool.commonPool().invoke(task);
+            for (Entry e : parsed) kept.put(e.fileName, e);
+        }
+        entries.clear();
+        entries.putAll(kept);
+        if (dirty) store(dirModified);
+        else directoryModified = dirModified;
+    }
+
+    // Fork-join task that parses a range of saves, splitting in halves until few enough remain to read on one thread.
+    private static final class ScanTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Path> paths;
+        private final List<Long> modified;
+        private final Entry[] out;
+        private final int from;
+        private final int to;
+
+        ScanTask(List<Path> paths, List<Long> modified, Entry[] out, int from, int to) {
+            this.paths = paths;
+            this.modified = modified;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SAVES_PER_TASK) {
+                for (int i = from; i < to; i++) out[i] = parse(paths.get(i), modified.get(i));
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ScanTask(paths, modified, out, from, mid), new ScanTask(paths, modified, out, mid, to));
+        }
+    }
+
+    // Reads one save's summary, counting any journal records not yet folded into it; an unreadable save gets an entry with no player name.
+    private static Entry parse(Path path, long modified) {
+        String fileName = path.getFileName().toString();
+        try {
+            JsonSaveSystem.Summary s = JsonSaveSystem.readSummary(path);
+            if (PlayerJournal.hasRecords(s.playerName)) s = JsonSaveSystem.readJournalledSummary(path);
+            return new Entry(fileName, s.playerName, modified, s.battlesWon, s.battlesLost, s.yen);
+        } catch (IOException e) {
+            System.err.println("Failed to read player from " + path + ": " + e.getMessage());
+            return new Entry(fileName, "", modified, 0, 0, 0);
+        }
+    }
+
+    // Reads the index file, later lines replacing earlier ones; a missing or unreadable one leaves the entries empty, so the next refresh
+    // parses every save.
+    private void load() {
+        entries.clear();
+        directoryModified = -1;
+        fileLines = 0;
+        torn = false;
+        String text;
+        try {
+            text = new String(Files.readAllBytes(indexFile), Charset.defaultCharset());
+        } catch (NoSuchFileException e) {
+            return; // No index yet.
+        } catch (IOException e) {
+            System.err.println("Rebuilding player index: " + e.getMessage());
+            return;
+        }
+        String[] lines = text.split("\n", -1);
+        // Every complete line ends in a newline, so the last piece is empty unless a crash cut an append short.
+        int complete = lines.length - 1;
+        torn = !lines[complete].isEmpty();
+        try {
+            if (complete < 1 || readVersion(lines[0]) != FORMAT_VERSION) return;
+            // The entries are checked against the files on first use, so the directory's time is not trusted across runs.
+            for (int i = 1; i < complete; i++) {
+                if (lines[i].isEmpty()) continue;
+                String[] fileName = new String[1];
+                Entry e = readEntry(lines[i], fileName);
+                if (e == null) entries.remove(fileName[0]);
+                else entries.put(e.fileName, e);
+                fileLines++;
+            }
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            System.err.println("Rebuilding player index: " + e.getMessage());
+            entries.clear();
+            fileLines = 0;
+        }
+    }
+
+    private static int readVersion(String line) throws IOException {
+        int version = 0;
+        try (JsonReader json = new JsonReader(new StringReader(line))) {
+            json.beginObject();
+            while (json.hasNext()) {
+                if (json.nextName().equals("version")) version = json.nextInt();
+                else json.skipValue();
+            }
+            json.endObject();
+        }
+        return version;
+    }
+
+    // Reads one line's entry, or returns null for a deletion line; either way the line's file name is put in fileName[0].
+    private static Entry readEntry(String line, String[] fileName) throws IOException {
+        fileName[0] = "";
+        String playerName = "";
+        long modified = -1;
+        int won = 0;
+        int lost = 0;
+        int yen = 0;
+        boolean deleted = false;
+        try (JsonReader json = new JsonReader(new StringReader(line))) {
+            json.beginObject();
+            while (json.hasNext()) {
+                switch (json.nextName()) {
+                    case "file":
+                        fileName[0] = json.nextString();
+                        break;
+                    case "deleted":
+                        deleted = json.nextBoolean();
+                        break;
+                    case "playerName":
+                        playerName = json.nextString();
+                        break;
+                    case "modified":
+                        modified = Long.parseLong(json.nextString());
+                        break;
+                    case "battlesWon":
+                        won = json.nextInt();
+                        break;
+                    case "battlesLost":
+                        lost = json.nextInt();
+                        break;
+                    case "yen":
+                        yen = json.nextInt();
+                        break;
+                    default:
+                        json.skipValue();
+                }
+            }
+            json.endObject();
+        }
+        return deleted ? null : new Entry(fileName[0], playerName, modified, won, lost, yen);
+    }
+
+    // One index line for a save's entry, or for its deletion when e is null. Modified times are written as strings, as they do not fit an int.
+    private static void appendLine(StringBuilder out, String fileName, Entry e) {
+        out.append("{\"file\": \"").append(JsonSaveSystem.escapeJson(fileName)).append('"');
+        if (e == null) {
+            out.append(", \"deleted\": true}\n");
+            return;
+        }
+        out.append(", \"playerName\": \"").append(JsonSaveSystem.escapeJson(e.playerName))
+           .append("\", \"modified\": \"").append(e.modified)
+           .append("\", \"battlesWon\": ").append(e.battlesWon)
+           .append(", \"battlesLost\": ").append(e.battlesLost)
+           .append(", \"yen\": ").append(e.yen).append("}\n");
+    }
+
+    // Appends one save's entry (or its deletion, when e is null) to the index file, rewriting the file instead when it has no usable end
+    // or superseded lines have come to outnumber current ones. expected is as for store.
+    private void append(String fileName, Entry e, long expected) {
+        if (torn || fileLines - entries.size() >= Math.max(MIN_STALE_LINES, entries.size())) {
+            store(expected);
+            return;
+        }
+        StringBuilder line = new StringBuilder(160);
+        appendLine(line, fileName, e);
+        try {
+            long before = modifiedTime(directory);
+            // Appending changes only the index file, not the directory, so its time still matches the entries afterwards.
+            Files.write(indexFile, line.toString().getBytes(Charset.defaultCharset()), StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            fileLines++;
+            directoryModified = expected >= 0 && before == expected ? modifiedTime(directory) : -1;
+        } catch (NoSuchFileException ex) {
+            store(expected);
+        } catch (IOException ex) {
+            System.err.println("Failed to write player index: " + ex.getMessage());
+            directoryModified = -1;
+            torn = true;
+        }
+    }
+
+    // Rewrites the index file with one line per entry. The entries match the directory as of time expected (-1 if unknown); the index's own
+    // rename changes that time, so the time recorded is the one after the write, provided nothing else changed the directory in between.
+    private void store(long expected) {
+        List<Entry> list = new ArrayList<>(entries.values());
+        list.sort(Comparator.comparing(Entry::getFileName));
+        StringBuilder text = new StringBuilder(32 + list.size() * 128);
+        text.append("{\"version\": ").append(FORMAT_VERSION).append("}\n");
+        for (Entry e : list) appendLine(text, e.fileName, e);
+
+        try {
+            Files.createDirectories(directory);
+            long before = modifiedTime(directory);
+            JsonSaveSystem.writeAtomically(indexFile.toString(), text.toString(), false);
+            fileLines = list.size();
+            torn = false;
+            directoryModified = expected >= 0 && before == expected ? modifiedTime(directory) : -1;
+        } catch (IOException e) {
+            System.err.println("Failed to write player index: " + e.getMessage());
+            directoryModified = -1;
+        }
+    }
+
+    // File's modified time in nanoseconds since the epoch, or -1 if it does not exist.
+    private static long modifiedTime(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).to(TimeUnit.NANOSECONDS);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    // Index of the game's save directory, created on first use.
+    private static final class Shared {
+        static final PlayerIndex INSTANCE = new PlayerIndex(Paths.get(JsonSaveSystem.SAVE_DIRECTORY));
+    }
+
+    // Command-line entry point: lists every indexed profile with its summary, after rebuilding the index from the saves if asked.
+    // Usage: java PlayerIndex [rebuild]
+    public static void main(String[] args) {
+        PlayerIndex index = shared();
+        long start = System.nanoTime();
+        if (args.length > 0 && args[0].trim().equalsIgnoreCase("rebuild")) {
+            index.rebuild();
+        } else if (args.length > 0) {
+            System.out.println("Usage: java PlayerIndex [rebuild]");
+            return;
+        }
+        List<Entry> list = index.entries();
+        double millis = (System.nanoTime() - start) / 1_000_000.0;
+        for (Entry e : list) System.out.println(e);
+        System.out.printf("%d profiles in %.2f ms\n", list.size(), millis);
+    }
+}
@@ -0,0 +1,498 @@
+// Imports for the journal file, record checksums, and the background compactor thread.
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+
+// Append-only journal of one player's changes, kept beside the save as saves/<name>.journal. While attached, every Player change (yen,
+// battle record, a Pokémon added, replaced or removed) appends one small typed record, so saving costs the size of the change rather than
+// the whole collection. Records are numbered and the save stores the number of the last record it holds, so loading replays only newer
+// records; a record cut short by a crash fails its checksum and ends the replay. Once the journal passes a size threshold, a background
+// compactor writes a fresh save and keeps only the records appended while it was writing. A journal holds its profile's ProfileLock, so only one
+// session at a time can journal (or load and save) a profile.
+public final class PlayerJournal implements Closeable {
+
+    // Journal size (bytes) past which the compactor folds it into the save.
+    public static final long DEFAULT_COMPACT_BYTES = 32 * 1024;
+
+    private static final byte[] MAGIC = {(byte) 0x89, 'G', 'S', 'J'};
+    private static final byte VERSION = 1;
+    private static final int HEADER_LENGTH = MAGIC.length + 1;
+    private static final String JOURNAL_EXTENSION = ".journal";
+    private static final String LOCK_EXTENSION = ".lock";
+
+    // Record types.
+    private static final int YEN = 1;
+    private static final int BATTLES_WON = 2;
+    private static final int BATTLES_LOST = 3;
+    private static final int ADD_POKEMON = 4;
+    private static final int SET_POKEMON = 5;
+    private static final int REMOVE_POKEMON = 6;
+    private static final int SET_POKEMONS = 7;
+
+    private final Player player;
+    private final Path file;
+    private final long compactBytes;
+    private final ProfileLock lock;
+    // Held for a whole compaction, so compactions never overlap; taken before the player's lock, never after it.
+    private final Object compactLock = new Object();
+
+    // The fields below are guarded by the player's lock, which every journalled Player change already holds.
+    private FileChannel channel;
+    private long size;
+    private boolean compactionScheduled;
+    // Set when an append fails part-way, leaving bytes that replay would stop at; the next compaction then starts the journal afresh.
+    private boolean damaged;
+
+    private PlayerJournal(Player player, Path file, long compactBytes, ProfileLock lock) {
+        this.player = player;
+        this.file = file;
+        this.compactBytes = compactBytes;
+        this.lock = lock;
+    }
+
+    // Starts journalling the player's changes with the default compaction threshold, locking the profile first.
+    public static PlayerJournal attach(Player player) throws IOException {
+        return attach(player, DEFAULT_COMPACT_BYTES, null);
+    }
+
+    // Starts journalling the player's changes under a lock already taken on the profile (null to take it now); the journal releases the lock
+    // when it is closed. The player must hold its loaded state (JsonSaveSystem.loadGame replays any journal); a save is written first if there
+    // is none, and records left from an earlier run are folded into the save, so the journal starts empty. Throws IllegalStateException if
+    // another session holds the profile's lock.
+    public static PlayerJournal attach(Player player, ProfileLock lock) throws IOException {
+        return attach(player, DEFAULT_COMPACT_BYTES, lock);
+    }
+
+    // As above, with the given journal size (bytes) past which the compactor folds it into the save.
+    public static PlayerJournal attach(Player player, long compactBytes, ProfileLock lock) throws IOException {
+        if (player == null) throw new IllegalArgumentException("player must not be null");
+        if (compactBytes <= HEADER_LENGTH) throw new IllegalArgumentException("compactBytes must be larger than the journal header");
+        if (player.getJournal() != null) throw new IllegalStateException("player already has a journal");
+        if (lock != null && !lock.isFor(player.getName())) throw new IllegalArgumentException("lock is for a different profile");
+
+        ProfileLock held = lock != null ? lock : ProfileLock.acquire(player.getName());
+        PlayerJournal journal = new PlayerJournal(player, journalPath(player.getName()), compactBytes, held);
+        try {
+            if (!Files.exists(JsonSaveSystem.findSaveFile(player.getName()))) JsonSaveSystem.writeSave(player);
+            synchronized (player) {
+                journal.open();
+                player.setJournal(journal);
+            }
+        } catch (IOException | RuntimeException e) {
+            if (lock == null) held.close();
+            throw e;
+        }
+        if (journal.size > HEADER_LENGTH) journal.compact();
+        return journal;
+    }
+
+    // Journal file for the named player, next to the save file.
+    public static Path journalPath(String playerName) {
+        return besideSave(playerName, JOURNAL_EXTENSION);
+    }
+
+    private static Path besideSave(String playerName, String extension) {
+        String save = JsonSaveSystem.getPlayerFileName(playerName);
+        return Paths.get(save.substring(0, save.lastIndexOf('.')) + extension);
+    }
+
+    // Deletes the named player's journal, if any. The lock file is left in place: another session may have it open to try the lock.
+    static void delete(String playerName) throws IOException {
+        Files.deleteIfExists(journalPath(playerName));
+    }
+
+    // True if the named player's journal holds records not yet folded into the save.
+    static boolean hasRecords(String playerName) {
+        try {
+            return Files.size(journalPath(playerName)) > HEADER_LENGTH;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // Claims a profile for one session with an exclusive lock on saves/<name>.lock, so two sessions never load, journal and save the same
+    // player over each other. The journal itself is replaced on every compaction, which would drop a lock held on it, so the lock has a file
+    // of its own that is never replaced. Locks held in this JVM are also kept in a set and checked first: a second channel is never opened on
+    // a locked file, as closing it releases the JVM's lock on some platforms.
+    public static final class ProfileLock implements Closeable {
+        // Lock files held in this JVM; guarded by itself.
+        private static final Set<Path> HELD = new HashSet<>();
+
+        private final Path file;
+        // Null once released; guarded by this.
+        private FileChannel channel;
+
+        private ProfileLock(Path file, FileChannel channel) {
+            this.file = file;
+            this.channel = channel;
+        }
+
+        // Takes the named profile's lock, or throws IllegalStateException if another session (in this JVM or another process) holds it.
+        public static ProfileLock acquire(String playerName) throws IOException {
+            Path file = besideSave(playerName, LOCK_EXTENSION).toAbsolutePath().normalize();
+            synchronized (HELD) {
+                if (!HELD.add(file)) throw inUse(playerName);
+            }
+            FileChannel channel = null;
+            try {
+                Files.createDirectories(file.getParent());
+                channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                FileLock lock;
+                try {
+                    lock = channel.tryLock();
+                } catch (OverlappingFileLockException e) {
+                    lock = null;
+                }
+                if (lock == null) throw inUse(playerName);
+                return new ProfileLock(file, channel);
+            } catch (IOException | RuntimeException e) {
+                if (channel != null) channel.close();
+                synchronized (HELD) {
+                    HELD.remove(file);
+                }
+                throw e;
+            }
+        }
+
+        private static IllegalStateException inUse(String playerName) {
+            return new IllegalStateException("Trainer " + playerName + " is already being played in another session");
+        }
+
+        // True if this lock is for the named profile (names that share a save file share a lock).
+        boolean isFor(String playerName) {
+            return file.equals(besideSave(playerName, LOCK_EXTENSION).toAbsolutePath().normalize());
+        }
+
+        // Releases the lock; later calls do nothing.
+        @Override
+        public synchronized void close() throws IOException {
+            if (channel == null) return;
+            try {
+                channel.close();
+            } finally {
+                channel = null;
+                synchronized (HELD) {
+                    HELD.remove(file);
+                }
+            }
+        }
+    }
+
+    // Opens the journal for appending, writing the header into a new or empty file.
+    private void open() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        // Read access is for carrying records over in a compaction, which rules out APPEND; the profile lock makes this journal the file's
+        // only writer, so writing at the end of the file is the same.
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        size = channel.size();
+        channel.position(size);
+        if (size == 0) {
+            write(header());
+        } else if (size < HEADER_LENGTH || !hasHeader(Files.readAllBytes(file))) {
+            channel.close();
+            channel = null;
+            throw new IOException(file + " is not a player journal");
+        }
+    }
+
+    // Changes reported by Player, which calls these while holding its own lock, after the change is made.
+    void yenSet(int yen) {
+        BinarySaveCodec.Writer data = new BinarySaveCodec.Writer(8);
+        data.writeSignedVarInt(yen);
+        append(YEN, data);
+    }
+
+    void battlesWonSet(int battlesWon) {
+        BinarySaveCodec.Writer data = new BinarySaveCodec.Writer(8);
+        data.writeSignedVarInt(battlesWon);
+        append(BATTLES_WON, data);
+    }
+
+    void battlesLostSet(int battlesLost) {
+        BinarySaveCodec.Writer data = new BinarySaveCodec.Writer(8);
+        data.writeSignedVarInt(battlesLost);
+        append(BATTLES_LOST, data);
+    }
+
+    void pokemonAdded(Pokemon pokemon) {
+        BinarySaveCodec.Writer data = new BinarySaveCodec.Writer(48);
+        BinarySaveCodec.writeStandalonePokemon(data, pokemon);
+        append(ADD_POKEMON, data);
+    }
+
+    void pokemonSet(int index, Pokemon pokemon) {
+        BinarySaveCodec.Writer data = new BinarySaveCodec.Writer(48);
+        data.writeVarInt(index);
+        BinarySaveCodec.writeStandalonePokemon(data, pokemon);
+        append(SET_POKEMON, data);
+    }
+
+    void pokemonRemoved(int index) {
+        BinarySaveCodec.Writer data = new BinarySaveCodec.Writer(8);
+        data.writeVarInt(index);
+        append(REMOVE_POKEMON, data);
+    }
+
+    void pokemonsSet(List<Pokemon> pokemons) {
+        BinarySaveCodec.Writer data = new BinarySaveCodec.Writer(16 + pokemons.size() * 48);
+        data.writeVarInt(pokemons.size());
+        for (Pokemon p : pokemons) BinarySaveCodec.writeStandalonePokemon(data, p);
+        append(SET_POKEMONS, data);
+    }
+
+    // Appends one record (length, then sequence number, type and data, then a CRC-32 of those) and schedules a compaction past the threshold.
+    // A failed write is reported and left to a compaction, which saves the whole player.
+    private void append(int type, BinarySaveCodec.Writer data) {
+        if (channel == null) return;
+        long sequence = player.getJournalSequence() + 1;
+        BinarySaveCodec.Writer body = new BinarySaveCodec.Writer(data.size() + 12);
+        body.writeVarLong(sequence);
+        body.writeByte(type);
+        byte[] bodyBytes = data.toBytes();
+        body.writeBytes(bodyBytes, bodyBytes.length);
+        byte[] bytes = body.toBytes();
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+
+        BinarySaveCodec.Writer record = new BinarySaveCodec.Writer(bytes.length + 9);
+        record.writeVarInt(bytes.length);
+        record.writeBytes(bytes, bytes.length);
+        record.writeInt((int) crc.getValue());
+        player.setJournalSequence(sequence);
+        try {
+            write(record.toBytes());
+        } catch (IOException e) {
+            System.err.println("Failed to journal a change for " + player.getName() + ": " + e.getMessage());
+            damaged = true;
+        }
+        if ((size >= compactBytes || damaged) && !compactionScheduled) {
+            compactionScheduled = true;
+            Compactor.EXECUTOR.execute(this::compactInBackground);
+        }
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) channel.write(buffer);
+        size += bytes.length;
+    }
+
+    // Forces every record appended so far to disk; SaveService calls this where it would otherwise rewrite the whole save. The player index
+    // is then given the won/lost/yen those records add up to, so the profile list does not wait for the next compaction to show them.
+    public void sync() throws IOException {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            FileChannel current;
+            JsonSaveSystem.Summary summary;
+            synchronized (player) {
+                current = channel;
+                summary = new JsonSaveSystem.Summary(player.getName(), player.getBattlesWon(), player.getBattlesLost(), player.getYen());
+            }
+            if (current == null) return;
+            try {
+                current.force(false);
+                PlayerIndex.shared().recordSummary(JsonSaveSystem.findSaveFile(summary.playerName), summary.playerName,
+                        summary.battlesWon, summary.battlesLost, summary.yen);
+                return;
+            } catch (ClosedChannelException e) {
+                // A compaction replaced the file (and synced it) meanwhile; force its replacement instead.
+            }
+        }
+    }
+
+    // Journal size in bytes, header included.
+    public long size() {
+        synchronized (player) {
+            return size;
+        }
+    }
+
+    // Writes a fresh save holding every change so far, then shortens the journal to the records appended while the save was written.
+    public void compact() throws IOException {
+        synchronized (compactLock) {
+            boolean binary = BinarySaveCodec.isBinary(JsonSaveSystem.findSaveFile(player.getName()));
+            byte[] content;
+            JsonSaveSystem.Summary summary;
+            long position;
+            synchronized (player) {
+                compactionScheduled = false;
+                if (channel == null) return;
+                if (damaged) {
+                    // Nothing in the journal can be carried over, so save and start afresh without letting the game change anything between.
+                    JsonSaveSystem.writeSave(player, binary);
+                    restart(new byte[0], 0);
+                    damaged = false;
+                    return;
+                }
+                content = JsonSaveSystem.encode(player, binary);
+                summary = new JsonSaveSystem.Summary(player.getName(), player.getBattlesWon(), player.getBattlesLost(), player.getYen());
+                position = size;
+            }
+
+            // The game carries on meanwhile; its records keep going to the old journal and are carried over below.
+            JsonSaveSystem.writeEncoded(summary, content);
+
+            synchronized (player) {
+                if (channel == null || damaged) return;
+                ByteBuffer tail = ByteBuffer.allocate((int) (size - position));
+                while (tail.hasRemaining()) {
+                    if (channel.read(tail, position + tail.position()) < 0) break;
+                }
+                restart(tail.array(), tail.position());
+            }
+        }
+    }
+
+    // Replaces the journal with the header and the given records; called with the player's lock held.
+    private void restart(byte[] records, int length) throws IOException {
+        BinarySaveCodec.Writer rest = new BinarySaveCodec.Writer(HEADER_LENGTH + length);
+        byte[] header = header();
+        rest.writeBytes(header, header.length);
+        rest.writeBytes(records, length);
+        channel.close();
+        channel = null;
+        JsonSaveSystem.writeAtomically(file.toString(), rest.toBytes(), true);
+        open();
+    }
+
+    private void compactInBackground() {
+        try {
+            compact();
+        } catch (IOException e) {
+            System.err.println("Failed to compact the journal for " + player.getName() + ": " + e.getMessage());
+        }
+    }
+
+    // Folds any journalled changes into the save, then stops journalling and releases the profile lock; later changes are only saved by a
+    // full save.
+    @Override
+    public void close() throws IOException {
+        try {
+            if (size() > HEADER_LENGTH) compact();
+        } finally {
+            try {
+                synchronized (player) {
+                    if (player.getJournal() == this) player.setJournal(null);
+                    if (channel != null) {
+                        channel.force(false);
+                        channel.close();
+                        channel = null;
+                    }
+                }
+            } finally {
+                lock.close();
+            }
+        }
+    }
+
+    // Applies the records in the player's journal that are newer than the player's state; used by JsonSaveSystem.loadGame.
+    static void replay(Player player) throws IOException {
+        Path file = journalPath(player.getName());
+        if (!Files.exists(file)) return;
+        byte[] data = Files.readAllBytes(file);
+        if (!hasHeader(data)) throw new IOException(file + " is not a player journal");
+
+        BinarySaveCodec.Reader in = new BinarySaveCodec.Reader(data, data.length);
+        in.seek(HEADER_LENGTH);
+        while (in.remaining() > 0) {
+            int start = in.position();
+            try {
+                int length = in.readCount();
+                if (length + 4 > in.remaining()) throw new IllegalArgumentException("truncated record");
+                CRC32 crc = new CRC32();
+                crc.update(data, in.position(), length);
+                BinarySaveCodec.Reader record = new BinarySaveCodec.Reader(data, in.position() + length);
+                record.seek(in.position());
+                in.seek(in.position() + length);
+                if (in.readInt() != (int) crc.getValue()) throw new IllegalArgumentException("checksum mismatch");
+
+                long sequence = record.readVarLong();
+                int type = record.readByte();
+                if (sequence > player.getJournalSequence()) {
+                    apply(player, type, record);
+                    player.setJournalSequence(sequence);
+                }
+            } catch (IllegalArgumentException e) {
+                // A record cut short by a crash, or damaged: nothing after it can be trusted.
+                System.err.println("Ignoring the end of " + file + " (from byte " + start + "): " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private static void apply(Player player, int type, BinarySaveCodec.Reader record) {
+        List<Pokemon> pokemons = player.getPokemons();
+        switch (type) {
+            case YEN:
+                player.setYen(record.readSignedVarInt());
+                break;
+            case BATTLES_WON:
+                player.setBattlesWon(record.readSignedVarInt());
+                break;
+            case BATTLES_LOST:
+                player.setBattlesLost(record.readSignedVarInt());
+                break;
+            case ADD_POKEMON:
+                player.addPokemon(BinarySaveCodec.readStandalonePokemon(record));
+                break;
+            case SET_POKEMON: {
+                int index = record.readVarInt();
+                Pokemon p = BinarySaveCodec.readStandalonePokemon(record);
+                if (index < 0 || index >= pokemons.size()) throw new IllegalArgumentException("record replaces a missing Pokémon");
+                pokemons.set(index, p);
+                break;
+            }
+            case REMOVE_POKEMON:
+                if (player.removePokemon(record.readVarInt()) == null) throw new IllegalArgumentException("record removes a missing Pokémon");
+                break;
+            case SET_POKEMONS: {
+                int count = record.readCount();
+                List<Pokemon> list = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) list.add(BinarySaveCodec.readStandalonePokemon(record));
+                player.setPokemons(list);
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("unknown record type " + type);
+        }
+    }
+
+    private static byte[] header() {
+        byte[] header = new byte[HEADER_LENGTH];
+        System.arraycopy(MAGIC, 0, header, 0, MAGIC.length);
+        header[MAGIC.length] = VERSION;
+        return header;
+    }
+
+    private static boolean hasHeader(byte[] data) {
+        if (data.length < HEADER_LENGTH) return false;
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (data[i] != MAGIC[i]) return false;
+        }
+        return data[MAGIC.length] == VERSION;
+    }
+
+    // Single background thread shared by every journal, created on first use.
+    private static final class Compactor {
+        static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "journal-compactor");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
@@ -0,0 +1,254 @@
+// Imports for file input/output (I/O), working with file paths, and using collections.
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+
+// The species catalogue loaded from pokemon/pokemon.json, with a small built-in fallback. Shared by the game and the offline simulation tools.
+public class Pokedex {
+    // Default location of the Pokédex data file.
+    public static final String DEFAULT_PATH = "pokemon/pokemon.json";
+
+    private final List<Entry> entries = new ArrayList<>();
+
+    private Pokedex() {
+    }
+
+    // Loads the Pokédex from the default location, falling back to the built-in species.
+    public static Pokedex loadDefault() {
+        return load(DEFAULT_PATH);
+    }
+
+    // The default Pokédex, loaded once and shared by every game session; entries are never changed after loading, so concurrent readers are safe.
+    public static Pokedex shared() {
+        return Shared.INSTANCE;
+    }
+
+    // Holder for the shared Pokédex; the holder idiom makes the one-time load thread-safe without locking on lookups.
+    private static final class Shared {
+        static final Pokedex INSTANCE = loadDefault();
+    }
+
+    // Loads the Pokédex from the given file, falling back to the built-in species.
+    public static Pokedex load(String path) {
+        Pokedex pokedex = new Pokedex();
+        pokedex.loadFile(path);
+        pokedex.ensureDefaultEntries();
+        return pokedex;
+    }
+
+    // Number of species.
+    public int size() {
+        return entries.size();
+    }
+
+    // Returns true if there are no species.
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    // Returns the entry at the given position.
+    public Entry get(int index) {
+        return entries.get(index);
+    }
+
+    // All entries in load order.
+    public List<Entry> entries() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    // Represents a single Pokédex entry loaded from the JavaScript Object Notation (JSON) file.
+    public static class Entry {
+        int id;
+        String name;
+        List<String> types = new ArrayList<>();
+        int maxHp;
+        int attack;
+        int defense;
+        List<String> moveNames = new ArrayList<>();
+        int grade = 0;
+        int energy = 0;
+        int specialAttack = 0;
+        int specialDefense = 0;
+        int speed = 0;
+    }
+
+    // Loads Pokédex entries from the given file if available, using a simple parser.
+    private void loadFile(String path) {
+        try {
+            if (!Files.exists(Paths.get(path))) {
+                System.out.println("No Pokédex file found at " + path + " - continuing without a Pokédex.");
+                return;
+            }
+            String raw = String.join("\n", Files.readAllLines(Paths.get(path)));
+            String[] objects = raw.split("\\{");
+            int autoId = 1;
+            for (String obj : objects) {
+                // Require canonical "disk_number" in the set one schema.
+                if (!obj.contains("\"disk_number\"")) continue;
+                Entry e = new Entry();
+
+                // Always derive numeric id from disk_number.
+                String disk = extractStringFromJsonFragment(obj, "\"disk_number\"");
+                if (disk == null || disk.isEmpty()) {
+                    e.id = autoId++;
+                } else {
+                    String digits = disk.replaceAll("[^0-9]", "");
+                    try {
+                        e.id = Integer.parseInt(digits);
+                    } catch (Exception ex) {
+                        e.id = autoId++;
+                    }
+                }
+
+                // Name: Canonical key "name:".
+                e.name = extractStringFromJsonFragment(obj, "\"name\"");
+
+                // Health: Canonical key "health_points:".
+                e.maxHp = extractIntFromJsonFragment(obj, "\"health_points\"");
+
+                // Attack and special attack (canonical keys).
+                e.attack = extractIntFromJsonFragment(obj, "\"attack\"");
+                e.specialAttack = extractIntFromJsonFragment(obj, "\"special_attack\"");
+
+                // Defense and special defense.
+                e.defense = extractIntFromJsonFragment(obj, "\"defense\"");
+                e.specialDefense = extractIntFromJsonFragment(obj, "\"special_defense\"");
+
+                // Types: canonical "types:".
+                List<String> types = extractStringArrayFromJsonFragment(obj, "\"types\"");
+                e.types = types;
+
+                // Move(s): canonical "move" (single-element array).
+                List<String> mnames = extractStringArrayFromJsonFragment(obj, "\"move\"");
+                e.moveNames = mnames;
+
+                // Other metadata (canonical keys).
+                e.grade = extractIntFromJsonFragment(obj, "\"grade\"");
+                e.energy = extractIntFromJsonFragment(obj, "\"energy\"");
+                e.speed = extractIntFromJsonFragment(obj, "\"speed\"");
+
+                entries.add(e);
+            }
+            System.out.println("Loaded Pokédex with " + entries.size() + " entries.");
+        } catch (IOException ex) {
+            System.out.println("Failed to read Pokédex: " + ex.getMessage());
+        }
+    }
+
+    // Ensures a fallback Pokédex is available if no external file is loaded.
+    private void ensureDefaultEntries() {
+        if (!entries.isEmpty()) return;
+
+        // Add a small set of fallback species so wild encounters always work.
+        Entry pikachu = new Entry();
+        pikachu.id = 25; pikachu.name = "Pikachu"; pikachu.types = Arrays.asList("Electric"); pikachu.maxHp = 35; pikachu.attack = 55; pikachu.defense = 40;
+        Entry pidgey = new Entry();
+        pidgey.id = 16; pidgey.name = "Pidgey"; pidgey.types = Arrays.asList("Normal", "Flying"); pidgey.maxHp = 30; pidgey.attack = 30; pidgey.defense = 25;
+        Entry rattata = new Entry();
+        rattata.id = 19; rattata.name = "Rattata"; rattata.types = Arrays.asList("Normal"); rattata.maxHp = 28; rattata.attack = 34; rattata.defense = 20;
+        Entry bulbasaur = new Entry();
+        bulbasaur.id = 1; bulbasaur.name = "Bulbasaur"; bulbasaur.types = Arrays.asList("Grass", "Poison"); bulbasaur.maxHp = 45; bulbasaur.attack = 49; bulbasaur.defense = 49;
+        Entry charmander = new Entry();
+        charmander.id = 4; charmander.name = "Charmander"; charmander.types = Arrays.asList("Fire"); charmander.maxHp = 39; charmander.attack = 52; charmander.defense = 43;
+        Entry squirtle = new Entry();
+        squirtle.id = 7; squirtle.name = "Squirtle"; squirtle.types = Arrays.asList("Water"); squirtle.maxHp = 44; squirtle.attack = 48; squirtle.defense = 65;
+
+        entries.add(pikachu);
+        entries.add(pidgey);
+        entries.add(rattata);
+        entries.add(bulbasaur);
+        entries.add(charmander);
+        entries.add(squirtle);
+
+        System.out.println("No external Pokédex found - using built-in fallback Pokédex with " + entries.size() + " species.");
+    }
+
+    // Extracts an integer value from a JSON fragment given a key.
+    private static int extractIntFromJsonFragment(String frag, String key) {
+        try {
+            String search = key + ":";
+            int idx = frag.indexOf(search);
+            if (idx == -1) return 0;
+            int colon = frag.indexOf(":", idx);
+            if (colon == -1) return 0;
+            int comma = frag.indexOf(",", colon);
+            int end = comma == -1 ? frag.indexOf("}", colon) : comma;
+            if (end == -1) end = frag.length();
+            String num = frag.substring(colon + 1, end).trim().replaceAll("[^0-9\\-]", "");
+            if (num.isEmpty()) return 0;
+            return Integer.parseInt(num);
+        } catch (Exception ex) {
+            return 0;
+        }
+    }
+
+    // Extracts a string value from a JSON fragment given a key.
+    private static String extractStringFromJsonFragment(String frag, String key) {
+        String search = key + ":";
+        int idx = frag.indexOf(search);
+        if (idx == -1) return "";
+        idx = frag.indexOf("\"", idx);
+        if (idx == -1) return "";
+        int end = frag.indexOf("\"", idx + 1);
+        if (end == -1) return "";
+        return frag.substring(idx + 1, end);
+    }
+
+    // Extracts an array of strings from a JSON fragment given a key.
+    private static List<String> extractStringArrayFromJsonFragment(String frag, String key) {
+        List<String> out = new ArrayList<>();
+        String search = key + ":";
+        int idx = frag.indexOf(search);
+        if (idx == -1) return out;
+        idx = frag.indexOf("[", idx);
+        if (idx == -1) return out;
+        int end = frag.indexOf("]", idx);
+        if (end == -1) return out;
+        String inside = frag.substring(idx + 1, end);
+        String[] parts = inside.split(",");
+        for (String p : parts) {
+            p = p.trim();
+            if (p.startsWith("\"") && p.endsWith("\"")) {
+                out.add(p.substring(1, p.length() - 1));
+            } else if (!p.isEmpty()) {
+                out.add(p);
+            }
+        }
+        return out;
+    }
+
+    // Builds a fresh, fully healed Pokémon for an entry, as wild encounters and simulations use it.
+    public Pokemon createPokemon(Entry e) {
+        Pokemon p = new Pokemon();
+        p.setId(e.id);
+        p.setName(e.name);
+        p.setTypes(new ArrayList<>(e.types));
+        p.setMaxHp(e.maxHp);
+        p.setHp(e.maxHp);
+        // Prefer attack; if attack is zero, fall back to specialAttack to preserve canonical JSON intent.
+        int chosenAttack = e.attack != 0 ? e.attack : e.specialAttack;
+        int chosenDefense = e.defense != 0 ? e.defense : e.specialDefense;
+        p.setAttack(chosenAttack);
+        p.setDefense(chosenDefense);
+        // Apply default moves from the Pokédex entry if present.
+        if (e.moveNames != null && !e.moveNames.isEmpty()) {
+            for (String mn : e.moveNames) {
+                Move mv = MoveRegistry.resolve(mn);
+                if (mv != null) p.addMove(mv);
+            }
+        }
+        return p;
+    }
+
+    // Ensures a Pokémon has at least one move, adding a BasicAttack and a type-based move if needed.
+    public static void ensureSomeMoves(Pokemon p) {
+        if (p.getMoves() == null) p.setMoves(new ArrayList<>());
+        if (p.getMoves().isEmpty()) {
+            p.addMove(MoveRegistry.tackle());
+            if (p.getTypes() != null && !p.getTypes().isEmpty()) {
+                p.addMove(MoveRegistry.strike(p.getPrimaryType()));
+            }
+        }
+    }
+}
@@ -1,13 +1,19 @@
-// Imports for list handling, array utilities, and sorting.
+// Imports for list handling, array utilities, sorting, and the resolved type set.
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
 
 // Represents a lightweight Pokémon model for the Ga-Olé console demonstration, including statistics, types, moves, and meta fields for evolutions and special capabilities.
 public class Pokemon {
     private int id;
     private String name;
     private List<String> types;
+    // Types resolved once from the type names whenever they are set, so battles never re-parse strings.
+    private Set<Type> typeSet = Collections.unmodifiableSet(EnumSet.of(Type.NORMAL));
+    private Type primaryType = Type.NORMAL;
+    private int defenderIndex = TypeChart.defenderIndex(Type.NORMAL.ordinal(), Type.NORMAL.ordinal());
     private int maxHp;
     private int hp;
     private int attack;
@@ -25,13 +31,13 @@ public class Pokemon {
     // Default constructor for JavaScript Object Notation (JSON) deserialisation.
     public Pokemon() {
         this.moves = new ArrayList<>();
-        this.types = new ArrayList<>();
+        this.types = Collections.emptyList();
     }
 
     // Constructor for manual creation.
     public Pokemon(String name, List<String> types, int maxHp, int attack, int defense) {
         this.name = name;
-        this.types = types;
+        setTypes(types);
         this.maxHp = maxHp;
         this.hp = maxHp;
         this.attack = attack;
@@ -60,8 +66,42 @@ public class Pokemon {
         return types;
     }
 
+    // Stores an immutable copy of the type names (kept as written for saving) and resolves them into Type values once.
     public void setTypes(List<String> types) {
-        this.types = types;
+        this.types = types == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(types));
+
+        EnumSet<Type> resolved = EnumSet.noneOf(Type.class);
+        for (String t : this.types) resolved.add(Type.fromString(t));
+        if (resolved.isEmpty()) resolved.add(Type.NORMAL);
+        this.typeSet = Collections.unmodifiableSet(resolved);
+
+        // The first two listed types decide effectiveness, matching TypeChart.defenderIndex(List).
+        this.primaryType = this.types.isEmpty() ? Type.NORMAL : Type.fromString(this.types.get(0));
+        Type secondary = this.types.size() > 1 ? Type.fromString(this.types.get(1)) : primaryType;
+        this.defenderIndex = TypeChart.defenderIndex(primaryType.ordinal(), secondary.ordinal());
+    }
+
+    // Copies the type names and their resolved form from another Pokémon without re-parsing; safe because both are immutable.
+    public void copyTypesFrom(Pokemon other) {
+        this.types = other.types;
+        this.typeSet = other.typeSet;
+        this.primaryType = other.primaryType;
+        this.defenderIndex = other.defenderIndex;
+    }
+
+    // Resolved types of this Pokémon (Normal when none are set).
+    public Set<Type> getTypeSet() {
+        return typeSet;
+    }
+
+    // Resolved first type, used for type-based default moves.
+    public Type getPrimaryType() {
+        return primaryType;
+    }
+
+    // Precomputed defender combination index into TypeChart's dual-type table.
+    public int getDefenderIndex() {
+        return defenderIndex;
     }
 
     public int getMaxHp() {
@@ -187,18 +227,32 @@ public class Pokemon {
     }
 
     public void takeDamage(int damage) {
+        takeDamage(damage, ConsoleBattleListener.INSTANCE);
+    }
+
+    // Applies damage and reports it to the given listener instead of printing directly.
+    public void takeDamage(int damage, BattleListener events) {
         hp = Math.max(hp - damage, 0);
-        System.out.printf("%s took %d damage and now has %d health points.\n", name, damage, hp);
+        events.damageTaken(this, damage);
+        if (hp == 0) events.fainted(this);
     }
 
     public void heal(int amount) {
+        heal(amount, ConsoleBattleListener.INSTANCE);
+    }
+
+    public void heal(int amount, BattleListener events) {
         hp = Math.min(hp + amount, maxHp);
-        System.out.printf("%s healed %d HP and now has %d health points.\n", name, amount, hp);
+        events.healed(this, amount);
     }
 
     public void fullHeal() {
+        fullHeal(ConsoleBattleListener.INSTANCE);
+    }
+
+    public void fullHeal(BattleListener events) {
         hp = maxHp;
-        System.out.printf("%s was fully healed to %d health points.\n", name, hp);
+        events.fullyHealed(this);
     }
 
     @Override
@@ -230,34 +284,28 @@ public class Pokemon {
         Collections.sort(otherTypes);
         if (!myTypes.equals(otherTypes)) return false;
 
-        // Compare move names (case/whitespace-insensitive, order-insensitive).
-        List<String> myMoves = getMoveNamesList();
-        List<String> otherMoves = other.getMoveNamesList();
-
-        normalizeStringList(myMoves);
-        normalizeStringList(otherMoves);
-        Collections.sort(myMoves);
-        Collections.sort(otherMoves);
-        return myMoves.equals(otherMoves);
-    }
-
-    // Helper: Produce a list of move names (null-safe).
-    private List<String> getMoveNamesList() {
-        List<String> out = new ArrayList<>();
-        if (this.moves == null) return out;
-        for (Move m : this.moves) {
-            if (m == null) out.add("");
-            else {
-                try {
-                    String n = m.name();
-                    out.add(n == null ? "" : n);
-                } catch (Exception e) {
-                    // In case Move implementation behaves oddly.
-                    out.add("");
+        // Compare moves as registry entries (order-insensitive); names resolve to the same shared instance regardless of case or spacing.
+        return sameMoves(this.moves, other.moves);
+    }
+
+    // Helper: True if both move lists hold the same registered moves the same number of times.
+    private static boolean sameMoves(List<Move> mine, List<Move> theirs) {
+        int mySize = mine == null ? 0 : mine.size();
+        int theirSize = theirs == null ? 0 : theirs.size();
+        if (mySize != theirSize) return false;
+        boolean[] matched = new boolean[theirSize];
+        for (int i = 0; i < mySize; i++) {
+            Move m = MoveRegistry.canonical(mine.get(i));
+            boolean found = false;
+            for (int j = 0; j < theirSize && !found; j++) {
+                if (!matched[j] && MoveRegistry.canonical(theirs.get(j)) == m) {
+                    matched[j] = true;
+                    found = true;
                 }
             }
+            if (!found) return false;
         }
-        return out;
+        return true;
     }
 
     // Helper: Normalise strings in-place (trim + lowercase + null->empty).
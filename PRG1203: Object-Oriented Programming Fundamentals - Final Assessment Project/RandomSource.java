@@ -0,0 +1,120 @@
+// Import for generating default seeds when none is given.
+import java.util.concurrent.atomic.AtomicLong;
+
+// Seedable, splittable random number source (the SplitMix64 algorithm used by java.util.SplittableRandom) for battle rolls, move choices, and catch rolls.
+// An instance is not thread-safe and has no shared state: give each thread or each battle its own, via split() or forStream(seed, index).
+public final class RandomSource {
+    static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    // Source of seeds for instances created without an explicit seed.
+    private static final AtomicLong defaultSeeds = new AtomicLong(mix64(System.currentTimeMillis()) ^ mix64(System.nanoTime()));
+
+    // Per-thread unseeded source for callers that do not inject one (e.g. interactive moves that are not replayed).
+    private static final ThreadLocal<RandomSource> current = ThreadLocal.withInitial(RandomSource::new);
+
+    private long seed;
+    private double nextNextGaussian;
+    private boolean haveNextNextGaussian;
+
+    // Creates a source with an unpredictable seed.
+    public RandomSource() {
+        this(mix64(defaultSeeds.getAndAdd(2 * GOLDEN_GAMMA)));
+    }
+
+    // Creates a source that always produces the same sequence for the same seed.
+    public RandomSource(long seed) {
+        this.seed = seed;
+    }
+
+    // Returns this thread's unseeded source.
+    public static RandomSource current() {
+        return current.get();
+    }
+
+    // Returns the source for stream number index of a seeded run; the result depends only on (seed, index), never on which thread asks for it.
+    public static RandomSource forStream(long seed, long index) {
+        return new RandomSource(streamSeed(seed, index));
+    }
+
+    // Derives the seed of stream number index of a seeded run.
+    public static long streamSeed(long seed, long index) {
+        return mix64(seed + mix64(index + 1) * GOLDEN_GAMMA);
+    }
+
+    // Restarts this source from the given seed, so one instance can be reused for many streams.
+    public void reseed(long seed) {
+        this.seed = seed;
+        this.haveNextNextGaussian = false;
+    }
+
+    // Current state; a source created with it continues this one's sequence (apart from a cached Gaussian), so a replay can restart from here.
+    public long state() {
+        return seed;
+    }
+
+    // Creates a new independent source seeded from this one; splitting is itself deterministic.
+    public RandomSource split() {
+        return new RandomSource(mix64(nextLong()));
+    }
+
+    // Returns a uniformly distributed long.
+    public long nextLong() {
+        seed += GOLDEN_GAMMA;
+        return mix64(seed);
+    }
+
+    // Returns a uniformly distributed int.
+    public int nextInt() {
+        return (int) (nextLong() >>> 32);
+    }
+
+    // Returns a uniformly distributed int in [0, bound).
+    public int nextInt(int bound) {
+        if (bound <= 0) throw new IllegalArgumentException("bound must be positive");
+        int r = nextInt();
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            return r & m;
+        }
+        // Rejection sampling avoids modulo bias for bounds that are not powers of two.
+        for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = nextInt() >>> 1) {
+        }
+        return r;
+    }
+
+    // Returns a uniformly distributed double in [0, 1).
+    public double nextDouble() {
+        return (nextLong() >>> 11) * DOUBLE_UNIT;
+    }
+
+    // Returns a uniformly distributed boolean.
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+
+    // Returns a normally distributed double with mean 0 and standard deviation 1 (polar method, as in java.util.Random).
+    public double nextGaussian() {
+        if (haveNextNextGaussian) {
+            haveNextNextGaussian = false;
+            return nextNextGaussian;
+        }
+        double v1, v2, s;
+        do {
+            v1 = 2 * nextDouble() - 1;
+            v2 = 2 * nextDouble() - 1;
+            s = v1 * v1 + v2 * v2;
+        } while (s >= 1 || s == 0);
+        double multiplier = StrictMath.sqrt(-2 * StrictMath.log(s) / s);
+        nextNextGaussian = v2 * multiplier;
+        haveNextNextGaussian = true;
+        return v1 * multiplier;
+    }
+
+    // SplitMix64 finaliser (Stafford variant 13); BatchBattleKernel runs the same generator on its per-battle state arrays.
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
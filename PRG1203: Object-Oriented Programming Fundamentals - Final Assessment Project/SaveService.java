@@ -0,0 +1,172 @@
+// Imports for the background writer thread, the pending-save table, and waiting on flushes.
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Write-behind saving: the game marks a player dirty and carries on, and a background thread writes the save a short delay later through
+// JsonSaveSystem's temp file, fsync and atomic rename. Every save requested during the delay is folded into that one write, so a burst of
+// deposits, mode exits and menu visits costs a single file write. flush() blocks until everything requested so far is on disk; the shared
+// service also flushes from a shutdown hook. The writer reads a player while the game may still change it, so a write can catch a mix of
+// old and new values; the next mark or flush always rewrites it.
+public final class SaveService {
+
+    // How long a first save request waits for more to join it.
+    public static final long DEFAULT_DELAY_MILLIS = 200;
+
+    private final ScheduledExecutorService writer;
+    private final long delayMillis;
+
+    // Players waiting to be written, by save file, in the order first marked; guarded by this.
+    private final Map<String, Player> dirty = new LinkedHashMap<>();
+    private boolean drainScheduled;
+    private boolean closed;
+    // Set when a write fails, and reported (then cleared) by the next flush.
+    private boolean failed;
+
+    // Counters for checking how well saves coalesce; guarded by this.
+    private long requests;
+    private long writes;
+
+    // Creates a service with the default delay.
+    public SaveService() {
+        this(DEFAULT_DELAY_MILLIS);
+    }
+
+    // Creates a service that waits the given time after the first request of a burst before writing.
+    public SaveService(long delayMillis) {
+        if (delayMillis < 0) throw new IllegalArgumentException("delayMillis must not be negative");
+        this.delayMillis = delayMillis;
+        this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "save-writer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Service shared by every game session in this JVM.
+    public static SaveService shared() {
+        return Shared.INSTANCE;
+    }
+
+    // Asks for the player to be saved soon; returns at once.
+    public void markDirty(Player player) {
+        if (player == null) throw new IllegalArgumentException("player must not be null");
+        synchronized (this) {
+            requests++;
+            if (!closed) {
+                dirty.put(JsonSaveSystem.getPlayerFileName(player.getName()), player);
+                if (!drainScheduled) {
+                    drainScheduled = true;
+                    writer.schedule(this::drain, delayMillis, TimeUnit.MILLISECONDS);
+                }
+                return;
+            }
+        }
+        // After close() there is no writer thread left, so save on the caller's thread.
+        write(player);
+    }
+
+    // Drops a pending save, e.g. before the profile is deleted, so the write cannot bring the file back.
+    public synchronized void discard(String playerName) {
+        dirty.remove(JsonSaveSystem.getPlayerFileName(playerName));
+    }
+
+    // Blocks until every save requested before this call has been written; returns false if any write since the last flush failed.
+    public boolean flush() {
+        Future<?> done;
+        synchronized (this) {
+            if (closed) return !takeFailed();
+            done = writer.submit(this::drain);
+        }
+        boolean interrupted = false;
+        while (true) {
+            try {
+                done.get();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            } catch (ExecutionException e) {
+                break;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        return !takeFailed();
+    }
+
+    // Flushes and stops the writer thread; later requests are written synchronously.
+    public void close() {
+        flush();
+        synchronized (this) {
+            closed = true;
+        }
+        writer.shutdown();
+    }
+
+    public synchronized long getRequests() {
+        return requests;
+    }
+
+    public synchronized long getWrites() {
+        return writes;
+    }
+
+    // Writes every pending player; runs on the writer thread.
+    private void drain() {
+        List<Player> batch;
+        synchronized (this) {
+            batch = new ArrayList<>(dirty.values());
+            dirty.clear();
+            drainScheduled = false;
+        }
+        for (Player p : batch) write(p);
+    }
+
+    private void write(Player player) {
+        try {
+            PlayerJournal journal = player.getJournal();
+            if (journal != null) {
+                // A journalled player's changes are already in its journal; saving only has to force them to disk.
+                journal.sync();
+            } else {
+                // Holding the player's monitor keeps its synchronised updates out of the snapshot.
+                synchronized (player) {
+                    JsonSaveSystem.writeSave(player);
+                }
+            }
+            synchronized (this) {
+                writes++;
+            }
+        } catch (ConcurrentModificationException e) {
+            // The collection changed mid-snapshot; the change came with a request of its own, so try again with that one.
+            markDirty(player);
+        } catch (IOException e) {
+            System.err.println("Failed to save " + player.getName() + ": " + e.getMessage());
+            synchronized (this) {
+                failed = true;
+            }
+        }
+    }
+
+    private synchronized boolean takeFailed() {
+        boolean f = failed;
+        failed = false;
+        return f;
+    }
+
+    // Shared service, created on first use, with a shutdown hook so saves still pending at exit reach the disk.
+    private static final class Shared {
+        static final SaveService INSTANCE = new SaveService();
+
+        static {
+            Runtime.getRuntime().addShutdownHook(new Thread(INSTANCE::close, "save-flush"));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+// Imports for the shared timer thread and non-blocking pauses.
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Real-time pacing on a ScheduledExecutorService: each pause is a timer entry that completes a future, so the pacer itself puts no thread to sleep;
+// a caller that blocks on the pause (as Battle.start() does through awaitPauseAfterRound()) still holds its own thread until the entry fires.
+// One shared timer thread serves every battle by default; a speed above 1 shortens each pause proportionally, e.g. for watching a replay.
+public class ScheduledBattlePacer implements BattlePacer {
+
+    // Pause between rounds at normal speed, as the console game has always used.
+    public static final long ROUND_MILLIS = 1000;
+
+    private final ScheduledExecutorService scheduler;
+    private final long pauseNanos;
+
+    // Creates a pacer that waits the given time (divided by speed) between rounds on the given scheduler.
+    public ScheduledBattlePacer(ScheduledExecutorService scheduler, long roundMillis, double speed) {
+        if (scheduler == null) throw new IllegalArgumentException("scheduler must not be null");
+        if (roundMillis < 0) throw new IllegalArgumentException("roundMillis must not be negative");
+        if (!(speed > 0)) throw new IllegalArgumentException("speed must be positive");
+        this.scheduler = scheduler;
+        this.pauseNanos = (long) (TimeUnit.MILLISECONDS.toNanos(roundMillis) / speed);
+    }
+
+    // Pacer at normal speed on the shared timer thread.
+    public static ScheduledBattlePacer realTime() {
+        return accelerated(1.0);
+    }
+
+    // Pacer that runs the given number of times faster than normal on the shared timer thread, e.g. 4.0 for a quick replay.
+    public static ScheduledBattlePacer accelerated(double speed) {
+        return new ScheduledBattlePacer(SharedScheduler.INSTANCE, ROUND_MILLIS, speed);
+    }
+
+    // Pause length in nanoseconds.
+    public long getPauseNanos() {
+        return pauseNanos;
+    }
+
+    @Override
+    public CompletionStage<Void> pauseAfterRound() {
+        if (pauseNanos <= 0) return NO_PAUSE;
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        scheduler.schedule(() -> done.complete(null), pauseNanos, TimeUnit.NANOSECONDS);
+        return done;
+    }
+
+    // Timer thread shared by the default pacers, created on first use; it is a daemon so it never keeps the game from exiting.
+    private static final class SharedScheduler {
+        static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "battle-pacer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
@@ -0,0 +1,55 @@
+// Imports for the session's input and output streams.
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Scanner;
+
+// The input and output of one player's session: the game reads choices from in() and writes every message to out().
+// The console game uses console(); ArcadeHost gives each cabinet or remote connection its own pair of streams.
+public final class SessionIO {
+
+    private final Scanner in;
+    private final PrintStream out;
+    private final BattleListener events;
+
+    // Creates a session over the given streams, read and written as UTF-8 so the ¥ and é in the game's text survive.
+    public SessionIO(InputStream in, OutputStream out) {
+        if (in == null || out == null) throw new IllegalArgumentException("session streams must not be null");
+        this.in = new Scanner(in, StandardCharsets.UTF_8);
+        this.out = new PrintStream(out, true, StandardCharsets.UTF_8);
+        this.events = new ConsoleBattleListener(this.out);
+    }
+
+    // Console session over standard input and output, as the game has always used.
+    private SessionIO() {
+        this.in = new Scanner(System.in);
+        this.out = System.out;
+        this.events = ConsoleBattleListener.INSTANCE;
+    }
+
+    // The single console session; one Scanner serves every reader, so no typed-ahead input is lost between them.
+    public static SessionIO console() {
+        return Console.INSTANCE;
+    }
+
+    // Player input.
+    public Scanner in() {
+        return in;
+    }
+
+    // Text shown to the player.
+    public PrintStream out() {
+        return out;
+    }
+
+    // Battle text renderer writing to out().
+    public BattleListener events() {
+        return events;
+    }
+
+    // Holder for the console session, created on first use.
+    private static final class Console {
+        static final SessionIO INSTANCE = new SessionIO();
+    }
+}
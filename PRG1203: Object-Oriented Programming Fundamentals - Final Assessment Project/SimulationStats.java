@@ -0,0 +1,124 @@
+// Aggregated statistics over many headless battles between the same two fighters; partial results from worker threads are merged together.
+public class SimulationStats {
+    private long battles;
+    private long firstWins;
+    private long secondWins;
+    private long draws;
+    private long totalTurns;
+    private long totalDamageByFirst;
+    private long totalDamageBySecond;
+    private long totalHitsByFirst;
+    private long totalHitsBySecond;
+    private int minTurns = Integer.MAX_VALUE;
+    private int maxTurns = 0;
+
+    // Adds a single battle result to the totals.
+    public void record(BattleResult result) {
+        record(result.getOutcome(), result.getTurns(), result.getDamageByFirst(), result.getDamageBySecond(),
+                result.getHitsByFirst(), result.getHitsBySecond());
+    }
+
+    // Adds a single battle to the totals from its raw counters, for callers that do not build a BattleResult.
+    public void record(BattleResult.Outcome outcome, int turns, int damageByFirst, int damageBySecond, int hitsByFirst, int hitsBySecond) {
+        battles++;
+        switch (outcome) {
+            case FIRST_WON:
+                firstWins++;
+                break;
+            case SECOND_WON:
+                secondWins++;
+                break;
+            default:
+                draws++;
+        }
+        totalTurns += turns;
+        totalDamageByFirst += damageByFirst;
+        totalDamageBySecond += damageBySecond;
+        totalHitsByFirst += hitsByFirst;
+        totalHitsBySecond += hitsBySecond;
+        minTurns = Math.min(minTurns, turns);
+        maxTurns = Math.max(maxTurns, turns);
+    }
+
+    // Folds another set of statistics into this one (used to combine per-thread partial results).
+    public void merge(SimulationStats other) {
+        battles += other.battles;
+        firstWins += other.firstWins;
+        secondWins += other.secondWins;
+        draws += other.draws;
+        totalTurns += other.totalTurns;
+        totalDamageByFirst += other.totalDamageByFirst;
+        totalDamageBySecond += other.totalDamageBySecond;
+        totalHitsByFirst += other.totalHitsByFirst;
+        totalHitsBySecond += other.totalHitsBySecond;
+        minTurns = Math.min(minTurns, other.minTurns);
+        maxTurns = Math.max(maxTurns, other.maxTurns);
+    }
+
+    // Getters for the raw counters.
+    public long getBattles() {
+        return battles;
+    }
+
+    public long getFirstWins() {
+        return firstWins;
+    }
+
+    public long getSecondWins() {
+        return secondWins;
+    }
+
+    public long getDraws() {
+        return draws;
+    }
+
+    public int getMinTurns() {
+        return battles == 0 ? 0 : minTurns;
+    }
+
+    public int getMaxTurns() {
+        return maxTurns;
+    }
+
+    // Derived rates and averages (all return 0 when no battles were recorded).
+    public double getFirstWinRate() {
+        return battles == 0 ? 0.0 : (double) firstWins / battles;
+    }
+
+    public double getSecondWinRate() {
+        return battles == 0 ? 0.0 : (double) secondWins / battles;
+    }
+
+    public double getDrawRate() {
+        return battles == 0 ? 0.0 : (double) draws / battles;
+    }
+
+    public double getMeanTurns() {
+        return battles == 0 ? 0.0 : (double) totalTurns / battles;
+    }
+
+    public double getMeanDamageByFirst() {
+        return battles == 0 ? 0.0 : (double) totalDamageByFirst / battles;
+    }
+
+    public double getMeanDamageBySecond() {
+        return battles == 0 ? 0.0 : (double) totalDamageBySecond / battles;
+    }
+
+    public double getMeanDamagePerHitByFirst() {
+        return totalHitsByFirst == 0 ? 0.0 : (double) totalDamageByFirst / totalHitsByFirst;
+    }
+
+    public double getMeanDamagePerHitBySecond() {
+        return totalHitsBySecond == 0 ? 0.0 : (double) totalDamageBySecond / totalHitsBySecond;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Battles: %d%nFirst wins: %.2f%%  Second wins: %.2f%%  Draws: %.2f%%%nTurns: mean %.2f (min %d, max %d)%nDamage per battle: %.1f vs %.1f%nDamage per hit: %.2f vs %.2f",
+                battles, getFirstWinRate() * 100, getSecondWinRate() * 100, getDrawRate() * 100,
+                getMeanTurns(), getMinTurns(), getMaxTurns(),
+                getMeanDamageByFirst(), getMeanDamageBySecond(),
+                getMeanDamagePerHitByFirst(), getMeanDamagePerHitBySecond());
+    }
+}
@@ -0,0 +1,33 @@
+// Represents the fallback Struggle move used when a Pokémon has no moves left; it damages the target and deals recoil to the user.
+public class Struggle implements Move {
+
+    // Shared instance, since Struggle holds no state of its own.
+    public static final Struggle INSTANCE = new Struggle();
+
+    @Override
+    public String name() {
+        // Returns the name of the move.
+        return "Struggle";
+    }
+
+    @Override
+    public int execute(Pokemon user, Pokemon target, BattleListener events, RandomSource random) {
+        // Deal a quarter of the user's attack to the target (minimum of 1).
+        int damage = damage(user.getAttack());
+        events.moveUsed(user, this);
+        target.takeDamage(damage, events);
+
+        // The user takes a quarter of the dealt damage as recoil (minimum of 1).
+        int recoilDamage = Math.max(1, damage / 4);
+        user.takeDamage(recoilDamage, events);
+        events.recoil(user, recoilDamage);
+
+        // Return the damage dealt to the target.
+        return damage;
+    }
+
+    // Damage dealt to the target for the given attack stat; Struggle has no random roll.
+    static int damage(int atk) {
+        return Math.max(1, atk / 4);
+    }
+}
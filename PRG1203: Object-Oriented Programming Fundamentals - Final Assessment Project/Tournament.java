@@ -0,0 +1,578 @@
+// Imports for reading saves, list handling, fork-join parallelism, and sorting standings.
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Offline tournament between saved players: round-robin, Swiss or single-elimination, each match a best-of-N series of headless battles.
+// The matches of a round are played in parallel, and the listener receives the standings as each round completes. Game g of the match at
+// table t in round r always uses the same random stream of the tournament seed, so a tournament replays identically on any number of threads.
+public class Tournament {
+
+    // How entrants are paired.
+    public enum Format {
+        ROUND_ROBIN, SWISS, SINGLE_ELIMINATION
+    }
+
+    // Which Pokémon an entrant fields: the active one, or the whole collection as a relay team.
+    public enum Roster {
+        ACTIVE, COLLECTION
+    }
+
+    // How loaded entrants are ordered before the first round: by saved win-loss record, or shuffled with the tournament seed.
+    public enum Seeding {
+        RECORD, RANDOM
+    }
+
+    // Points for a match win (including a bye) and a drawn match.
+    private static final int WIN_POINTS = 3;
+    private static final int DRAW_POINTS = 1;
+
+    // Number of matches a single fork-join leaf plays before it stops splitting; a match is already a handful of battles.
+    private static final int MATCHES_PER_TASK = 1;
+
+    private final List<Entrant> entrants;
+    private final List<Standing> standings;
+    // Each entrant's standing, which also holds its seed; by identity, as entrants may be reused in other tournaments.
+    private final Map<Entrant, Standing> standingByEntrant;
+    private final Format format;
+    private final int bestOf;
+    private final long seed;
+    private final ForkJoinPool pool;
+    // Pairs that have already met, as (lower seed, higher seed) keys, so Swiss rounds avoid rematches.
+    private final Set<Long> played = new HashSet<>();
+
+    // Creates a tournament on the shared common pool; entrants are given in seed order (the first is the top seed).
+    public Tournament(List<Entrant> entrants, Format format, int bestOf, long seed) {
+        this(entrants, format, bestOf, seed, ForkJoinPool.commonPool());
+    }
+
+    // Creates a tournament that plays its matches on the given pool, e.g. to limit the number of worker threads.
+    public Tournament(List<Entrant> entrants, Format format, int bestOf, long seed, ForkJoinPool pool) {
+        if (entrants == null || entrants.size() < 2) throw new IllegalArgumentException("a tournament needs at least two entrants");
+        if (bestOf <= 0 || bestOf % 2 == 0) throw new IllegalArgumentException("best-of must be a positive odd number");
+        this.entrants = new ArrayList<>(entrants);
+        this.standings = new ArrayList<>(entrants.size());
+        this.standingByEntrant = new IdentityHashMap<>();
+        for (int i = 0; i < this.entrants.size(); i++) {
+            Entrant e = Objects.requireNonNull(this.entrants.get(i), "entrants must not contain null");
+            Standing s = new Standing(e, i + 1);
+            if (standingByEntrant.put(e, s) != null) throw new IllegalArgumentException("entrant " + e.getName() + " is listed twice");
+            standings.add(s);
+        }
+        this.format = Objects.requireNonNull(format, "format must not be null");
+        this.bestOf = bestOf;
+        this.seed = seed;
+        this.pool = Objects.requireNonNull(pool, "pool must not be null");
+    }
+
+    // Loads every saved player with at least one Pokémon as an entrant, seeded as requested.
+    public static List<Entrant> loadEntrants(Roster roster, Seeding seeding, long seed) {
+        List<Entrant> loaded = new ArrayList<>();
+        List<Player> players = new ArrayList<>();
+        for (String name : JsonSaveSystem.getExistingPlayers()) {
+            Player p;
+            try {
+                p = JsonSaveSystem.readPlayerSave(name);
+            } catch (IOException e) {
+                System.err.println("Leaving out " + name + ": " + e.getMessage());
+                continue;
+            }
+            if (p == null || p.getPokemon() == null) continue;
+            players.add(p);
+        }
+        if (seeding == Seeding.RECORD) {
+            players.sort(Comparator.comparingInt((Player p) -> p.getBattlesWon() - p.getBattlesLost()).reversed()
+                    .thenComparing(Comparator.comparingInt(Player::getBattlesWon).reversed())
+                    .thenComparing(Player::getName));
+        } else {
+            // Fisher-Yates with the tournament's own stream, so the draw is part of the reproducible run.
+            RandomSource random = RandomSource.forStream(seed, -1);
+            for (int i = players.size() - 1; i > 0; i--) Collections.swap(players, i, random.nextInt(i + 1));
+        }
+        for (Player p : players) {
+            List<Pokemon> team = roster == Roster.ACTIVE ? List.of(p.getPokemon()) : p.getPokemons();
+            loaded.add(new Entrant(p.getName(), team));
+        }
+        return loaded;
+    }
+
+    // Number of rounds this tournament will play.
+    public int roundCount() {
+        int n = entrants.size();
+        switch (format) {
+            case ROUND_ROBIN:
+                return n % 2 == 0 ? n - 1 : n;
+            default:
+                return 32 - Integer.numberOfLeadingZeros(n - 1);
+        }
+    }
+
+    // Plays the whole tournament, reporting each round to the listener, and returns the final standings.
+    public List<Standing> run(Listener listener) {
+        Listener report = listener == null ? (round, matches, table) -> { } : listener;
+        List<Entrant> alive = format == Format.SINGLE_ELIMINATION ? bracketOrder() : null;
+        int rounds = roundCount();
+        for (int round = 1; round <= rounds; round++) {
+            List<Match> matches;
+            switch (format) {
+                case ROUND_ROBIN:
+                    matches = roundRobinPairings(round);
+                    break;
+                case SWISS:
+                    matches = swissPairings(round);
+                    break;
+                default:
+                    matches = eliminationPairings(round, alive);
+            }
+            playRound(matches);
+            for (Match m : matches) record(m);
+            if (format == Format.SINGLE_ELIMINATION) {
+                alive = new ArrayList<>();
+                for (Match m : matches) {
+                    alive.add(m.getWinner());
+                    Entrant loser = m.getWinner() == m.first ? m.second : m.first;
+                    if (loser != null) standingOf(loser).eliminatedInRound = round;
+                }
+            }
+            report.roundCompleted(round, Collections.unmodifiableList(matches), getStandings());
+        }
+        return getStandings();
+    }
+
+    // Current standings, best first.
+    public List<Standing> getStandings() {
+        List<Standing> sorted = new ArrayList<>(standings);
+        Comparator<Standing> byResults = Comparator.comparingInt(Standing::getPoints).reversed()
+                .thenComparing(Comparator.comparingInt(Standing::getGameDifference).reversed())
+                .thenComparing(Comparator.comparingInt(Standing::getGamesWon).reversed())
+                .thenComparingInt(s -> s.seed);
+        if (format == Format.SINGLE_ELIMINATION) {
+            // Entrants still standing rank above those knocked out, and later exits above earlier ones.
+            byResults = Comparator.comparingInt((Standing s) -> s.eliminatedInRound == 0 ? Integer.MAX_VALUE : s.eliminatedInRound)
+                    .reversed().thenComparing(byResults);
+        }
+        sorted.sort(byResults);
+        return sorted;
+    }
+
+    // Circle method: the first entrant stays put while the rest rotate one place per round; with an odd count, a null slot is the bye.
+    private List<Match> roundRobinPairings(int round) {
+        List<Entrant> slots = new ArrayList<>(entrants);
+        if (slots.size() % 2 == 1) slots.add(null);
+        int m = slots.size();
+        List<Entrant> rotated = new ArrayList<>(m);
+        rotated.add(slots.get(0));
+        for (int i = 0; i < m - 1; i++) rotated.add(slots.get(1 + Math.floorMod(i - (round - 1), m - 1)));
+        List<Match> matches = new ArrayList<>(m / 2);
+        for (int i = 0; i < m / 2; i++) addPairing(matches, round, rotated.get(i), rotated.get(m - 1 - i));
+        return matches;
+    }
+
+    // Pairs entrants down the current standings, each with the next-best entrant they have not met; with an odd count,
+    // the lowest-ranked entrant without a bye so far sits out for a win.
+    private List<Match> swissPairings(int round) {
+        List<Entrant> ranked = new ArrayList<>();
+        for (Standing s : getStandings()) ranked.add(s.entrant);
+        List<Match> matches = new ArrayList<>();
+        if (ranked.size() % 2 == 1) {
+            int bye = ranked.size() - 1;
+            while (bye > 0 && standingOf(ranked.get(bye)).byes > 0) bye--;
+            addPairing(matches, round, ranked.remove(bye), null);
+        }
+        while (!ranked.isEmpty()) {
+            Entrant top = ranked.remove(0);
+            int opponent = 0;
+            while (opponent < ranked.size() && played.contains(pairKey(top, ranked.get(opponent)))) opponent++;
+            // Everyone left has already met this entrant: take the closest in the standings anyway.
+            if (opponent == ranked.size()) opponent = 0;
+            addPairing(matches, round, top, ranked.remove(opponent));
+        }
+        return matches;
+    }
+
+    // Pairs neighbours in bracket order; a null neighbour is a bye.
+    private List<Match> eliminationPairings(int round, List<Entrant> alive) {
+        List<Match> matches = new ArrayList<>(alive.size() / 2);
+        for (int i = 0; i + 1 < alive.size(); i += 2) addPairing(matches, round, alive.get(i), alive.get(i + 1));
+        return matches;
+    }
+
+    // Entrants in standard bracket order (1 v 8, 4 v 5, 2 v 7, 3 v 6 for eight), padded with byes for the top seeds.
+    private List<Entrant> bracketOrder() {
+        int size = Integer.highestOneBit(entrants.size() - 1) << 1;
+        List<Integer> order = new ArrayList<>(List.of(1));
+        while (order.size() < size) {
+            List<Integer> next = new ArrayList<>(order.size() * 2);
+            for (int s : order) {
+                next.add(s);
+                next.add(order.size() * 2 + 1 - s);
+            }
+            order = next;
+        }
+        List<Entrant> bracket = new ArrayList<>(size);
+        for (int s : order) bracket.add(s <= entrants.size() ? entrants.get(s - 1) : null);
+        return bracket;
+    }
+
+    private void addPairing(List<Match> matches, int round, Entrant a, Entrant b) {
+        // A bye is always listed second.
+        if (a == null) {
+            a = b;
+            b = null;
+        }
+        if (a == null) return;
+        matches.add(new Match(round, matches.size(), a, b));
+    }
+
+    // Plays a round's matches in parallel; each match only reads the entrants' teams and writes its own counters.
+    private void playRound(List<Match> matches) {
+        pool.invoke(new RoundTask(matches, 0, matches.size()));
+    }
+
+    // Fork-join task that splits a round's matches in halves until few enough remain to play on one thread.
+    private class RoundTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Match> matches;
+        private final int from;
+        private final int to;
+
+        RoundTask(List<Match> matches, int from, int to) {
+            this.matches = matches;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= MATCHES_PER_TASK) {
+                for (int i = from; i < to; i++) play(matches.get(i));
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RoundTask(matches, from, mid), new RoundTask(matches, mid, to));
+        }
+    }
+
+    // Plays a best-of-N series, stopping once one side has a majority; the sides take turns moving first, starting with the first entrant.
+    private void play(Match m) {
+        if (m.second == null) return;
+        long matchSeed = RandomSource.streamSeed(RandomSource.streamSeed(seed, m.round), m.table);
+        int needed = bestOf / 2 + 1;
+        for (int g = 0; g < bestOf && m.gamesFirst < needed && m.gamesSecond < needed; g++) {
+            RandomSource random = RandomSource.forStream(matchSeed, g);
+            boolean firstLeads = g % 2 == 0;
+            int result = firstLeads ? playGame(m.first.team, m.second.team, random) : -playGame(m.second.team, m.first.team, random);
+            if (result > 0) m.gamesFirst++;
+            else if (result < 0) m.gamesSecond++;
+            else m.gamesDrawn++;
+        }
+        // An undecided knockout match goes to the better seed.
+        if (format == Format.SINGLE_ELIMINATION && m.gamesFirst == m.gamesSecond) {
+            m.advancedOnSeed = seedOf(m.first) < seedOf(m.second) ? m.first : m.second;
+        }
+    }
+
+    // One relay game: each side sends in its team in order, a fainted Pokémon is replaced by the next, and the survivor keeps its health points.
+    // Returns 1 if side a wins, -1 if side b wins, and 0 if both run out together. Both sides pick moves at random.
+    static int playGame(List<Pokemon> a, List<Pokemon> b, RandomSource random) {
+        int nextA = 0;
+        int nextB = 0;
+        Pokemon fighterA = BattleEngine.copyForBattle(a.get(nextA++));
+        Pokemon fighterB = BattleEngine.copyForBattle(b.get(nextB++));
+        while (true) {
+            BattleStepper battle = new BattleStepper(fighterA, fighterB, random);
+            while (!battle.isFinished()) {
+                if (battle.isAwaitingPlayer()) battle.choosePlayerMove(OpponentPolicy.RANDOM.chooseMove(fighterA, fighterB, random));
+                battle.step();
+            }
+            // A battle stopped by the turn limit retires both fighters.
+            boolean aOut = battle.outcome() != BattleResult.Outcome.FIRST_WON;
+            boolean bOut = battle.outcome() != BattleResult.Outcome.SECOND_WON;
+            boolean aDone = aOut && nextA == a.size();
+            boolean bDone = bOut && nextB == b.size();
+            if (aDone || bDone) return aDone == bDone ? 0 : (aDone ? -1 : 1);
+            if (aOut) fighterA = BattleEngine.copyForBattle(a.get(nextA++));
+            if (bOut) fighterB = BattleEngine.copyForBattle(b.get(nextB++));
+        }
+    }
+
+    // Folds a played match into both entrants' standings.
+    private void record(Match m) {
+        Standing first = standingOf(m.first);
+        first.matches++;
+        if (m.second == null) {
+            first.byes++;
+            first.wins++;
+            return;
+        }
+        Standing second = standingOf(m.second);
+        second.matches++;
+        played.add(pairKey(m.first, m.second));
+        first.gamesWon += m.gamesFirst;
+        first.gamesLost += m.gamesSecond;
+        second.gamesWon += m.gamesSecond;
+        second.gamesLost += m.gamesFirst;
+        Entrant winner = m.getWinner();
+        if (winner == null) {
+            first.draws++;
+            second.draws++;
+        } else if (winner == m.first) {
+            first.wins++;
+            second.losses++;
+        } else {
+            second.wins++;
+            first.losses++;
+        }
+    }
+
+    private Standing standingOf(Entrant e) {
+        return standingByEntrant.get(e);
+    }
+
+    private int seedOf(Entrant e) {
+        return standingOf(e).seed;
+    }
+
+    private long pairKey(Entrant a, Entrant b) {
+        int seedA = seedOf(a);
+        int seedB = seedOf(b);
+        return ((long) Math.min(seedA, seedB) << 32) | Math.max(seedA, seedB);
+    }
+
+    // Receives each round's results and the standings after it, on the thread that called run().
+    public interface Listener {
+        void roundCompleted(int round, List<Match> matches, List<Standing> standings);
+    }
+
+    // A player taking part, with the team they field; the team is only read, never mutated. Entrants hold no tournament state (seeds and
+    // results are kept in each tournament's standings), so the same entrants can enter several tournaments.
+    public static final class Entrant {
+        private final String name;
+        private final List<Pokemon> team;
+
+        public Entrant(String name, List<Pokemon> team) {
+            if (name == null || name.trim().isEmpty()) throw new IllegalArgumentException("entrant name must not be empty");
+            if (team == null || team.isEmpty()) throw new IllegalArgumentException("entrant " + name + " needs at least one Pokémon");
+            for (Pokemon p : team) {
+                if (p == null) throw new IllegalArgumentException("entrant " + name + " has a null Pokémon");
+            }
+            this.name = name;
+            this.team = List.copyOf(team);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public List<Pokemon> getTeam() {
+            return team;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    // One pairing in a round and, once played, its game score; a null second entrant is a bye.
+    public static final class Match {
+        private final int round;
+        private final int table;
+        private final Entrant first;
+        private final Entrant second;
+        private int gamesFirst;
+        private int gamesSecond;
+        private int gamesDrawn;
+        // Winner of an undecided knockout match, or null.
+        private Entrant advancedOnSeed;
+
+        Match(int round, int table, Entrant first, Entrant second) {
+            this.round = round;
+            this.table = table;
+            this.first = first;
+            this.second = second;
+        }
+
+        public int getRound() {
+            return round;
+        }
+
+        public Entrant getFirst() {
+            return first;
+        }
+
+        public Entrant getSecond() {
+            return second;
+        }
+
+        public int getGamesFirst() {
+            return gamesFirst;
+        }
+
+        public int getGamesSecond() {
+            return gamesSecond;
+        }
+
+        public int getGamesDrawn() {
+            return gamesDrawn;
+        }
+
+        // The match winner, or null for a drawn match; a bye is won by the entrant who had it.
+        public Entrant getWinner() {
+            if (second == null) return first;
+            if (gamesFirst != gamesSecond) return gamesFirst > gamesSecond ? first : second;
+            return advancedOnSeed;
+        }
+
+        @Override
+        public String toString() {
+            if (second == null) return first.getName() + " has a bye";
+            String score = String.format("%s %d-%d %s", first.getName(), gamesFirst, gamesSecond, second.getName());
+            if (gamesDrawn > 0) score += " (" + gamesDrawn + " drawn)";
+            if (advancedOnSeed != null) score += ", " + advancedOnSeed.getName() + " advances on seed";
+            return score;
+        }
+    }
+
+    // One entrant's record so far.
+    public static final class Standing {
+        private final Entrant entrant;
+        private final int seed;
+        private int matches;
+        private int wins;
+        private int draws;
+        private int losses;
+        private int byes;
+        private int gamesWon;
+        private int gamesLost;
+        // Round of a knockout exit, or 0 while still in.
+        private int eliminatedInRound;
+
+        Standing(Entrant entrant, int seed) {
+            this.entrant = entrant;
+            this.seed = seed;
+        }
+
+        public Entrant getEntrant() {
+            return entrant;
+        }
+
+        // 1-based seed, assigned by the tournament from the entrant order.
+        public int getSeed() {
+            return seed;
+        }
+
+        public int getMatches() {
+            return matches;
+        }
+
+        public int getWins() {
+            return wins;
+        }
+
+        public int getDraws() {
+            return draws;
+        }
+
+        public int getLosses() {
+            return losses;
+        }
+
+        public int getGamesWon() {
+            return gamesWon;
+        }
+
+        public int getGamesLost() {
+            return gamesLost;
+        }
+
+        public int getGameDifference() {
+            return gamesWon - gamesLost;
+        }
+
+        public int getPoints() {
+            return wins * WIN_POINTS + draws * DRAW_POINTS;
+        }
+
+        public boolean isEliminated() {
+            return eliminatedInRound > 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-24s %3d pts  W%d D%d L%d  games %d-%d%s", entrant.getName() + " (" + seed + ")", getPoints(), wins, draws, losses,
+                    gamesWon, gamesLost, isEliminated() ? "  out in round " + eliminatedInRound : "");
+        }
+    }
+
+    // Command-line entry point: runs a tournament between every saved player, printing results and standings after each round.
+    // Usage: java Tournament [round-robin|swiss|elimination] [best-of] [active|collection] [record|random] [seed]
+    public static void main(String[] args) {
+        Format format = Format.ROUND_ROBIN;
+        int bestOf = 3;
+        Roster roster = Roster.ACTIVE;
+        Seeding seeding = Seeding.RECORD;
+        long seed = new RandomSource().nextLong();
+        try {
+            if (args.length > 0) format = parseFormat(args[0]);
+            if (args.length > 1) bestOf = Integer.parseInt(args[1].trim());
+            if (args.length > 2) roster = Roster.valueOf(args[2].trim().toUpperCase(Locale.ROOT));
+            if (args.length > 3) seeding = Seeding.valueOf(args[3].trim().toUpperCase(Locale.ROOT));
+            if (args.length > 4) seed = Long.parseLong(args[4].trim());
+        } catch (IllegalArgumentException e) {
+            System.out.println("Usage: java Tournament [round-robin|swiss|elimination] [best-of] [active|collection] [record|random] [seed]");
+            return;
+        }
+
+        List<Entrant> entrants = loadEntrants(roster, seeding, seed);
+        if (entrants.size() < 2) {
+            System.out.println("A tournament needs at least two saved players with a Pokémon; found " + entrants.size() + ".");
+            return;
+        }
+
+        Tournament tournament;
+        try {
+            tournament = new Tournament(entrants, format, bestOf, seed);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            return;
+        }
+        System.out.printf("\n=== %s tournament: %d players, best of %d, %d rounds (seed %d) ===\n",
+                format.name().toLowerCase(Locale.ROOT).replace('_', ' '), entrants.size(), bestOf, tournament.roundCount(), seed);
+
+        long start = System.nanoTime();
+        List<Standing> finalStandings = tournament.run((round, matches, standings) -> {
+            System.out.println("\n--- Round " + round + " ---");
+            for (Match m : matches) System.out.println("  " + m);
+            System.out.println("Standings:");
+            for (int i = 0; i < standings.size(); i++) System.out.printf("%3d. %s\n", i + 1, standings.get(i));
+        });
+        System.out.printf("\nWinner: %s (%.2f s)\n", finalStandings.get(0).getEntrant().getName(), (System.nanoTime() - start) / 1_000_000_000.0);
+    }
+
+    private static Format parseFormat(String arg) {
+        switch (arg.trim().toLowerCase(Locale.ROOT)) {
+            case "round-robin":
+            case "roundrobin":
+                return Format.ROUND_ROBIN;
+            case "swiss":
+                return Format.SWISS;
+            case "elimination":
+            case "single-elimination":
+                return Format.SINGLE_ELIMINATION;
+            default:
+                throw new IllegalArgumentException("unknown format: " + arg);
+        }
+    }
+}
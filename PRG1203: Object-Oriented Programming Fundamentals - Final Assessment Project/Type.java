@@ -1,35 +1,70 @@
 // Enumeration representing the basic Pokémon types supported in the game.
 public enum Type {
 NORMAL, FIRE, WATER, ELECTRIC, GRASS, ICE, FIGHTING, POISON, GROUND, FLYING, PSYCHIC, BUG, ROCK, GHOST, DRAGON, DARK, STEEL, FAIRY;
-    // Convert a string to a Type in a forgiving, case-insensitive way.
+
+// Precomputed alias table: upper-case spellings (all 18 names plus common short forms and synonyms) grouped by length, so a lookup only compares a few candidates.
+private static final int MAX_ALIAS_LENGTH = 16;
+private static final String[][] ALIASES_BY_LENGTH = new String[MAX_ALIAS_LENGTH + 1][];
+private static final Type[][] TYPES_BY_LENGTH = new Type[MAX_ALIAS_LENGTH + 1][];
+
+static {
+    String[] names = new String[values().length + 4];
+    Type[] targets = new Type[names.length];
+    int n = 0;
+    for (Type t : values()) {
+        names[n] = t.name();
+        targets[n++] = t;
+    }
+    names[n] = "ELEC";       targets[n++] = ELECTRIC;
+    names[n] = "ELECTRICAL"; targets[n++] = ELECTRIC;
+    names[n] = "PSY";        targets[n++] = PSYCHIC;
+    names[n] = "FLY";        targets[n++] = FLYING;
+
+    for (int len = 0; len <= MAX_ALIAS_LENGTH; len++) {
+        int count = 0;
+        for (int i = 0; i < n; i++) if (names[i].length() == len) count++;
+        ALIASES_BY_LENGTH[len] = new String[count];
+        TYPES_BY_LENGTH[len] = new Type[count];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            if (names[i].length() == len) {
+                ALIASES_BY_LENGTH[len][k] = names[i];
+                TYPES_BY_LENGTH[len][k++] = targets[i];
+            }
+        }
+    }
+}
+
+    // Convert a string to a Type in a forgiving, case-insensitive way; unknown or missing names resolve to NORMAL.
 public static Type fromString(String s) {
     if (s == null) return NORMAL;
-    String t = s.trim().replace('_', ' ').replaceAll("\\s+", " ").toUpperCase();
-    // Handle a few common short forms and synonyms.
-    switch (t) {
-        case "ELEC":
-        case "ELECTRICAL":
-            return ELECTRIC;
-        case "PSY":
-            return PSYCHIC;
-        case "GRASS":
-            return GRASS;
-        case "POISON":
-            return POISON;
-        case "FLY":
-        case "FLYING":
-            return FLYING;
-        case "STEEL":
-            return STEEL;
-        case "FAIRY":
-            return FAIRY;
-        default:
-            try {
-                return Type.valueOf(t);
-            } catch (IllegalArgumentException e) {
-                return NORMAL;
-            }
+    return fromString(s, 0, s.length());
+}
+
+// Resolves a type name held in any character sequence (e.g. a parser's buffer) without building a substring.
+public static Type fromString(CharSequence s) {
+    if (s == null) return NORMAL;
+    return fromString(s, 0, s.length());
+}
+
+// Resolves the type name in s[start, end): surrounding whitespace is ignored and letters are compared case-insensitively, with no regex, allocation, or exceptions.
+public static Type fromString(CharSequence s, int start, int end) {
+    if (s == null) return NORMAL;
+    while (start < end && s.charAt(start) <= ' ') start++;
+    while (end > start && s.charAt(end - 1) <= ' ') end--;
+
+    int len = end - start;
+    if (len == 0 || len > MAX_ALIAS_LENGTH) return NORMAL;
+
+    // No alias contains spaces or underscores, so any inner separator simply fails to match, as before.
+    String[] candidates = ALIASES_BY_LENGTH[len];
+    for (int c = 0; c < candidates.length; c++) {
+        String alias = candidates[c];
+        int i = 0;
+        while (i < len && Character.toUpperCase(s.charAt(start + i)) == alias.charAt(i)) i++;
+        if (i == len) return TYPES_BY_LENGTH[len][c];
     }
+    return NORMAL;
 }
 
 // Return a user-friendly Title Case name for display.
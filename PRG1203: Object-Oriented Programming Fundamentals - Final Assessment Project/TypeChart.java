@@ -1,29 +1,38 @@
-// Imports for using EnumMap and Map collections.
-import java.util.EnumMap;
-import java.util.Map;
+// Import for resolving a Pokémon's type names into a defender combination.
+import java.util.List;
 
 // Represents the type effectiveness chart for Pokémon battles and stores how effective one type is against another.
 public class TypeChart {
-    // Nested map structure: Attacker type → (defender type → effectiveness multiplier).
-    private static final Map<Type, Map<Type, Double>> chart = new EnumMap<>(Type.class);
+    // Number of types, i.e. the width of each row of the chart.
+    public static final int TYPE_COUNT = Type.values().length;
+
+    // Effectiveness codes stored in the chart, and the multiplier each one stands for.
+    private static final byte NO_EFFECT = 0;
+    private static final byte NOT_EFFECTIVE = 1;
+    private static final byte NORMAL = 2;
+    private static final byte SUPER_EFFECTIVE = 3;
+    private static final double[] MULTIPLIERS = {0.0, 0.5, 1.0, 2.0};
+
+    // Flat attacker × defender table indexed by attacker.ordinal() * TYPE_COUNT + defender.ordinal(); one byte per matchup, no boxing on lookup.
+    private static final byte[] chart = new byte[TYPE_COUNT * TYPE_COUNT];
+
+    // Number of distinct defender combinations: every single type plus every unordered pair of two different types (18 + 153 = 171).
+    public static final int DEFENDER_COMBINATIONS = TYPE_COUNT * (TYPE_COUNT + 1) / 2;
+
+    // Precomputed attacker × defender-combination table indexed by attacker.ordinal() * DEFENDER_COMBINATIONS + defenderIndex(...); each cell is the product of the per-type multipliers.
+    private static final double[] dualChart = new double[TYPE_COUNT * DEFENDER_COMBINATIONS];
 
     static {
-        // Initialise all rows with default 1.0
-        for (Type atk : Type.values()) {
-            Map<Type, Double> row = new EnumMap<>(Type.class);
-            for (Type def : Type.values()) {
-                row.put(def, 1.0);
-            }
-            chart.put(atk, row);
-        }
+        // Initialise all matchups to normal effectiveness (1.0).
+        java.util.Arrays.fill(chart, NORMAL);
 
         // Helper lambdas (methods) to set common multipliers.
         // Super effective = 2.0
-        java.util.function.BiConsumer<Type, Type> superEff = (a, d) -> chart.get(a).put(d, 2.0);
+        java.util.function.BiConsumer<Type, Type> superEff = (a, d) -> chart[a.ordinal() * TYPE_COUNT + d.ordinal()] = SUPER_EFFECTIVE;
         // Not very effective = 0.5
-        java.util.function.BiConsumer<Type, Type> notEff = (a, d) -> chart.get(a).put(d, 0.5);
+        java.util.function.BiConsumer<Type, Type> notEff = (a, d) -> chart[a.ordinal() * TYPE_COUNT + d.ordinal()] = NOT_EFFECTIVE;
         // No effect / immune = 0.0
-        java.util.function.BiConsumer<Type, Type> noEff = (a, d) -> chart.get(a).put(d, 0.0);
+        java.util.function.BiConsumer<Type, Type> noEff = (a, d) -> chart[a.ordinal() * TYPE_COUNT + d.ordinal()] = NO_EFFECT;
 
         // Normal
         notEff.accept(Type.NORMAL, Type.ROCK);
@@ -181,11 +190,55 @@ public class TypeChart {
         notEff.accept(Type.FAIRY, Type.FIRE);
         notEff.accept(Type.FAIRY, Type.POISON);
         notEff.accept(Type.FAIRY, Type.STEEL);
+
+        // Multiply out every attacker against every single- and dual-type defender once, so a hit costs one array read.
+        for (int atk = 0; atk < TYPE_COUNT; atk++) {
+            for (int first = 0; first < TYPE_COUNT; first++) {
+                for (int second = first; second < TYPE_COUNT; second++) {
+                    double eff = getEffectiveness(atk, first);
+                    if (second != first) eff *= getEffectiveness(atk, second);
+                    dualChart[atk * DEFENDER_COMBINATIONS + defenderIndex(first, second)] = eff;
+                }
+            }
+        }
     }
 
-    // Retrieves the effectiveness multiplier for a given attacker → defender type matchup; returns 1.0 if no specific matchup is defined.
+    // Retrieves the effectiveness multiplier for a given attacker → defender type matchup; returns 1.0 if either type is missing.
     public static double getEffectiveness(Type attacker, Type defender) {
         if (attacker == null || defender == null) return 1.0;
-        return chart.getOrDefault(attacker, Map.of()).getOrDefault(defender, 1.0);
+        return MULTIPLIERS[chart[attacker.ordinal() * TYPE_COUNT + defender.ordinal()]];
+    }
+
+    // Fast path for callers that already hold type ordinals: a single array read with no null checks or enum dereference.
+    public static double getEffectiveness(int attackerOrdinal, int defenderOrdinal) {
+        return MULTIPLIERS[chart[attackerOrdinal * TYPE_COUNT + defenderOrdinal]];
+    }
+
+    // Returns the combined multiplier of an attacking type against a defender with one or two types (secondary may be null); each factor is multiplied, so Electric vs Water/Flying is 4.0.
+    public static double getEffectiveness(Type attacker, Type primary, Type secondary) {
+        if (attacker == null) return 1.0;
+        if (primary == null) primary = secondary == null ? Type.NORMAL : secondary;
+        if (secondary == null) secondary = primary;
+        return dualChart[attacker.ordinal() * DEFENDER_COMBINATIONS + defenderIndex(primary.ordinal(), secondary.ordinal())];
+    }
+
+    // Fast path for a precomputed defender combination index (see defenderIndex).
+    public static double getDualEffectiveness(int attackerOrdinal, int defenderIndex) {
+        return dualChart[attackerOrdinal * DEFENDER_COMBINATIONS + defenderIndex];
+    }
+
+    // Maps a pair of defender type ordinals to its combination index in [0, DEFENDER_COMBINATIONS); order does not matter and a pure type is the pair (t, t).
+    public static int defenderIndex(int firstOrdinal, int secondOrdinal) {
+        int lo = Math.min(firstOrdinal, secondOrdinal);
+        int hi = Math.max(firstOrdinal, secondOrdinal);
+        return lo * TYPE_COUNT - lo * (lo - 1) / 2 + (hi - lo);
+    }
+
+    // Resolves up to the first two type names of a Pokémon into a combination index; missing or empty types count as Normal.
+    public static int defenderIndex(List<String> types) {
+        if (types == null || types.isEmpty()) return defenderIndex(Type.NORMAL.ordinal(), Type.NORMAL.ordinal());
+        int first = Type.fromString(types.get(0)).ordinal();
+        int second = types.size() > 1 ? Type.fromString(types.get(1)).ordinal() : first;
+        return defenderIndex(first, second);
     }
 }
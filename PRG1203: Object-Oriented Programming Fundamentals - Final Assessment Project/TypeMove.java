@@ -1,63 +1,71 @@
-import java.util.concurrent.ThreadLocalRandom; // Import for generating random values used in damage variation.
-
-// Represents a type based move that uses the Pokemon type effectiveness chart.
+// Represents a type based move that uses the Pokemon type effectiveness chart. Instances are immutable, so MoveRegistry shares one per move name.
 public class TypeMove implements Move {
+    // Attack multiplier of the generic "<Type> Strike" moves.
+    public static final double DEFAULT_POWER = 1.5;
+
+    private final String name; // Display name, computed once.
     private final Type moveType; // The elemental type of this move.
+    private final double power; // Multiplier applied to the user's attack.
 
-    // Constructs a TypeMove with the specified elemental type.
+    // Constructs the generic "<Type> Strike" move for the specified elemental type.
     public TypeMove(Type moveType) {
+        this(null, moveType, DEFAULT_POWER);
+    }
+
+    // Constructs a named move (e.g. "Vine Whip") with the given type and attack multiplier; a missing name becomes "<Type> Strike."
+    public TypeMove(String name, Type moveType, double power) {
         this.moveType = moveType == null ? Type.NORMAL : moveType;
+        this.name = name == null || name.trim().isEmpty() ? formatDisplay(this.moveType.name()) + " Strike" : name.trim();
+        this.power = power;
     }
 
-    // Returns the display name of the move in the form "Electric Strike."
+    // Returns the display name of the move, e.g. "Electric Strike" or "Vine Whip."
     @Override
     public String name() {
-        return formatDisplay(moveType.name()) + " Strike";
+        return name;
+    }
+
+    // Returns the elemental type of this move.
+    public Type getType() {
+        return moveType;
+    }
+
+    // Returns the multiplier applied to the user's attack.
+    public double getPower() {
+        return power;
     }
 
     // Executes the move, calculates damage, applies it to the target, and returns the damage dealt.
     @Override
-    public int execute(Pokemon user, Pokemon target) {
+    public int execute(Pokemon user, Pokemon target, BattleListener events, RandomSource random) {
         if (user == null || target == null) return 0;
 
         int atk = Math.max(1, user.getAttack());
         int def = Math.max(0, target.getDefense());
 
-        // Determine the target primary type and default to NORMAL when no types are present.
-        Type targetType = Type.NORMAL;
-        if (target.getTypes() != null && !target.getTypes().isEmpty()) {
-            targetType = Type.fromString(target.getTypes().get(0));
-            if (targetType == null) targetType = Type.NORMAL;
-        }
-
-        // Calculate type effectiveness and a random variation factor for damage.
-        double eff = TypeChart.getEffectiveness(moveType, targetType);
-        double randFactor = 0.85 + ThreadLocalRandom.current().nextDouble() * 0.15;
-        int damage = (int) Math.max(1, (atk * 1.5 - def * 0.5) * eff * randFactor);
+        // Calculate effectiveness against every defending type (e.g. Grass and Poison), multiplied together, then roll the damage.
+        double eff = TypeChart.getDualEffectiveness(moveType.ordinal(), target.getDefenderIndex());
+        int damage = damage(atk, def, eff, random.nextDouble());
 
-        System.out.printf("%s used %s!\n", user.getName(), name());
+        // Report the move and its effectiveness; immune targets take no damage.
+        events.moveUsed(user, this);
+        events.effectiveness(user, target, eff);
 
-        if (eff <= 0.0) {
-            System.out.println("It has no effect.");
-            damage = 0;
-        } else if (eff > 1.0) {
-            System.out.println("It is super effective.");
-        } else if (eff < 1.0) {
-            System.out.println("It is not very effective.");
-        }
-
-        if (damage > 0) {
-            target.takeDamage(damage);
-            System.out.printf("%s dealt %d damage to %s.\n", user.getName(), damage, target.getName());
-        } else {
-            System.out.printf("%s dealt no damage to %s.\n", user.getName(), target.getName());
-        }
+        if (damage > 0) target.takeDamage(damage, events);
+        events.damageDealt(user, target, damage);
 
         return damage;
     }
 
+    // Damage for a roll in [0, 1): a random variation factor between 0.85 and 1.0, a minimum of 1, and 0 against immune targets.
+    int damage(int atk, int def, double eff, double roll) {
+        if (eff <= 0.0) return 0;
+        double randFactor = 0.85 + roll * 0.15;
+        return (int) Math.max(1, (atk * power - def * 0.5) * eff * randFactor);
+    }
+
     // Helper method to convert an enum name such as "ELECTRIC" to title case "Electric."
-    private String formatDisplay(String raw) {
+    private static String formatDisplay(String raw) {
         if (raw == null) return "";
         String s = raw.trim().replace('_', ' ').toLowerCase();
         if (s.isEmpty()) return "";
@@ -0,0 +1,212 @@
+// Imports for reading move lists.
+import java.util.List;
+
+// Exact solver for 1v1 battles with random move choice, as BattleEngine and wild opponents play them.
+// A battle is a Markov chain over (first HP, second HP, whose turn): each side picks one of its moves uniformly and deals damage drawn from
+// DamageCalculator's exact distribution (Struggle, with its recoil, when it has no moves). Health points only fall, so every state depends only on
+// states with less total health, except through rolls that change nothing (e.g. an immune target); that self-loop is solved in closed form.
+// State values are kept in flat double arrays indexed by the packed (first HP, second HP) pair and filled bottom-up in a single pass.
+// The only difference from BattleEngine is its MAX_TURNS cap, which matters only when neither side can ever deal damage (reported as a certain draw).
+public final class WinProbabilitySolver {
+
+    private WinProbabilitySolver() {
+    }
+
+    // Exact results for every pair of health points up to the fighters' maximums.
+    public static final class Solution {
+        private final int maxHpFirst;
+        private final int maxHpSecond;
+        private final double[] firstWins;
+        private final double[] secondWins;
+        private final double[] turns;
+
+        Solution(int maxHpFirst, int maxHpSecond, double[] firstWins, double[] secondWins, double[] turns) {
+            this.maxHpFirst = maxHpFirst;
+            this.maxHpSecond = maxHpSecond;
+            this.firstWins = firstWins;
+            this.secondWins = secondWins;
+            this.turns = turns;
+        }
+
+        // Chance that the first fighter wins a battle that starts at full health.
+        public double firstWinProbability() {
+            return firstWinProbability(maxHpFirst, maxHpSecond);
+        }
+
+        // Chance that the second fighter wins a battle that starts at full health.
+        public double secondWinProbability() {
+            return secondWinProbability(maxHpFirst, maxHpSecond);
+        }
+
+        // Chance that both fighters faint in the same move (e.g. from Struggle recoil) or neither can ever deal damage.
+        public double drawProbability() {
+            return drawProbability(maxHpFirst, maxHpSecond);
+        }
+
+        // Expected number of turns (one move by each side) of a battle that starts at full health.
+        public double expectedTurns() {
+            return expectedTurns(maxHpFirst, maxHpSecond);
+        }
+
+        // Chance that the first fighter wins from the given health points, with the first fighter to move.
+        public double firstWinProbability(int hpFirst, int hpSecond) {
+            if (hpFirst <= 0 || hpSecond <= 0) return hpSecond <= 0 && hpFirst > 0 ? 1.0 : 0.0;
+            return firstWins[index(hpFirst, hpSecond)];
+        }
+
+        // Chance that the second fighter wins from the given health points, with the first fighter to move.
+        public double secondWinProbability(int hpFirst, int hpSecond) {
+            if (hpFirst <= 0 || hpSecond <= 0) return hpFirst <= 0 && hpSecond > 0 ? 1.0 : 0.0;
+            return secondWins[index(hpFirst, hpSecond)];
+        }
+
+        // Chance of a draw from the given health points, with the first fighter to move.
+        public double drawProbability(int hpFirst, int hpSecond) {
+            return Math.max(0.0, 1.0 - firstWinProbability(hpFirst, hpSecond) - secondWinProbability(hpFirst, hpSecond));
+        }
+
+        // Expected number of remaining turns from the given health points, with the first fighter to move.
+        public double expectedTurns(int hpFirst, int hpSecond) {
+            if (hpFirst <= 0 || hpSecond <= 0) return 0.0;
+            return turns[index(hpFirst, hpSecond)];
+        }
+
+        private int index(int hpFirst, int hpSecond) {
+            if (hpFirst > maxHpFirst || hpSecond > maxHpSecond) {
+                throw new IllegalArgumentException("health points above the solved maximum: " + hpFirst + ", " + hpSecond);
+            }
+            return hpFirst * (maxHpSecond + 1) + hpSecond;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("First wins: %.4f%%, second wins: %.4f%%, draws: %.4f%%, expected turns: %.4f",
+                    firstWinProbability() * 100, secondWinProbability() * 100, drawProbability() * 100, expectedTurns());
+        }
+    }
+
+    // Solves the battle between the two fighters from full health, with the first fighter moving first (as in BattleEngine.fight).
+    public static Solution solve(Pokemon first, Pokemon second) {
+        int hpA = Math.max(0, first.getMaxHp());
+        int hpB = Math.max(0, second.getMaxHp());
+        Outcomes byFirst = Outcomes.of(first, second);
+        Outcomes bySecond = Outcomes.of(second, first);
+
+        int stride = hpB + 1;
+        int size = (hpA + 1) * stride;
+        // Values at the start of a turn (first fighter to move) and mid-turn (second fighter to move) for every live state.
+        double[] winA = new double[size];
+        double[] winB = new double[size];
+        double[] turns = new double[size];
+        double[] midWinA = new double[size];
+        double[] midWinB = new double[size];
+        double[] midTurns = new double[size];
+
+        double stayA = byFirst.zeroProbability;
+        double stayB = bySecond.zeroProbability;
+        double loop = stayA * stayB;
+
+        for (int a = 1; a <= hpA; a++) {
+            for (int b = 1; b <= hpB; b++) {
+                int s = a * stride + b;
+
+                // Second fighter's move from the mid-turn state, excluding rolls that change nothing.
+                double yWinA = 0, yWinB = 0, yTurns = 0;
+                for (int i = 0; i < bySecond.count; i++) {
+                    double p = bySecond.probability[i];
+                    int na = a - bySecond.damage[i];
+                    int nb = b - bySecond.recoil[i];
+                    if (na <= 0 || nb <= 0) {
+                        if (nb > 0) yWinB += p;
+                        else if (na > 0) yWinA += p;
+                    } else {
+                        int n = na * stride + nb;
+                        yWinA += p * winA[n];
+                        yWinB += p * winB[n];
+                        yTurns += p * turns[n];
+                    }
+                }
+
+                // First fighter's move from the start of the turn, excluding rolls that change nothing.
+                double xWinA = 0, xWinB = 0, xTurns = 0;
+                for (int i = 0; i < byFirst.count; i++) {
+                    double p = byFirst.probability[i];
+                    int na = a - byFirst.recoil[i];
+                    int nb = b - byFirst.damage[i];
+                    if (na <= 0 || nb <= 0) {
+                        if (na > 0) xWinA += p;
+                        else if (nb > 0) xWinB += p;
+                    } else {
+                        int n = na * stride + nb;
+                        xWinA += p * midWinA[n];
+                        xWinB += p * midWinB[n];
+                        xTurns += p * midTurns[n];
+                    }
+                }
+
+                // Close the self-loop: V = X + stayA * M and M = Y + stayB * V, so V = (X + stayA * Y) / (1 - stayA * stayB).
+                if (loop >= 1.0) {
+                    winA[s] = 0.0;
+                    winB[s] = 0.0;
+                    turns[s] = BattleEngine.MAX_TURNS;
+                } else {
+                    winA[s] = (xWinA + stayA * yWinA) / (1.0 - loop);
+                    winB[s] = (xWinB + stayA * yWinB) / (1.0 - loop);
+                    turns[s] = (1.0 + xTurns + stayA * yTurns) / (1.0 - loop);
+                }
+                midWinA[s] = yWinA + stayB * winA[s];
+                midWinB[s] = yWinB + stayB * winB[s];
+                midTurns[s] = yTurns + stayB * turns[s];
+            }
+        }
+        return new Solution(hpA, hpB, winA, winB, turns);
+    }
+
+    // One side's move outcomes as parallel arrays of (damage to the foe, recoil to itself, probability); rolls that change nothing are kept apart.
+    private static final class Outcomes {
+        int count;
+        int[] damage;
+        int[] recoil;
+        double[] probability;
+        double zeroProbability;
+
+        // Mixes the damage distributions of the attacker's moves, each chosen with equal chance; only Struggle has recoil.
+        static Outcomes of(Pokemon attacker, Pokemon target) {
+            Outcomes out = new Outcomes();
+            List<Move> moves = attacker.getMoves();
+            if (moves == null || moves.isEmpty()) {
+                int dmg = Struggle.damage(attacker.getAttack());
+                out.count = 1;
+                out.damage = new int[] {dmg};
+                out.recoil = new int[] {Math.max(1, dmg / 4)};
+                out.probability = new double[] {1.0};
+                return out;
+            }
+
+            DamageDistribution[] dists = new DamageDistribution[moves.size()];
+            int maxDamage = 0;
+            for (int m = 0; m < dists.length; m++) {
+                dists[m] = DamageCalculator.distribution(attacker, moves.get(m), target);
+                maxDamage = Math.max(maxDamage, dists[m].getMaxDamage());
+            }
+            double pick = 1.0 / dists.length;
+            double[] byDamage = new double[maxDamage + 1];
+            for (DamageDistribution dist : dists) {
+                for (int d = dist.getMinDamage(); d <= dist.getMaxDamage(); d++) byDamage[d] += pick * dist.probability(d);
+            }
+
+            out.zeroProbability = byDamage[0];
+            for (int d = 1; d <= maxDamage; d++) if (byDamage[d] > 0) out.count++;
+            out.damage = new int[out.count];
+            out.recoil = new int[out.count];
+            out.probability = new double[out.count];
+            int i = 0;
+            for (int d = 1; d <= maxDamage; d++) {
+                if (byDamage[d] == 0) continue;
+                out.damage[i] = d;
+                out.probability[i++] = byDamage[d];
+            }
+            return out;
+        }
+    }
+}
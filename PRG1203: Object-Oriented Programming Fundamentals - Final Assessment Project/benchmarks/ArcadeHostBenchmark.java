@@ -0,0 +1,74 @@
+// Imports for idle session streams and waiting on the sessions.
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.CountDownLatch;
+
+// Opens many idle ArcadeHost sessions that wait at the first prompt, reports the heap they use, then closes them.
+// Usage: java ArcadeHostBenchmark [sessions]
+public class ArcadeHostBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int count = 10_000;
+        try {
+            if (args.length > 0) count = Integer.parseInt(args[0].trim());
+        } catch (NumberFormatException e) {
+            System.out.println("Usage: java ArcadeHostBenchmark [sessions]");
+            return;
+        }
+
+        // Load the shared data up front so it is not counted as per-session memory.
+        Pokedex.shared();
+        MoveRegistry.tackle();
+        long before = usedHeap();
+
+        ArcadeHost host = new ArcadeHost();
+        CountDownLatch waiting = new CountDownLatch(count);
+        CountDownLatch release = new CountDownLatch(1);
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) host.startSession(new IdleInput(waiting, release), OutputStream.nullOutputStream());
+        waiting.await();
+        double millis = (System.nanoTime() - start) / 1_000_000.0;
+        long after = usedHeap();
+
+        System.out.printf("%d idle sessions on %s threads, all waiting for input after %.0f ms\n",
+                host.activeSessions(), host.isUsingVirtualThreads() ? "virtual" : "platform", millis);
+        System.out.printf("Heap in use: %.1f MiB for the sessions (%.1f KiB each)\n", (after - before) / 1048576.0, (after - before) / 1024.0 / count);
+
+        release.countDown();
+        host.awaitSessions();
+        System.out.println("All sessions closed; " + host.activeSessions() + " still running.");
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    // Input of a player who never types: the first read reports the session as waiting, then blocks until released and signals end of input.
+    private static final class IdleInput extends InputStream {
+        private final CountDownLatch waiting;
+        private final CountDownLatch release;
+
+        IdleInput(CountDownLatch waiting, CountDownLatch release) {
+            this.waiting = waiting;
+            this.release = release;
+        }
+
+        @Override
+        public int read() {
+            return read(new byte[1], 0, 1);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            waiting.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+// Imports for scripted session streams.
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+// Regression check for sessions that end by dropping their input: a player who creates or loads a profile and then disconnects mid-game
+// must be able to reconnect to it at once, in the same host. Also checks that loading reports to the player's own stream. Uses a profile
+// named "Reconnect Check" in saves/, deleted afterwards. Exits with status 1 on failure, so a build script can fail on it.
+// Usage: java ArcadeReconnectCheck
+public final class ArcadeReconnectCheck {
+
+    private static final String PROFILE = "Reconnect Check";
+
+    public static void main(String[] args) throws InterruptedException {
+        ArcadeHost host = new ArcadeHost();
+        JsonSaveSystem.deletePlayerSave(PROFILE);
+        boolean passed = true;
+        try {
+            // Create the profile, then drop at the first in-game prompt.
+            String created = session(host, "1\n" + PROFILE + "\n");
+            passed &= check("new profile, dropped", created.contains("Welcome, Trainer " + PROFILE + "!"));
+
+            // Each reconnect must find the profile free, load it in the player's stream, and drop again.
+            for (int i = 1; i <= 2; i++) {
+                String loaded = session(host, "2\n" + (JsonSaveSystem.getExistingPlayers().indexOf(PROFILE) + 1) + "\n");
+                passed &= check("reconnect " + i, loaded.contains("Game loaded successfully! Welcome back, " + PROFILE + "!")
+                        && !loaded.contains("already being played"));
+            }
+
+            try {
+                PlayerJournal.ProfileLock.acquire(PROFILE).close();
+                passed &= check("lock free after the sessions", true);
+            } catch (Exception e) {
+                passed &= check("lock free after the sessions (" + e.getMessage() + ")", false);
+            }
+        } finally {
+            JsonSaveSystem.deletePlayerSave(PROFILE);
+        }
+
+        if (!passed) {
+            System.out.println("FAILED: a dropped session kept its profile.");
+            System.exit(1);
+        }
+        System.out.println("Passed.");
+    }
+
+    // Runs one session on the host with the given input, which ends (as a dropped connection does) after the last line; returns its output.
+    private static String session(ArcadeHost host, String input) throws InterruptedException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        host.startSession(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), out).join();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static boolean check(String name, boolean ok) {
+        System.out.printf("%-40s %s\n", name, ok ? "ok" : "FAILED");
+        return ok;
+    }
+}
@@ -0,0 +1,77 @@
+// Compares whole battles on the object-based BattleEngine against the struct-of-arrays BatchBattleKernel, scalar and (when available) vectorised.
+// First checks, battle by battle, that the kernel plays out exactly as BattleEngine.fight on the same random stream, for matchups covering
+// two, three and no moves (the Struggle fallback), Struggle in a move list, and an immune defender.
+// Run with --add-modules jdk.incubator.vector, and vector/VectorBattleStep.java on the class path, to include the Vector API pass.
+public class BatchBattleKernelBenchmark {
+
+    // Battle slots per kernel, and battles per measured operation (so kernel setup is spread over a full batch, as in real use).
+    private static final int SLOTS = 4096;
+    // Battles compared one by one per matchup.
+    private static final int CHECKED_BATTLES = 1000;
+
+    public static void main(String[] args) {
+        Pokemon pikachu = SampleFighters.pikachu();
+        Pokemon bulbasaur = SampleFighters.bulbasaur();
+        Pokemon charmander = SampleFighters.charmander();
+        Pokemon magikarp = SampleFighters.magikarp();
+        Pokemon gastly = SampleFighters.gastly();
+
+        System.out.println("=== Battle-by-battle check against BattleEngine (" + CHECKED_BATTLES + " battles per matchup) ===");
+        Pokemon[][] matchups = {{pikachu, bulbasaur}, {charmander, bulbasaur}, {magikarp, charmander}, {charmander, magikarp},
+                {gastly, charmander}, {charmander, gastly}, {magikarp, gastly}};
+        for (Pokemon[] m : matchups) {
+            System.out.println(m[0].getName() + " vs " + m[1].getName() + ": " + check(new BatchBattleKernel(CHECKED_BATTLES), m[0], m[1])
+                    + (BatchBattleKernel.isVectorAvailable() ? ", vector pass " + check(new BatchBattleKernel(CHECKED_BATTLES, true), m[0], m[1]) : ""));
+        }
+
+        System.out.println("=== " + SLOTS + " battles per operation: " + pikachu.getName() + " vs " + bulbasaur.getName() + " ===");
+        BattleEngine engine = new BattleEngine();
+        RandomSource random = new RandomSource(0);
+        MicroBenchmark.run("battleEngineFight", n -> {
+            long wins = 0;
+            for (long i = 0; i < n * SLOTS; i++) {
+                random.reseed(RandomSource.streamSeed(1, i));
+                if (engine.fight(pikachu, bulbasaur, random).getOutcome() == BattleResult.Outcome.FIRST_WON) wins++;
+            }
+            return wins;
+        });
+
+        BatchBattleKernel scalar = new BatchBattleKernel(SLOTS, false);
+        MicroBenchmark.run("batchKernelScalar", n -> firstWins(scalar, pikachu, bulbasaur, n));
+
+        if (BatchBattleKernel.isVectorAvailable()) {
+            BatchBattleKernel vector = new BatchBattleKernel(SLOTS, true);
+            MicroBenchmark.run("batchKernelVector", n -> firstWins(vector, pikachu, bulbasaur, n));
+        } else {
+            System.out.println("batchKernelVector: skipped (jdk.incubator.vector or VectorBattleStep not available)");
+        }
+    }
+
+    // Plays the same battles on the kernel and on BattleEngine and reports how many differ in any field of their results.
+    private static String check(BatchBattleKernel kernel, Pokemon first, Pokemon second) {
+        long seed = 42;
+        for (int i = 0; i < kernel.slots(); i++) kernel.load(i, first, second, RandomSource.streamSeed(seed, i));
+        kernel.runToCompletion();
+        BattleEngine engine = new BattleEngine();
+        int different = 0;
+        for (int i = 0; i < kernel.slots(); i++) {
+            if (!same(kernel.result(i), engine.fight(first, second, RandomSource.forStream(seed, i)))) different++;
+        }
+        return different == 0 ? "all identical" : different + " DIFFERENT";
+    }
+
+    private static boolean same(BattleResult a, BattleResult b) {
+        return a.getOutcome() == b.getOutcome() && a.getTurns() == b.getTurns() && a.getDamageByFirst() == b.getDamageByFirst()
+                && a.getDamageBySecond() == b.getDamageBySecond() && a.getHitsByFirst() == b.getHitsByFirst() && a.getHitsBySecond() == b.getHitsBySecond();
+    }
+
+    // Runs n full batches on the kernel and returns the first fighter's wins as the checksum.
+    private static long firstWins(BatchBattleKernel kernel, Pokemon first, Pokemon second, long n) {
+        long wins = 0;
+        for (long i = 0; i < n; i++) {
+            SimulationStats stats = kernel.simulate(first, second, SLOTS, i);
+            wins += Math.round(stats.getFirstWinRate() * stats.getBattles());
+        }
+        return wins;
+    }
+}
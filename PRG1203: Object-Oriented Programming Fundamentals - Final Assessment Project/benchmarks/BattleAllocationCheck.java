@@ -0,0 +1,78 @@
+// Imports for per-thread allocation counters.
+import java.lang.management.ManagementFactory;
+
+// Allocation regression check for the battle hot path: once warmed up, BattleEngine must play battles (move choice, Move.execute, damage,
+// faint checks, recording into SimulationStats) without allocating. Exits with status 1 when a run goes over budget, so a build script can fail on it.
+// Uses com.sun.management.ThreadMXBean, which HotSpot-based JDKs provide. Usage: java BattleAllocationCheck [battles]
+public final class BattleAllocationCheck {
+
+    // Bytes a whole measured run may allocate; this covers the counter reads themselves, not anything per battle or per turn.
+    private static final long BUDGET_BYTES = 1024;
+
+    private static final int WARMUP_BATTLES = 200_000;
+
+    public static void main(String[] args) {
+        int battles = 100_000;
+        try {
+            if (args.length > 0) battles = Integer.parseInt(args[0].trim());
+        } catch (NumberFormatException e) {
+            System.out.println("Usage: java BattleAllocationCheck [battles]");
+            return;
+        }
+
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            System.out.println("Allocation counters are not available on this JVM; skipping.");
+            return;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            System.out.println("Allocation counters are not supported on this JVM; skipping.");
+            return;
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        Pokemon pikachu = SampleFighters.pikachu();
+        Pokemon bulbasaur = SampleFighters.bulbasaur();
+
+        // A fighter with no moves, so the Struggle path is covered as well.
+        Pokemon magikarp = SampleFighters.magikarp();
+
+        boolean passed = true;
+        passed &= check(threads, "silent listener", new BattleEngine(), pikachu, bulbasaur, battles);
+        passed &= check(threads, "event log listener", new BattleEngine(new BattleEventLog(256)), pikachu, bulbasaur, battles);
+        passed &= check(threads, "struggle", new BattleEngine(), magikarp, bulbasaur, battles);
+
+        if (!passed) {
+            System.out.println("FAILED: the battle hot path allocated more than " + BUDGET_BYTES + " bytes.");
+            System.exit(1);
+        }
+        System.out.println("Passed.");
+    }
+
+    // Warms the engine up, then measures the bytes this thread allocates while playing the given number of battles.
+    private static boolean check(com.sun.management.ThreadMXBean threads, String name, BattleEngine engine,
+                                 Pokemon first, Pokemon second, int battles) {
+        RandomSource random = new RandomSource(0);
+        play(engine, first, second, random, new SimulationStats(), 0, WARMUP_BATTLES);
+
+        SimulationStats stats = new SimulationStats();
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        play(engine, first, second, random, stats, WARMUP_BATTLES, battles);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        boolean ok = allocated <= BUDGET_BYTES;
+        System.out.printf("%-20s %,d battles (%,d turns): %,d bytes allocated (budget %,d) %s\n",
+                name, battles, Math.round(stats.getMeanTurns() * stats.getBattles()), allocated, BUDGET_BYTES, ok ? "ok" : "OVER BUDGET");
+        return ok;
+    }
+
+    // Plays battles [from, from + count) of a fixed seed into the statistics.
+    private static void play(BattleEngine engine, Pokemon first, Pokemon second, RandomSource random, SimulationStats stats, int from, int count) {
+        for (int i = from; i < from + count; i++) {
+            random.reseed(RandomSource.streamSeed(1, i));
+            engine.fight(first, second, random, stats);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+// Determinism check for BattleReplay: records battles of the sample matchup (SampleFighters) with random player choices, replays every one,
+// and requires each replay to reproduce its battle's outcome, turns and damage exactly; also reports the replays' size and replay speed.
+// Exits with status 1 on any mismatch, so a build script can fail on it. Usage: java BattleReplayCheck [battles]
+public final class BattleReplayCheck {
+
+    public static void main(String[] args) {
+        int battles = 100_000;
+        try {
+            if (args.length > 0) battles = Integer.parseInt(args[0].trim());
+        } catch (NumberFormatException e) {
+            System.out.println("Usage: java BattleReplayCheck [battles]");
+            return;
+        }
+
+        Pokemon pikachu = SampleFighters.pikachu();
+        Pokemon bulbasaur = SampleFighters.bulbasaur();
+
+        // Record battles with random player choices, keeping each result to compare against its replay.
+        RandomSource players = new RandomSource(7);
+        BattleReplay[] replays = new BattleReplay[battles];
+        BattleResult[] results = new BattleResult[battles];
+        long bytes = 0;
+        long moveBytes = 0;
+        long turns = 0;
+        for (int i = 0; i < battles; i++) {
+            BattleStepper stepper = new BattleStepper(BattleEngine.copyForBattle(pikachu), BattleEngine.copyForBattle(bulbasaur), RandomSource.forStream(1, i));
+            BattleReplay.Recorder recorder = BattleReplay.record(stepper);
+            while (!stepper.isFinished()) {
+                if (stepper.isAwaitingPlayer()) stepper.choosePlayerMove(players.nextInt(pikachu.getMoves().size()));
+                stepper.step();
+            }
+            replays[i] = recorder.toReplay();
+            results[i] = stepper.result();
+            bytes += replays[i].size();
+            moveBytes += (replays[i].getMoveCount() + 3) / 4;
+            turns += results[i].getTurns();
+        }
+
+        long start = System.nanoTime();
+        int mismatches = 0;
+        for (int i = 0; i < battles; i++) {
+            BattleResult r = replays[i].replay();
+            if (r.getOutcome() != results[i].getOutcome() || r.getTurns() != results[i].getTurns()
+                    || r.getDamageByFirst() != results[i].getDamageByFirst() || r.getDamageBySecond() != results[i].getDamageBySecond()) {
+                mismatches++;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        System.out.println("=== " + battles + " recorded battles: " + pikachu.getName() + " vs " + bulbasaur.getName() + " ===");
+        System.out.printf("Size: %.1f bytes per battle, %.2f bytes per turn beyond the header\n", (double) bytes / battles, (double) moveBytes / turns);
+        System.out.printf("Replayed %.0f battles per second, %d mismatches\n", battles / seconds, mismatches);
+
+        if (mismatches > 0) {
+            System.out.println("FAILED: " + mismatches + " replays did not reproduce their battle.");
+            System.exit(1);
+        }
+        System.out.println("Passed.");
+    }
+}
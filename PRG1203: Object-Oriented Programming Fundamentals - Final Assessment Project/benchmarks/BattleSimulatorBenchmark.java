@@ -0,0 +1,33 @@
+// Imports for reporting the pool's parallelism.
+import java.util.concurrent.ForkJoinPool;
+
+// Simulates the sample matchup (SampleFighters) with BattleSimulator on the common pool and reports throughput.
+// Usage: java BattleSimulatorBenchmark [battles] [seed]
+public class BattleSimulatorBenchmark {
+
+    public static void main(String[] args) {
+        int battles = 1_000_000;
+        long seed = new RandomSource().nextLong();
+        try {
+            if (args.length > 0) battles = Integer.parseInt(args[0].trim());
+            if (args.length > 1) seed = Long.parseLong(args[1].trim());
+        } catch (NumberFormatException e) {
+            System.out.println("Usage: java BattleSimulatorBenchmark [battles] [seed]");
+            return;
+        }
+
+        Pokemon pikachu = SampleFighters.pikachu();
+        Pokemon bulbasaur = SampleFighters.bulbasaur();
+
+        BattleSimulator simulator = new BattleSimulator(ForkJoinPool.commonPool());
+        long start = System.nanoTime();
+        SimulationStats stats = simulator.simulate(pikachu, bulbasaur, battles, seed);
+        long elapsedNanos = System.nanoTime() - start;
+
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.println("=== " + pikachu.getName() + " vs " + bulbasaur.getName() + " (seed " + seed + ") ===");
+        System.out.println(stats);
+        System.out.printf("Elapsed: %.2f s on %d threads (%.0f battles per minute)\n",
+                seconds, ForkJoinPool.commonPool().getParallelism(), battles / seconds * 60);
+    }
+}
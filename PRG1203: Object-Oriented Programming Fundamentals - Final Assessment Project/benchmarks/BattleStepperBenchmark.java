@@ -0,0 +1,50 @@
+// Imports for the list of live battles.
+import java.util.ArrayList;
+import java.util.List;
+
+// Drives many BattleStepper battles of the sample matchup (SampleFighters) from one thread, picking each player move at random as it is
+// asked for, and reports the cost per step. Usage: java BattleStepperBenchmark [battles]
+public class BattleStepperBenchmark {
+
+    public static void main(String[] args) {
+        int battles = 10_000;
+        try {
+            if (args.length > 0) battles = Integer.parseInt(args[0].trim());
+        } catch (NumberFormatException e) {
+            System.out.println("Usage: java BattleStepperBenchmark [battles]");
+            return;
+        }
+
+        Pokemon pikachu = SampleFighters.pikachu();
+        Pokemon bulbasaur = SampleFighters.bulbasaur();
+
+        long start = System.nanoTime();
+        List<BattleStepper> live = new ArrayList<>();
+        for (int i = 0; i < battles; i++) {
+            live.add(new BattleStepper(BattleEngine.copyForBattle(pikachu), BattleEngine.copyForBattle(bulbasaur), RandomSource.forStream(1, i)));
+        }
+
+        // Round-robin scheduler: one move per battle per pass, answering any battle that waits for its player.
+        RandomSource players = new RandomSource(2);
+        SimulationStats stats = new SimulationStats();
+        long steps = 0;
+        while (!live.isEmpty()) {
+            for (int i = live.size() - 1; i >= 0; i--) {
+                BattleStepper battle = live.get(i);
+                if (battle.isAwaitingPlayer()) battle.choosePlayerMove(players.nextInt(battle.getPlayerPokemon().getMoves().size()));
+                if (battle.step()) steps++;
+                if (battle.isFinished()) {
+                    stats.record(battle.result());
+                    // Swap-remove keeps each pass linear.
+                    live.set(i, live.get(live.size() - 1));
+                    live.remove(live.size() - 1);
+                }
+            }
+        }
+        double millis = (System.nanoTime() - start) / 1_000_000.0;
+
+        System.out.println("=== " + battles + " interleaved battles on one thread: " + pikachu.getName() + " vs " + bulbasaur.getName() + " ===");
+        System.out.println(stats);
+        System.out.printf("Elapsed: %.1f ms for %d steps (%.0f ns per step)\n", millis, steps, millis * 1_000_000 / steps);
+    }
+}
@@ -0,0 +1,139 @@
+// Imports for silencing console output, writing the results file, and building sample data.
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongUnaryOperator;
+
+// Regression suite over the game's hot paths: type effectiveness, move execution, battle turns, Pokédex parsing, save round trips, and duplicate lookup.
+// Every result is printed and also written as JSON (see MicroBenchmark.writeJson) so runs can be compared over time.
+// Run from this folder after compiling the game and benchmarks together. Usage: java GameBenchmarks [results.json] [pokedex.json]
+public class GameBenchmarks {
+
+    // Size of the collection searched by the duplicate-lookup benchmark.
+    private static final int COLLECTION_SIZE = 10_000;
+
+    // Pokémon in the save file written by the save round trip, a typical late-game collection.
+    private static final int SAVED_POKEMON = 100;
+
+    private static final String SAVE_PLAYER = "benchmark player";
+
+    // Swallows the status lines that loading and saving print, so they do not flood the results.
+    private static final PrintStream QUIET = new PrintStream(OutputStream.nullOutputStream());
+
+    public static void main(String[] args) throws IOException {
+        String resultsPath = args.length > 0 ? args[0] : "benchmark-results.json";
+        String pokedexPath = args.length > 1 ? args[1] : "pokemon.json";
+        List<MicroBenchmark.Result> results = new ArrayList<>();
+
+        Pokemon pikachu = SampleFighters.pikachu();
+        Pokemon bulbasaur = SampleFighters.bulbasaur();
+
+        System.out.println("=== Type chart ===");
+        Type[] types = Type.values();
+        results.add(MicroBenchmark.run("typeChartGetEffectiveness", n -> {
+            double sum = 0;
+            for (long i = 0; i < n; i++) {
+                sum += TypeChart.getEffectiveness(types[(int) (i % types.length)], types[(int) ((i / types.length) % types.length)]);
+            }
+            return (long) sum;
+        }));
+
+        System.out.println("=== Moves and battles ===");
+        Move strike = MoveRegistry.strike(Type.ELECTRIC);
+        Pokemon user = BattleEngine.copyForBattle(pikachu);
+        Pokemon target = BattleEngine.copyForBattle(bulbasaur);
+        RandomSource moveRandom = new RandomSource(1);
+        results.add(MicroBenchmark.run("typeMoveExecute", n -> {
+            long dealt = 0;
+            for (long i = 0; i < n; i++) {
+                target.setHp(target.getMaxHp());
+                dealt += strike.execute(user, target, BattleListener.NONE, moveRandom);
+            }
+            return dealt;
+        }));
+
+        // One operation is one move of a stepped battle; a finished battle is replaced by a fresh one.
+        RandomSource battleRandom = new RandomSource(2);
+        BattleStepper[] battle = {newBattle(pikachu, bulbasaur, battleRandom)};
+        results.add(MicroBenchmark.run("battleTurn", n -> {
+            long moves = 0;
+            for (long i = 0; i < n; i++) {
+                if (battle[0].isFinished()) battle[0] = newBattle(pikachu, bulbasaur, battleRandom);
+                if (battle[0].isAwaitingPlayer()) battle[0].choosePlayerMove(battleRandom.nextInt(2));
+                if (battle[0].step()) moves++;
+            }
+            return moves;
+        }));
+
+        System.out.println("=== Pokédex ===");
+        results.add(MicroBenchmark.run("pokedexLoad", quietly(n -> {
+            long entries = 0;
+            for (long i = 0; i < n; i++) entries += Pokedex.load(pokedexPath).size();
+            return entries;
+        })));
+
+        System.out.println("=== Saves ===");
+        Player saved = new Player(SAVE_PLAYER);
+        for (int i = 0; i < SAVED_POKEMON; i++) saved.addPokemon(sample(i));
+        results.add(MicroBenchmark.run("jsonSaveLoadRoundTrip", quietly(n -> {
+            long loaded = 0;
+            for (long i = 0; i < n; i++) {
+                JsonSaveSystem.saveGame(saved);
+                loaded += JsonSaveSystem.loadGame(SAVE_PLAYER).getPokemons().size();
+            }
+            return loaded;
+        })));
+        JsonSaveSystem.deletePlayerSave(SAVE_PLAYER);
+
+        System.out.println("=== Player collection ===");
+        Player collector = new Player("collector");
+        for (int i = 0; i < COLLECTION_SIZE; i++) collector.addPokemon(sample(i));
+        Pokemon last = sample(COLLECTION_SIZE - 1);
+        Pokemon missing = sample(COLLECTION_SIZE);
+        results.add(MicroBenchmark.run("indexOfEquivalentLast" + COLLECTION_SIZE, n -> {
+            long found = 0;
+            for (long i = 0; i < n; i++) found += collector.indexOfEquivalent(last);
+            return found;
+        }));
+        results.add(MicroBenchmark.run("indexOfEquivalentMissing" + COLLECTION_SIZE, n -> {
+            long found = 0;
+            for (long i = 0; i < n; i++) found += collector.indexOfEquivalent(missing);
+            return found;
+        }));
+
+        MicroBenchmark.writeJson(results, Paths.get(resultsPath));
+        System.out.println("Results written to " + resultsPath);
+    }
+
+    // A fresh battle between copies of the templates.
+    private static BattleStepper newBattle(Pokemon first, Pokemon second, RandomSource random) {
+        return new BattleStepper(BattleEngine.copyForBattle(first), BattleEngine.copyForBattle(second), random);
+    }
+
+    // A distinct Pokémon per index, so equivalence checks have to look at the stats rather than stop at the id.
+    private static Pokemon sample(int i) {
+        Type[] types = Type.values();
+        Pokemon p = new Pokemon("Sample " + i, new ArrayList<>(Arrays.asList(types[i % types.length].name())), 30 + i % 50, 40 + i % 30, 35 + i % 20);
+        p.setId(1 + i % 150);
+        p.addMove(MoveRegistry.tackle());
+        p.addMove(MoveRegistry.strike(types[i % types.length]));
+        return p;
+    }
+
+    // Runs a body with standard output discarded, restoring it afterwards.
+    private static LongUnaryOperator quietly(LongUnaryOperator body) {
+        return n -> {
+            PrintStream console = System.out;
+            System.setOut(QUIET);
+            try {
+                return body.applyAsLong(n);
+            } finally {
+                System.setOut(console);
+            }
+        };
+    }
+}
@@ -0,0 +1,130 @@
+// Imports for collecting per-iteration timings and writing results as JSON.
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.List;
+import java.util.function.LongUnaryOperator;
+
+// Minimal JMH-style measurement harness for the game's default-package classes: warm-up iterations, timed measurement iterations, and a sink so the JIT cannot drop the measured work.
+// JMH itself is not used: its generated benchmark classes live in a named package and so cannot refer to the game's default-package classes.
+// Results are written in JMH's JSON shape, so moving to JMH later keeps the same tooling.
+public final class MicroBenchmark {
+
+    // Default iteration counts and durations.
+    public static final int WARMUP_ITERATIONS = 5;
+    public static final int MEASUREMENT_ITERATIONS = 5;
+    public static final long WARMUP_MILLIS = 200;
+    public static final long MEASUREMENT_MILLIS = 500;
+
+    // Consumes checksums from the measured code (the equivalent of a JMH Blackhole).
+    private static volatile long sink;
+
+    // Summary of one benchmark: mean and standard deviation of nanoseconds per operation over the measurement iterations.
+    public static final class Result {
+        public final String name;
+        public final double nanosPerOp;
+        public final double stdDevNanosPerOp;
+        public final long operations;
+        public final int measurementIterations;
+
+        Result(String name, double nanosPerOp, double stdDevNanosPerOp, long operations, int measurementIterations) {
+            this.name = name;
+            this.nanosPerOp = nanosPerOp;
+            this.stdDevNanosPerOp = stdDevNanosPerOp;
+            this.operations = operations;
+            this.measurementIterations = measurementIterations;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-40s %12.2f +- %8.2f ns/op", name, nanosPerOp, stdDevNanosPerOp);
+        }
+    }
+
+    private MicroBenchmark() {
+    }
+
+    // Measures a body that performs the given number of operations per call and returns a checksum of its work.
+    public static Result run(String name, LongUnaryOperator body) {
+        return run(name, body, WARMUP_ITERATIONS, MEASUREMENT_ITERATIONS, WARMUP_MILLIS, MEASUREMENT_MILLIS);
+    }
+
+    // Measures a body with explicit iteration counts and durations.
+    public static Result run(String name, LongUnaryOperator body, int warmupIterations, int measurementIterations, long warmupMillis, long measurementMillis) {
+        long batch = calibrate(body);
+
+        for (int i = 0; i < warmupIterations; i++) {
+            timeIteration(body, batch, warmupMillis);
+        }
+
+        List<Double> samples = new ArrayList<>();
+        long totalOps = 0;
+        for (int i = 0; i < measurementIterations; i++) {
+            long[] opsAndNanos = timeIteration(body, batch, measurementMillis);
+            totalOps += opsAndNanos[0];
+            samples.add((double) opsAndNanos[1] / opsAndNanos[0]);
+        }
+
+        double mean = 0;
+        for (double s : samples) mean += s;
+        mean /= samples.size();
+        double variance = 0;
+        for (double s : samples) variance += (s - mean) * (s - mean);
+        double stdDev = samples.size() > 1 ? Math.sqrt(variance / (samples.size() - 1)) : 0.0;
+
+        Result result = new Result(name, mean, stdDev, totalOps, measurementIterations);
+        System.out.println(result);
+        return result;
+    }
+
+    // Writes results in the shape of JMH's JSON output (benchmark, mode, primaryMetric), so the same tooling can track both.
+    // scoreError holds the standard deviation across measurement iterations rather than JMH's confidence interval.
+    public static void writeJson(List<Result> results, Path file) throws IOException {
+        StringBuilder json = new StringBuilder("[\n");
+        for (int i = 0; i < results.size(); i++) {
+            Result r = results.get(i);
+            json.append("    {\n");
+            json.append("        \"benchmark\": \"").append(r.name.replace("\\", "\\\\").replace("\"", "\\\"")).append("\",\n");
+            json.append("        \"mode\": \"avgt\",\n");
+            json.append("        \"measurementIterations\": ").append(r.measurementIterations).append(",\n");
+            json.append("        \"operations\": ").append(r.operations).append(",\n");
+            json.append("        \"primaryMetric\": {\n");
+            json.append(String.format(Locale.ROOT, "            \"score\": %.3f,\n", r.nanosPerOp));
+            json.append(String.format(Locale.ROOT, "            \"scoreError\": %.3f,\n", r.stdDevNanosPerOp));
+            json.append("            \"scoreUnit\": \"ns/op\"\n");
+            json.append("        }\n");
+            json.append(i < results.size() - 1 ? "    },\n" : "    }\n");
+        }
+        json.append("]\n");
+        Files.write(file, json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Finds a batch size that takes roughly a millisecond, so timer overhead stays negligible.
+    private static long calibrate(LongUnaryOperator body) {
+        long batch = 1;
+        while (true) {
+            long start = System.nanoTime();
+            sink += body.applyAsLong(batch);
+            long elapsed = System.nanoTime() - start;
+            if (elapsed >= 1_000_000 || batch >= (1L << 40)) return batch;
+            batch *= 2;
+        }
+    }
+
+    // Runs batches until the iteration time has elapsed; returns {operations, nanoseconds}.
+    private static long[] timeIteration(LongUnaryOperator body, long batch, long millis) {
+        long deadline = System.nanoTime() + millis * 1_000_000;
+        long ops = 0;
+        long start = System.nanoTime();
+        long now;
+        do {
+            sink += body.applyAsLong(batch);
+            ops += batch;
+            now = System.nanoTime();
+        } while (now < deadline);
+        return new long[] {ops, now - start};
+    }
+}
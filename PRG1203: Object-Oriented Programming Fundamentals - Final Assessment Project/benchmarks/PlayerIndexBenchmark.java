@@ -0,0 +1,72 @@
+// Imports for building a save directory of many profiles and collecting results.
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Measures the player index (PlayerIndex) over a save directory of 3,000 profiles of 20 Pokémon each: listing the profiles from cold (every
+// save parsed) and warm (index file read, saves checked by modified time), and the index's share of one save, i.e. recording a save that
+// was just written. The directory is created under the system temp folder and deleted afterwards.
+// Usage: java PlayerIndexBenchmark [results.json]
+public class PlayerIndexBenchmark {
+
+    private static final int PROFILES = 3_000;
+    private static final int POKEMON_PER_PROFILE = 20;
+
+    public static void main(String[] args) throws IOException {
+        List<MicroBenchmark.Result> results = new ArrayList<>();
+        Path directory = Files.createTempDirectory("index-benchmark");
+        try {
+            for (int i = 0; i < PROFILES; i++) {
+                Player player = new Player("Profile " + i);
+                for (int k = 0; k < POKEMON_PER_PROFILE; k++) player.addPokemon(sample(k));
+                Files.write(directory.resolve("profile_" + i + ".json"), JsonSaveSystem.toJson(player).getBytes(Charset.defaultCharset()));
+            }
+
+            long start = System.nanoTime();
+            int listed = new PlayerIndex(directory).entries().size();
+            System.out.printf("Cold listing of %,d profiles: %.1f ms\n", listed, (System.nanoTime() - start) / 1_000_000.0);
+            start = System.nanoTime();
+            listed = new PlayerIndex(directory).entries().size();
+            System.out.printf("Warm listing of %,d profiles: %.1f ms\n", listed, (System.nanoTime() - start) / 1_000_000.0);
+
+            // One index kept open, as in a session: each operation records a save of the same profile with a new summary.
+            PlayerIndex index = new PlayerIndex(directory);
+            index.entries();
+            Path saveFile = directory.resolve("profile_0.json");
+            results.add(MicroBenchmark.run("recordSave" + PROFILES, n -> {
+                long total = 0;
+                for (long i = 0; i < n; i++) {
+                    index.recordSave(saveFile, index.directoryTime(), "Profile 0", 0, 0, (int) (i & 0xffff));
+                    total++;
+                }
+                return total;
+            }));
+            System.out.printf("Index file after the run: %,d bytes\n", Files.size(directory.resolve(PlayerIndex.INDEX_FILE_NAME)));
+        } finally {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+                for (Path file : files) Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(directory);
+        }
+
+        if (args.length > 0) {
+            MicroBenchmark.writeJson(results, Paths.get(args[0]));
+            System.out.println("Results written to " + args[0]);
+        }
+    }
+
+    // A Pokémon with the fields a real save carries.
+    private static Pokemon sample(int i) {
+        Type[] types = Type.values();
+        Pokemon p = new Pokemon("Sample " + i, new ArrayList<>(Arrays.asList(types[i % types.length].toString())), 30 + i, 40 + i, 35 + i);
+        p.setId(1 + i);
+        p.addMove(MoveRegistry.strike(types[i % types.length]));
+        return p;
+    }
+}
@@ -0,0 +1,59 @@
+// Imports for building the sample collection.
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Compares journalling small changes (PlayerJournal) with rewriting the whole save for a player with a large collection, then checks that
+// loading (save plus journal) gives back the same player. The player's files are written to saves/ and deleted afterwards.
+// Usage: java PlayerJournalBenchmark [collection size]
+public class PlayerJournalBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int collection = 5_000;
+        try {
+            if (args.length > 0) collection = Integer.parseInt(args[0].trim());
+        } catch (NumberFormatException e) {
+            System.out.println("Usage: java PlayerJournalBenchmark [collection size]");
+            return;
+        }
+
+        Player player = new Player("journal benchmark");
+        for (int i = 0; i < collection; i++) {
+            Pokemon p = new Pokemon("Sample " + (i % 150), new ArrayList<>(List.of(Type.values()[i % Type.values().length].toString())), 40, 50, 45);
+            p.setId(1 + i % 150);
+            p.addMove(MoveRegistry.tackle());
+            player.addPokemon(p);
+        }
+
+        int fullSaves = 20;
+        long start = System.nanoTime();
+        for (int i = 0; i < fullSaves; i++) {
+            player.addYen(1);
+            JsonSaveSystem.writeSave(player);
+        }
+        double fullMicros = (System.nanoTime() - start) / 1000.0 / fullSaves;
+
+        int changes = 2_000;
+        PlayerJournal journal = PlayerJournal.attach(player);
+        start = System.nanoTime();
+        for (int i = 0; i < changes; i++) {
+            player.addYen(1);
+            if (i % 10 == 0) player.incrementBattlesWon();
+            if (i % 100 == 0) player.addPokemon(player.getPokemons().get(i % collection));
+            journal.sync();
+        }
+        double journalMicros = (System.nanoTime() - start) / 1000.0 / changes;
+        long journalBytes = journal.size();
+
+        Player loaded = JsonSaveSystem.readPlayerSave(player.getName());
+        boolean same = loaded != null && loaded.getYen() == player.getYen() && loaded.getBattlesWon() == player.getBattlesWon()
+                && loaded.getPokemons().size() == player.getPokemons().size();
+        journal.close();
+
+        System.out.printf("Collection of %,d Pokémon: full save %.0f µs per change, journal %.1f µs per change (fsync included in both)\n",
+                collection, fullMicros, journalMicros);
+        System.out.printf("Journal held %,d bytes when loaded; save plus journal %s the player in memory.\n",
+                journalBytes, same ? "matched" : "DID NOT match");
+        JsonSaveSystem.deletePlayerSave(player.getName());
+    }
+}
@@ -0,0 +1,57 @@
+// Imports for building the fighters' type lists.
+import java.util.ArrayList;
+import java.util.Arrays;
+
+// The fighters the benchmarks and checks battle with, built in one place so they all measure the same matchups. Each call returns a new
+// Pokémon. Vine Whip and Ember come from moves.json, so run from a folder that has it (the Maven build copies it into target/).
+public final class SampleFighters {
+
+    private SampleFighters() {
+    }
+
+    // Electric, with Tackle and an Electric strike.
+    public static Pokemon pikachu() {
+        Pokemon p = new Pokemon("Pikachu", new ArrayList<>(Arrays.asList("Electric")), 35, 55, 40);
+        p.addMove(MoveRegistry.tackle());
+        p.addMove(MoveRegistry.strike(Type.ELECTRIC));
+        return p;
+    }
+
+    // Grass and Poison, with Tackle and Vine Whip.
+    public static Pokemon bulbasaur() {
+        Pokemon p = new Pokemon("Bulbasaur", new ArrayList<>(Arrays.asList("Grass", "Poison")), 45, 49, 49);
+        p.addMove(MoveRegistry.tackle());
+        p.addMove(catalogueMove("Vine Whip"));
+        return p;
+    }
+
+    // Fire, with three moves: Tackle, Ember and a Normal strike.
+    public static Pokemon charmander() {
+        Pokemon p = new Pokemon("Charmander", new ArrayList<>(Arrays.asList("Fire")), 39, 52, 43);
+        p.addMove(MoveRegistry.tackle());
+        p.addMove(catalogueMove("Ember"));
+        p.addMove(MoveRegistry.strike(Type.NORMAL));
+        return p;
+    }
+
+    // Water, with no moves, so it always falls back to Struggle.
+    public static Pokemon magikarp() {
+        return new Pokemon("Magikarp", new ArrayList<>(Arrays.asList("Water")), 20, 10, 55);
+    }
+
+    // Ghost and Poison, with Struggle as an ordinary move beside a Ghost strike and Tackle.
+    public static Pokemon gastly() {
+        Pokemon p = new Pokemon("Gastly", new ArrayList<>(Arrays.asList("Ghost", "Poison")), 30, 35, 30);
+        p.addMove(Struggle.INSTANCE);
+        p.addMove(MoveRegistry.strike(Type.GHOST));
+        p.addMove(MoveRegistry.tackle());
+        return p;
+    }
+
+    // A move from moves.json; fails at once rather than letting a missing catalogue turn into a null move mid-battle.
+    private static Move catalogueMove(String name) {
+        Move move = MoveRegistry.get(name);
+        if (move == null) throw new IllegalStateException(name + " is not in the move catalogue; run from a folder with moves.json");
+        return move;
+    }
+}
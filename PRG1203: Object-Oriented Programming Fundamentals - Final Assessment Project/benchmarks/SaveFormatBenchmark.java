@@ -0,0 +1,102 @@
+// Imports for writing the benchmark save files and collecting results.
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Compares the JSON save with the binary save (BinarySaveCodec) for collections of 10 to 10,000 Pokémon: file size, building the save in
+// memory, and loading it from disk through JsonSaveSystem.readSave (which detects the format). Each collection is also checked to load back
+// the same from both formats. Run from this folder after compiling the game and benchmarks together.
+// Usage: java SaveFormatBenchmark [results.json]
+public class SaveFormatBenchmark {
+
+    private static final int[] COLLECTION_SIZES = {10, 1_000, 10_000};
+
+    public static void main(String[] args) throws IOException {
+        List<MicroBenchmark.Result> results = new ArrayList<>();
+        Files.createDirectories(Paths.get("saves"));
+
+        for (int size : COLLECTION_SIZES) {
+            Player player = new Player("format benchmark " + size);
+            for (int i = 0; i < size; i++) player.addPokemon(sample(i));
+
+            Path jsonPath = Files.createTempFile(Paths.get("saves"), "format-benchmark", ".tmp");
+            Path binaryPath = Files.createTempFile(Paths.get("saves"), "format-benchmark", ".tmp");
+            try {
+                Files.write(jsonPath, JsonSaveSystem.toJson(player).getBytes(Charset.defaultCharset()));
+                Files.write(binaryPath, BinarySaveCodec.encode(player));
+                long jsonSize = Files.size(jsonPath);
+                long binarySize = Files.size(binaryPath);
+                System.out.printf("=== %,d Pokémon: JSON %,d bytes, binary %,d bytes (%.1f%%) ===\n",
+                        size, jsonSize, binarySize, 100.0 * binarySize / jsonSize);
+
+                String fromJson = describe(JsonSaveSystem.readSave(jsonPath));
+                String fromBinary = describe(JsonSaveSystem.readSave(binaryPath));
+                if (!fromJson.equals(fromBinary)) System.out.println("The two formats load DIFFERENT players.");
+
+                results.add(MicroBenchmark.run("jsonSave" + size, n -> {
+                    long bytes = 0;
+                    for (long i = 0; i < n; i++) bytes += JsonSaveSystem.toJson(player).getBytes(Charset.defaultCharset()).length;
+                    return bytes;
+                }));
+                results.add(MicroBenchmark.run("binarySave" + size, n -> {
+                    long bytes = 0;
+                    for (long i = 0; i < n; i++) bytes += BinarySaveCodec.encode(player).length;
+                    return bytes;
+                }));
+                results.add(MicroBenchmark.run("jsonLoad" + size, n -> load(jsonPath, n)));
+                results.add(MicroBenchmark.run("binaryLoad" + size, n -> load(binaryPath, n)));
+            } finally {
+                Files.deleteIfExists(jsonPath);
+                Files.deleteIfExists(binaryPath);
+            }
+        }
+
+        if (args.length > 0) {
+            MicroBenchmark.writeJson(results, Paths.get(args[0]));
+            System.out.println("Results written to " + args[0]);
+        }
+    }
+
+    private static long load(Path path, long n) {
+        long loaded = 0;
+        for (long i = 0; i < n; i++) {
+            try {
+                loaded += JsonSaveSystem.readSave(path).getPokemons().size();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return loaded;
+    }
+
+    // Every field the save holds, for checking that both formats load the same player.
+    private static String describe(Player p) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(p.getName()).append(' ').append(p.getBattlesWon()).append(' ').append(p.getBattlesLost()).append(' ').append(p.getYen());
+        for (Pokemon q : p.getPokemons()) {
+            sb.append('|').append(q.getId()).append(' ').append(q.getName()).append(' ').append(q.getTypes())
+              .append(' ').append(q.getMaxHp()).append(' ').append(q.getHp()).append(' ').append(q.getAttack()).append(' ').append(q.getDefense())
+              .append(' ').append(q.getGrade()).append(' ').append(q.getEvolvesToId()).append(' ').append(q.isMegaCapable())
+              .append(' ').append(q.isZMoveCapable()).append(' ').append(q.getMoves().isEmpty() ? null : q.getMoves().get(0).name());
+        }
+        return sb.toString();
+    }
+
+    // A distinct Pokémon per index, with the fields a real save carries; types use their display names, as Pokédex entries do.
+    private static Pokemon sample(int i) {
+        Type[] types = Type.values();
+        Pokemon p = new Pokemon("Sample " + (i % 150), new ArrayList<>(Arrays.asList(types[i % types.length].toString(), types[(i / 7) % types.length].toString())),
+                30 + i % 50, 40 + i % 30, 35 + i % 20);
+        p.setId(1 + i % 150);
+        p.setGrade(1 + i % 5);
+        if (i % 3 == 0) p.setEvolvesToId(2 + i % 150);
+        p.setMegaCapable(i % 11 == 0);
+        p.addMove(MoveRegistry.strike(types[i % types.length]));
+        return p;
+    }
+}
@@ -0,0 +1,311 @@
+// Imports for reading and writing the benchmark save files and collecting results.
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Compares loading a save with the streaming JsonReader against the previous approach (read the file into one string, then search it
+// with indexOf once per field and split arrays on commas), for collections of 10 to 10,000 Pokémon, and checks names with escaped quotes,
+// commas and control characters. Run from this folder after compiling the game and benchmarks together. Usage: java SaveLoadBenchmark [results.json]
+public class SaveLoadBenchmark {
+
+    private static final int[] COLLECTION_SIZES = {10, 1_000, 10_000};
+
+    // Swallows the status line every save prints.
+    private static final PrintStream QUIET = new PrintStream(OutputStream.nullOutputStream());
+
+    public static void main(String[] args) throws IOException {
+        List<MicroBenchmark.Result> results = new ArrayList<>();
+
+        System.out.println("=== Names with escaped characters ===");
+        Player tricky = new Player("Ace \"The, Best\" Trainer");
+        Pokemon leek = new Pokemon("Farfetch'd, \"Leek\" [Special]", new ArrayList<>(Arrays.asList("Normal", "Flying")), 52, 65, 55);
+        leek.addMove(MoveRegistry.tackle());
+        tricky.addPokemon(leek);
+        Path trickyPath = save(tricky);
+        Player legacyTricky = LegacyParser.load(trickyPath);
+        Player streamedTricky = JsonSaveSystem.readPlayer(new FileReader(trickyPath.toFile()));
+        System.out.println("saved:     " + describe(tricky));
+        System.out.println("legacy:    " + describe(legacyTricky));
+        System.out.println("streaming: " + describe(streamedTricky));
+        JsonSaveSystem.deletePlayerSave(tricky.getName());
+
+        // Control characters have no short escape and are written as hex escapes; the streaming reader must load them back unchanged.
+        Player control = new Player("Bell\u0001Ringer\u001f");
+        control.addPokemon(new Pokemon("Chime\u0007cho", new ArrayList<>(Arrays.asList("Psychic")), 65, 50, 70));
+        Path controlPath = save(control);
+        Player streamedControl = JsonSaveSystem.readPlayer(new FileReader(controlPath.toFile()));
+        System.out.println("control characters round-trip: " + (describe(control).equals(describe(streamedControl)) ? "yes" : "NO"));
+        JsonSaveSystem.deletePlayerSave(control.getName());
+
+        for (int size : COLLECTION_SIZES) {
+            Player player = new Player("benchmark collection " + size);
+            for (int i = 0; i < size; i++) player.addPokemon(sample(i));
+            Path path = save(player);
+            System.out.printf("=== %,d Pokémon (%,d bytes) ===\n", size, Files.size(path));
+
+            int legacyCount = LegacyParser.load(path).getPokemons().size();
+            int streamedCount = JsonSaveSystem.readPlayer(new FileReader(path.toFile())).getPokemons().size();
+            if (legacyCount != size || streamedCount != size) {
+                System.out.println("Loaded " + legacyCount + " (legacy) and " + streamedCount + " (streaming) of " + size + " Pokémon.");
+            }
+
+            results.add(MicroBenchmark.run("legacyLoad" + size, n -> {
+                long loaded = 0;
+                for (long i = 0; i < n; i++) loaded += LegacyParser.load(path).getPokemons().size();
+                return loaded;
+            }));
+            results.add(MicroBenchmark.run("streamingLoad" + size, n -> {
+                long loaded = 0;
+                for (long i = 0; i < n; i++) {
+                    try {
+                        loaded += JsonSaveSystem.readPlayer(new FileReader(path.toFile())).getPokemons().size();
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+                return loaded;
+            }));
+            JsonSaveSystem.deletePlayerSave(player.getName());
+        }
+
+        if (args.length > 0) {
+            MicroBenchmark.writeJson(results, Paths.get(args[0]));
+            System.out.println("Results written to " + args[0]);
+        }
+    }
+
+    // Saves a player through JsonSaveSystem and returns the file it wrote.
+    private static Path save(Player player) {
+        PrintStream console = System.out;
+        System.setOut(QUIET);
+        try {
+            JsonSaveSystem.saveGame(player);
+        } finally {
+            System.setOut(console);
+        }
+        return Paths.get("saves", player.getName().toLowerCase().replaceAll("[^a-z0-9]", "_") + ".json");
+    }
+
+    private static String describe(Player p) {
+        if (p == null) return "(failed to load)";
+        List<String> names = new ArrayList<>();
+        for (Pokemon pokemon : p.getPokemons()) names.add(pokemon.getName() + " " + pokemon.getTypes());
+        return p.getName() + " " + names;
+    }
+
+    // A distinct Pokémon per index, with the fields a real save carries.
+    private static Pokemon sample(int i) {
+        Type[] types = Type.values();
+        Pokemon p = new Pokemon("Sample " + i, new ArrayList<>(Arrays.asList(types[i % types.length].name(), types[(i / 7) % types.length].name())),
+                30 + i % 50, 40 + i % 30, 35 + i % 20);
+        p.setId(1 + i % 150);
+        p.setGrade(1 + i % 5);
+        p.addMove(MoveRegistry.strike(types[i % types.length]));
+        return p;
+    }
+
+    // The string-search loader as it was before JsonReader, kept as the baseline.
+    private static final class LegacyParser {
+
+        static Player load(Path path) {
+            try (BufferedReader reader = new BufferedReader(new FileReader(path.toFile()))) {
+                StringBuilder content = new StringBuilder();
+                String line;
+                while ((line = reader.readLine()) != null) content.append(line).append("\n");
+                String json = content.toString();
+
+                Player player = new Player(extractJsonString(json, "playerName"));
+                player.setBattlesWon(extractJsonInt(json, "battlesWon"));
+                player.setBattlesLost(extractJsonInt(json, "battlesLost"));
+                player.setYen(extractJsonInt(json, "yen"));
+                player.setPokemons(parsePokemonArrayFromJson(json));
+                return player;
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        // Extracts a string value from a JSON string for the given key.
+        private static String extractJsonString(String json, String key) {
+            String searchPattern = "\"" + key + "\": \"";
+            int start = json.indexOf(searchPattern);
+            if (start == -1) return "";
+            start += searchPattern.length();
+            int end = json.indexOf("\"", start);
+            return end == -1 ? "" : json.substring(start, end);
+        }
+
+        // Extracts an integer value from a JSON string for the given key.
+        private static int extractJsonInt(String json, String key) {
+            String searchPattern = "\"" + key + "\": ";
+            int start = json.indexOf(searchPattern);
+            if (start == -1) return 0;
+            start += searchPattern.length();
+            int end = json.indexOf(",", start);
+            if (end == -1) end = json.indexOf("}", start);
+            if (end == -1) return 0;
+            try {
+                return Integer.parseInt(json.substring(start, end).trim());
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+
+        // Extracts a boolean value from a JSON string for the given key.
+        private static boolean extractJsonBoolean(String json, String key) {
+            String searchPattern = "\"" + key + "\": ";
+            int start = json.indexOf(searchPattern);
+            if (start == -1) return false;
+            start += searchPattern.length();
+            int end = json.indexOf(",", start);
+            if (end == -1) end = json.indexOf("}", start);
+            if (end == -1) return false;
+            String token = json.substring(start, end).trim();
+            return token.equalsIgnoreCase("true");
+        }
+
+        // Parses the Pokémon array from a JSON string into a list of Pokémon objects.
+        private static List<Pokemon> parsePokemonArrayFromJson(String json) {
+            List<Pokemon> result = new ArrayList<>();
+            String search = "\"pokemon\":";
+            int idx = json.indexOf(search);
+            if (idx == -1) return result;
+            idx = json.indexOf("[", idx);
+            if (idx == -1) return result;
+            int end = matchingBracket(json, idx);
+            if (end == -1) return result;
+
+            // Scan for object blocks between idx and end.
+            int i = idx + 1;
+            while (i < end) {
+                int objStart = json.indexOf("{", i);
+                if (objStart == -1 || objStart > end) break;
+
+                // Find matching closing brace.
+                int depth = 0;
+                int j = objStart;
+                for (; j <= end; j++) {
+                    char c = json.charAt(j);
+                    if (c == '{') depth++;
+                    else if (c == '}') {
+                        depth--;
+                        if (depth == 0) break;
+                    }
+                }
+                if (j > end) break;
+
+                String obj = json.substring(objStart, j + 1);
+                Pokemon p = parsePokemonFromFragment(obj);
+                if (p != null) result.add(p);
+                i = j + 1;
+            }
+            return result;
+        }
+
+        // Index of the ']' closing the array that opens at the given index, skipping nested arrays (e.g. each Pokémon's types) and strings; -1 if unclosed.
+        private static int matchingBracket(String json, int open) {
+            int depth = 0;
+            boolean inString = false;
+            for (int j = open; j < json.length(); j++) {
+                char c = json.charAt(j);
+                if (inString) {
+                    if (c == '\\') j++;
+                    else if (c == '"') inString = false;
+                } else if (c == '"') {
+                    inString = true;
+                } else if (c == '[') {
+                    depth++;
+                } else if (c == ']' && --depth == 0) {
+                    return j;
+                }
+            }
+            return -1;
+        }
+
+        // Parses a single Pokémon object from a JSON fragment. This parse expects the canonical save format. It reads "move" (single-element array) only.
+        private static Pokemon parsePokemonFromFragment(String fragment) {
+            try {
+                Pokemon pokemon = new Pokemon();
+                pokemon.setId(extractJsonInt(fragment, "id"));
+                pokemon.setName(extractJsonString(fragment, "name"));
+                pokemon.setMaxHp(extractJsonInt(fragment, "maxHp"));
+                pokemon.setHp(extractJsonInt(fragment, "hp"));
+                pokemon.setAttack(extractJsonInt(fragment, "attack"));
+                pokemon.setDefense(extractJsonInt(fragment, "defense"));
+
+                // Optional meta fields.
+                Integer grade = extractJsonNullableInt(fragment, "grade");
+                if (grade != null) pokemon.setGrade(grade);
+                Integer evolves = extractJsonNullableInt(fragment, "evolvesToId");
+                pokemon.setEvolvesToId(evolves);
+                pokemon.setMegaCapable(extractJsonBoolean(fragment, "megaCapable"));
+                pokemon.setZMoveCapable(extractJsonBoolean(fragment, "zMoveCapable"));
+
+                // Types and moves.
+                List<String> types = parseJsonStringArray(fragment, "types");
+                pokemon.setTypes(types);
+
+                // Load moves: canonical "move" single-element array preferred, fall back to legacy "moves."
+                List<String> moveNames = parseJsonStringArray(fragment, "move");
+                if (moveNames.isEmpty()) moveNames = parseJsonStringArray(fragment, "moves");
+                for (String mn : moveNames) {
+                    Move mv = MoveRegistry.resolve(mn);
+                    if (mv != null) pokemon.addMove(mv);
+                }
+
+                return pokemon;
+            } catch (Exception e) {
+                System.out.println("Error parsing Pokemon fragment: " + e.getMessage());
+                return null;
+            }
+        }
+
+        // Extracts an integer value from JSON that may be null.
+        private static Integer extractJsonNullableInt(String json, String key) {
+            String searchPattern = "\"" + key + "\": ";
+            int start = json.indexOf(searchPattern);
+            if (start == -1) return null;
+            start += searchPattern.length();
+            int end = json.indexOf(",", start);
+            if (end == -1) end = json.indexOf("}", start);
+            if (end == -1) return null;
+            String token = json.substring(start, end).trim();
+            if ("null".equals(token)) return null;
+            try {
+                return Integer.parseInt(token);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        // Parses an array of strings from a JSON string for the given key.
+        private static List<String> parseJsonStringArray(String json, String key) {
+            List<String> result = new ArrayList<>();
+            String searchPattern = "\"" + key + "\": [";
+            int start = json.indexOf(searchPattern);
+            if (start == -1) return result;
+            start += searchPattern.length();
+            int end = json.indexOf("]", start);
+            if (end == -1) return result;
+            String arrayContent = json.substring(start, end);
+            if (arrayContent.trim().isEmpty()) return result;
+            String[] items = arrayContent.split(",");
+            for (String item : items) {
+                String cleaned = item.trim();
+                if (cleaned.startsWith("\"") && cleaned.endsWith("\"")) {
+                    cleaned = cleaned.substring(1, cleaned.length() - 1);
+                    result.add(cleaned);
+                }
+            }
+            return result;
+        }
+    }
+}
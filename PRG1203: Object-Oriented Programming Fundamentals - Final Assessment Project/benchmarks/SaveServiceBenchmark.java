@@ -0,0 +1,30 @@
+// Marks one player dirty many times in a burst through a SaveService and reports how many file writes that took. The player's save is
+// written to saves/ and deleted afterwards. Usage: java SaveServiceBenchmark [requests]
+public class SaveServiceBenchmark {
+
+    public static void main(String[] args) {
+        int count = 1000;
+        try {
+            if (args.length > 0) count = Integer.parseInt(args[0].trim());
+        } catch (NumberFormatException e) {
+            System.out.println("Usage: java SaveServiceBenchmark [requests]");
+            return;
+        }
+
+        Player player = new Player("save service benchmark");
+        SaveService saves = new SaveService();
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            player.addYen(1);
+            saves.markDirty(player);
+        }
+        double markMillis = (System.nanoTime() - start) / 1_000_000.0;
+        boolean ok = saves.flush();
+        double totalMillis = (System.nanoTime() - start) / 1_000_000.0;
+        saves.close();
+
+        System.out.printf("%d save requests took %.2f ms on the game thread and %d file writes (%.1f ms until flushed)%s\n",
+                saves.getRequests(), markMillis, saves.getWrites(), totalMillis, ok ? "" : "; a write FAILED");
+        JsonSaveSystem.deletePlayerSave(player.getName());
+    }
+}
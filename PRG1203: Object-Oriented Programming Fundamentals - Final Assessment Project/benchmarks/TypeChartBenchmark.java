@@ -0,0 +1,84 @@
+// Imports for the map-based baseline chart.
+import java.util.EnumMap;
+import java.util.Map;
+
+// Compares the flat byte-table TypeChart against the previous EnumMap<Type, Map<Type, Double>> lookup, for single- and dual-type defenders.
+public class TypeChartBenchmark {
+
+    // Number of precomputed attacker/defender pairs cycled through per run.
+    private static final int PAIRS = 1024;
+
+    public static void main(String[] args) {
+        Type[] types = Type.values();
+        RandomSource random = new RandomSource(1);
+        Type[] attackers = new Type[PAIRS];
+        Type[] defenders = new Type[PAIRS];
+        int[] attackerOrdinals = new int[PAIRS];
+        int[] defenderOrdinals = new int[PAIRS];
+        Type[] secondDefenders = new Type[PAIRS];
+        int[] defenderIndices = new int[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            attackers[i] = types[random.nextInt(types.length)];
+            defenders[i] = types[random.nextInt(types.length)];
+            secondDefenders[i] = types[random.nextInt(types.length)];
+            attackerOrdinals[i] = attackers[i].ordinal();
+            defenderOrdinals[i] = defenders[i].ordinal();
+            defenderIndices[i] = TypeChart.defenderIndex(defenderOrdinals[i], secondDefenders[i].ordinal());
+        }
+
+        // The map-based chart as it was before the flat table, filled from the same data.
+        Map<Type, Map<Type, Double>> mapChart = new EnumMap<>(Type.class);
+        for (Type atk : types) {
+            Map<Type, Double> row = new EnumMap<>(Type.class);
+            for (Type def : types) row.put(def, TypeChart.getEffectiveness(atk, def));
+            mapChart.put(atk, row);
+        }
+
+        System.out.println("=== TypeChart.getEffectiveness ===");
+        MicroBenchmark.run("enumMapLookup", n -> {
+            double sum = 0;
+            for (long i = 0; i < n; i++) {
+                int k = (int) (i & (PAIRS - 1));
+                sum += mapChart.getOrDefault(attackers[k], Map.of()).getOrDefault(defenders[k], 1.0);
+            }
+            return (long) sum;
+        });
+        MicroBenchmark.run("flatTableLookup", n -> {
+            double sum = 0;
+            for (long i = 0; i < n; i++) {
+                int k = (int) (i & (PAIRS - 1));
+                sum += TypeChart.getEffectiveness(attackers[k], defenders[k]);
+            }
+            return (long) sum;
+        });
+        MicroBenchmark.run("flatTableOrdinalLookup", n -> {
+            double sum = 0;
+            for (long i = 0; i < n; i++) {
+                int k = (int) (i & (PAIRS - 1));
+                sum += TypeChart.getEffectiveness(attackerOrdinals[k], defenderOrdinals[k]);
+            }
+            return (long) sum;
+        });
+
+        System.out.println("=== Dual-type effectiveness ===");
+        MicroBenchmark.run("enumMapLookupPerDefenderType", n -> {
+            double sum = 0;
+            for (long i = 0; i < n; i++) {
+                int k = (int) (i & (PAIRS - 1));
+                Map<Type, Double> row = mapChart.getOrDefault(attackers[k], Map.of());
+                double eff = row.getOrDefault(defenders[k], 1.0);
+                if (secondDefenders[k] != defenders[k]) eff *= row.getOrDefault(secondDefenders[k], 1.0);
+                sum += eff;
+            }
+            return (long) sum;
+        });
+        MicroBenchmark.run("dualTableLookup", n -> {
+            double sum = 0;
+            for (long i = 0; i < n; i++) {
+                int k = (int) (i & (PAIRS - 1));
+                sum += TypeChart.getDualEffectiveness(attackerOrdinals[k], defenderIndices[k]);
+            }
+            return (long) sum;
+        });
+    }
+}
@@ -0,0 +1,32 @@
+// Solves the sample matchup (SampleFighters) exactly with WinProbabilitySolver, times the solve, and checks the answer against simulation.
+// Usage: java WinProbabilityBenchmark [battles] [seed]
+public class WinProbabilityBenchmark {
+
+    public static void main(String[] args) {
+        int battles = 1_000_000;
+        long seed = new RandomSource().nextLong();
+        try {
+            if (args.length > 0) battles = Integer.parseInt(args[0].trim());
+            if (args.length > 1) seed = Long.parseLong(args[1].trim());
+        } catch (NumberFormatException e) {
+            System.out.println("Usage: java WinProbabilityBenchmark [battles] [seed]");
+            return;
+        }
+
+        Pokemon pikachu = SampleFighters.pikachu();
+        Pokemon bulbasaur = SampleFighters.bulbasaur();
+
+        // Solve once to fill the damage caches, then time repeated solves.
+        WinProbabilitySolver.Solution solution = WinProbabilitySolver.solve(pikachu, bulbasaur);
+        int repeats = 10_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < repeats; i++) solution = WinProbabilitySolver.solve(pikachu, bulbasaur);
+        double micros = (System.nanoTime() - start) / 1_000.0 / repeats;
+
+        System.out.println("=== " + pikachu.getName() + " vs " + bulbasaur.getName() + " ===");
+        System.out.printf("Exact:     %s (%.1f us per solve)\n", solution, micros);
+        SimulationStats stats = new BattleSimulator().simulate(pikachu, bulbasaur, battles, seed);
+        System.out.printf("Simulated: First wins: %.4f%%, second wins: %.4f%%, draws: %.4f%%, expected turns: %.4f (%d battles, seed %d)\n",
+                stats.getFirstWinRate() * 100, stats.getSecondWinRate() * 100, stats.getDrawRate() * 100, stats.getMeanTurns(), battles, seed);
+    }
+}
@@ -0,0 +1,145 @@
+// Imports for the incubating Vector API; compile and run with --add-modules jdk.incubator.vector.
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// Vector API pass for BatchBattleKernel: advances one vector's worth of battle slots per iteration, with masks in place of the scalar branches.
+// Kept apart from the main sources so the game still compiles and runs without the incubator module; BatchBattleKernel loads it by name.
+// Results match BatchBattleKernel.stepScalar exactly: each lane advances its SplitMix64 state only for the draws that slot makes (the move pick
+// as RandomSource.nextInt does it, and a damage roll unless the move is Struggle), with the same double arithmetic and truncation to whole damage.
+// nextInt(3) draws again for about one value in 2^30; a vector where any lane would is handed to the scalar pass before anything is stored.
+public final class VectorBattleStep implements BatchBattleKernel.Stepper {
+
+    // Long and double vectors of the same shape, so masks and values move between them without reshaping.
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> DOUBLES = VectorSpecies.of(double.class, LONGS.vectorShape());
+
+    private static final double TWO_POW_52 = 0x1.0p52;
+    private static final long GAMMA = RandomSource.GOLDEN_GAMMA;
+
+    @Override
+    public void step(BatchBattleKernel k) {
+        int bound = LONGS.loopBound(k.slots);
+        for (int s = 0; s < bound; s += LONGS.length()) {
+            stepLanes(k, s);
+        }
+        k.stepScalar(bound, k.slots);
+    }
+
+    // One turn for the slots [s, s + lanes).
+    private static void stepLanes(BatchBattleKernel k, int s) {
+        DoubleVector hpA = DoubleVector.fromArray(DOUBLES, k.hpFirst, s);
+        DoubleVector hpB = DoubleVector.fromArray(DOUBLES, k.hpSecond, s);
+        DoubleVector turns = DoubleVector.fromArray(DOUBLES, k.turns, s);
+        VectorMask<Double> running = hpA.compare(VectorOperators.GT, 0.0)
+                .and(hpB.compare(VectorOperators.GT, 0.0))
+                .and(turns.compare(VectorOperators.LT, (double) BattleEngine.MAX_TURNS));
+        if (!running.anyTrue()) return;
+
+        LongVector state = LongVector.fromArray(LONGS, k.rng, s);
+
+        // First fighter: pick the move, then roll its damage if it rolls; recoil hurts the attacker.
+        LongVector count = LongVector.fromArray(LONGS, k.moveCountFirst, s);
+        VectorMask<Long> picking = running.cast(LONGS).and(count.compare(VectorOperators.NE, 0L));
+        state = state.add(GAMMA, picking);
+        LongVector move = chooseMove(count, mix64(state));
+        if (rejects(count, mix64(state), picking)) {
+            k.stepScalar(s, s + LONGS.length());
+            return;
+        }
+        VectorMask<Long> rolling = running.and(select(k, s, move, k.rollsFirst).compare(VectorOperators.NE, 0.0)).cast(LONGS);
+        state = state.add(GAMMA, rolling);
+        DoubleVector dealtByFirst = damage(k, s, move, mix64(state), k.baseFirst, k.roundAddFirst, k.minDamageFirst);
+        hpB = hpB.sub(dealtByFirst, running);
+        hpA = hpA.sub(select(k, s, move, k.recoilFirst), running);
+
+        // Second fighter, only where both are still standing.
+        VectorMask<Double> answering = running.and(hpA.compare(VectorOperators.GT, 0.0)).and(hpB.compare(VectorOperators.GT, 0.0));
+        DoubleVector dealtBySecond = null;
+        if (answering.anyTrue()) {
+            count = LongVector.fromArray(LONGS, k.moveCountSecond, s);
+            picking = answering.cast(LONGS).and(count.compare(VectorOperators.NE, 0L));
+            state = state.add(GAMMA, picking);
+            move = chooseMove(count, mix64(state));
+            if (rejects(count, mix64(state), picking)) {
+                k.stepScalar(s, s + LONGS.length());
+                return;
+            }
+            rolling = answering.and(select(k, s, move, k.rollsSecond).compare(VectorOperators.NE, 0.0)).cast(LONGS);
+            state = state.add(GAMMA, rolling);
+            dealtBySecond = damage(k, s, move, mix64(state), k.baseSecond, k.roundAddSecond, k.minDamageSecond);
+            hpA = hpA.sub(dealtBySecond, answering);
+            hpB = hpB.sub(select(k, s, move, k.recoilSecond), answering);
+        }
+
+        // Nothing is stored until here, so a vector handed to the scalar pass above is left untouched.
+        DoubleVector.fromArray(DOUBLES, k.damageByFirst, s).add(dealtByFirst, running).intoArray(k.damageByFirst, s);
+        if (dealtBySecond != null) {
+            DoubleVector.fromArray(DOUBLES, k.damageBySecond, s).add(dealtBySecond, answering).intoArray(k.damageBySecond, s);
+            DoubleVector.fromArray(DOUBLES, k.movesBySecond, s).add(1.0, answering).intoArray(k.movesBySecond, s);
+        }
+        hpA.intoArray(k.hpFirst, s);
+        hpB.intoArray(k.hpSecond, s);
+        turns.add(1, running).intoArray(k.turns, s);
+        state.intoArray(k.rng, s);
+    }
+
+    // Each lane's move index as RandomSource.nextInt(count) gives it from the draw: the low bits of the draw's high 32 bits for a power of two,
+    // otherwise the high 31 bits modulo the count. A count of 0 (Struggle only) gives move 0.
+    private static LongVector chooseMove(LongVector count, LongVector draw) {
+        LongVector mask = count.sub(1L);
+        VectorMask<Long> powerOfTwo = count.and(mask).compare(VectorOperators.EQ, 0L);
+        LongVector high = draw.lanewise(VectorOperators.LSHR, 32).and(mask);
+        LongVector u = draw.lanewise(VectorOperators.LSHR, 33);
+        LongVector divisor = count.blend(1L, powerOfTwo);
+        LongVector remainder = u.sub(u.div(divisor).mul(divisor));
+        return high.blend(remainder, powerOfTwo.not()).blend(0L, count.compare(VectorOperators.EQ, 0L));
+    }
+
+    // True if nextInt would reject the draw in any picking lane (its int arithmetic u + count - 1 - u % count overflows) and draw again.
+    private static boolean rejects(LongVector count, LongVector draw, VectorMask<Long> picking) {
+        VectorMask<Long> powerOfTwo = count.and(count.sub(1L)).compare(VectorOperators.EQ, 0L);
+        VectorMask<Long> lanes = picking.andNot(powerOfTwo);
+        if (!lanes.anyTrue()) return false;
+        LongVector u = draw.lanewise(VectorOperators.LSHR, 33);
+        LongVector divisor = count.blend(1L, powerOfTwo);
+        LongVector remainder = u.sub(u.div(divisor).mul(divisor));
+        return u.add(count).sub(1L).sub(remainder).compare(VectorOperators.GT, (long) Integer.MAX_VALUE, lanes).anyTrue();
+    }
+
+    // Rolls each lane's damage from the terms of its chosen move: max(minDamage, (long) (base * rand + roundAdd)), computed in doubles. Lanes whose
+    // move does not roll have a roll of whatever the state holds, which their terms (base 0) ignore.
+    private static DoubleVector damage(BatchBattleKernel k, int s, LongVector move, LongVector roll,
+                                       double[] bases, double[] roundAdds, double[] minDamages) {
+        DoubleVector base = select(k, s, move, bases);
+        DoubleVector roundAdd = select(k, s, move, roundAdds);
+        DoubleVector rand = ((DoubleVector) roll.lanewise(VectorOperators.LSHR, 11).convert(VectorOperators.L2D, 0))
+                .mul(BatchBattleKernel.ROLL_UNIT).mul(BatchBattleKernel.ROLL_SCALE).add(BatchBattleKernel.ROLL_OFFSET);
+
+        // Truncate without a double-to-long conversion: below 2^52, adding and removing 2^52 rounds to a whole number, and stepping
+        // back one where that rounded up gives the floor. Negative values are clamped to 0 first; every minimum damage is at least 0.
+        DoubleVector x = base.mul(rand).add(roundAdd).max(0.0);
+        DoubleVector rounded = x.add(TWO_POW_52).sub(TWO_POW_52);
+        DoubleVector floor = rounded.sub(1.0, rounded.compare(VectorOperators.GT, x));
+        return floor.max(select(k, s, move, minDamages));
+    }
+
+    // Gathers one per-move term for each lane's chosen move; blending every slot unconditionally beats testing each mask on this JDK.
+    private static DoubleVector select(BatchBattleKernel k, int s, LongVector move, double[] terms) {
+        DoubleVector out = DoubleVector.zero(DOUBLES);
+        for (int m = 0; m < BatchBattleKernel.MAX_MOVES; m++) {
+            VectorMask<Double> chosen = move.compare(VectorOperators.EQ, m).cast(DOUBLES);
+            out = out.blend(DoubleVector.fromArray(DOUBLES, terms, m * k.slots + s), chosen);
+        }
+        return out;
+    }
+
+    // SplitMix64 finaliser, lane by lane (the same steps as RandomSource.mix64).
+    private static LongVector mix64(LongVector z) {
+        z = z.lanewise(VectorOperators.XOR, z.lanewise(VectorOperators.LSHR, 30)).mul(0xbf58476d1ce4e5b9L);
+        z = z.lanewise(VectorOperators.XOR, z.lanewise(VectorOperators.LSHR, 27)).mul(0x94d049bb133111ebL);
+        return z.lanewise(VectorOperators.XOR, z.lanewise(VectorOperators.LSHR, 31));
+    }
+}